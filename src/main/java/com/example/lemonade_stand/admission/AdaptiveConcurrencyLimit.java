@@ -0,0 +1,120 @@
+package com.example.lemonade_stand.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Global concurrency limit that adapts to observed latency, AIMD style: every
+ * window of completed requests the p99 latency is compared to a target, the
+ * limit grows by one while latency is healthy and is cut multiplicatively as
+ * soon as it is not.
+ * <p>
+ * Acquire and release are CAS/atomic operations only. Latencies are recorded
+ * into a fixed log2 histogram, and whichever thread completes a window
+ * recomputes the limit.
+ */
+public class AdaptiveConcurrencyLimit {
+
+	private static final int BUCKETS = 40; // One bucket per power of two of microseconds, up to ~12 days
+	private static final double BACKOFF_RATIO = 0.9; // Multiplicative decrease factor
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final long targetP99Nanos;
+	private final int windowSize; // Completed requests between two adjustments
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger limit;
+	private final AtomicLongArray latencyHistogram = new AtomicLongArray(BUCKETS);
+	private final AtomicLong windowSamples = new AtomicLong();
+	private volatile long lastP99Nanos; // p99 of the last completed window
+
+	public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetP99Nanos,
+			int windowSize) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.targetP99Nanos = targetP99Nanos;
+		this.windowSize = windowSize;
+		this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+	}
+
+	/**
+	 * Tries to admit one more concurrent request.
+	 *
+	 * @return True if admitted; the caller must then call {@link #release(long)}.
+	 */
+	public boolean tryAcquire() {
+		while (true) {
+			int current = inFlight.get();
+			if (current >= limit.get()) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Releases an admitted request and records how long it took.
+	 *
+	 * @param latencyNanos Time the request spent being served.
+	 */
+	public void release(long latencyNanos) {
+		inFlight.decrementAndGet();
+		latencyHistogram.incrementAndGet(bucketOf(latencyNanos));
+		if (windowSamples.incrementAndGet() % windowSize == 0) {
+			adjustLimit();
+		}
+	}
+
+	// Computes the p99 of the window just completed and moves the limit
+	private void adjustLimit() {
+		long[] counts = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = latencyHistogram.getAndSet(i, 0);
+			total += counts[i];
+		}
+		if (total == 0) {
+			return;
+		}
+
+		long rank = (long) Math.ceil(total * 0.99);
+		long seen = 0;
+		int bucket = 0;
+		while (bucket < BUCKETS - 1 && (seen += counts[bucket]) < rank) {
+			bucket++;
+		}
+		long p99 = upperBoundNanos(bucket);
+		lastP99Nanos = p99;
+
+		if (p99 > targetP99Nanos) {
+			limit.updateAndGet(current -> Math.max(minLimit, (int) (current * BACKOFF_RATIO)));
+		} else {
+			limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+		}
+	}
+
+	private static int bucketOf(long latencyNanos) {
+		long micros = Math.max(1, latencyNanos / 1000);
+		return Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+	}
+
+	private static long upperBoundNanos(int bucket) {
+		return (2L << bucket) * 1000; // Exclusive upper bound of the bucket, in nanoseconds
+	}
+
+	public int getLimit() {
+		return limit.get();
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	public long getLastP99Nanos() {
+		return lastP99Nanos;
+	}
+}
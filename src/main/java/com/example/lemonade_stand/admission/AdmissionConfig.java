@@ -0,0 +1,31 @@
+package com.example.lemonade_stand.admission;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registers the admission filter on the order processing endpoint only.
+ */
+@Configuration
+public class AdmissionConfig {
+
+	@Bean
+	public AdmissionFilter admissionFilter(AdmissionProperties properties, ObjectMapper objectMapper,
+			MeterRegistry meterRegistry) {
+		return new AdmissionFilter(properties, objectMapper, meterRegistry);
+	}
+
+	@Bean
+	public FilterRegistrationBean<AdmissionFilter> admissionFilterRegistration(AdmissionFilter admissionFilter) {
+		FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(admissionFilter);
+		registration.addUrlPatterns("/api/orders/process");
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100); // Reject before any other work is done
+		return registration;
+	}
+}
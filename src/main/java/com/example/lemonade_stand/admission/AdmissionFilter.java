@@ -0,0 +1,132 @@
+package com.example.lemonade_stand.admission;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.lemonade_stand.exception_handler.GlobalExceptionHandler.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Admission control in front of the order processing endpoint. Each client is
+ * held to its own token bucket, and all clients share an adaptive concurrency
+ * limit; requests over either are rejected with 429 and a Retry-After header
+ * before they reach the controller or touch the drawer.
+ * <p>
+ * At most {@code max-clients} buckets are tracked. A bucket is dropped once its
+ * client has been quiet long enough for it to refill, and while every tracked
+ * client is active, new clients share one overflow bucket, so sending a new
+ * client id with each request does not earn a fresh burst.
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+	public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+	private final AdmissionProperties properties;
+	private final AdaptiveConcurrencyLimit concurrencyLimit;
+	private final ObjectMapper objectMapper;
+	private final Cache<String, TokenBucket> clientBuckets;
+	private final TokenBucket overflowBucket; // Shared by new clients while the tracked ones are all active
+	private final Counter rateLimitedCounter;
+	private final Counter concurrencyLimitedCounter;
+
+	public AdmissionFilter(AdmissionProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.objectMapper = objectMapper;
+		this.concurrencyLimit = new AdaptiveConcurrencyLimit(properties.getInitialLimit(), properties.getMinLimit(),
+				properties.getMaxLimit(), TimeUnit.MILLISECONDS.toNanos(properties.getTargetP99Millis()),
+				properties.getWindowSize());
+		long refillNanos = (long) (1_000_000_000L / properties.getClientRate()) * properties.getClientBurst();
+		this.clientBuckets = Caffeine.newBuilder().maximumSize(properties.getMaxClients())
+				.expireAfterAccess(refillNanos, TimeUnit.NANOSECONDS).build();
+		this.overflowBucket = new TokenBucket(properties.getClientRate(), properties.getClientBurst(),
+				System.nanoTime());
+
+		// Expose the admission state as metrics
+		Gauge.builder("lemonade.admission.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+				.description("Current adaptive concurrency limit").register(meterRegistry);
+		Gauge.builder("lemonade.admission.inflight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+				.description("Order batches currently being processed").register(meterRegistry);
+		Gauge.builder("lemonade.admission.p99", concurrencyLimit, limit -> limit.getLastP99Nanos() / 1e9)
+				.baseUnit("seconds").description("p99 latency of the last adjustment window").register(meterRegistry);
+		Gauge.builder("lemonade.admission.clients", clientBuckets, Cache::estimatedSize)
+				.description("Clients with a tracked token bucket").register(meterRegistry);
+		rateLimitedCounter = Counter.builder("lemonade.admission.rejected").tag("reason", "rate")
+				.register(meterRegistry);
+		concurrencyLimitedCounter = Counter.builder("lemonade.admission.rejected").tag("reason", "concurrency")
+				.register(meterRegistry);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		if (!properties.isEnabled()) {
+			chain.doFilter(request, response);
+			return;
+		}
+
+		long now = System.nanoTime();
+		long waitNanos = bucketFor(clientId(request), now).tryAcquire(now);
+		if (waitNanos > 0) {
+			rateLimitedCounter.increment();
+			reject(response, waitNanos, "Rate limit exceeded for client.");
+			return;
+		}
+		if (!concurrencyLimit.tryAcquire()) {
+			concurrencyLimitedCounter.increment();
+			reject(response, TimeUnit.SECONDS.toNanos(1), "Server is at capacity.");
+			return;
+		}
+
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			concurrencyLimit.release(System.nanoTime() - now);
+		}
+	}
+
+	private TokenBucket bucketFor(String clientId, long now) {
+		TokenBucket bucket = clientBuckets.getIfPresent(clientId); // Lock-free on the fast path
+		if (bucket == null) {
+			if (clientBuckets.estimatedSize() >= properties.getMaxClients()) {
+				return overflowBucket;
+			}
+			bucket = clientBuckets.get(clientId,
+					id -> new TokenBucket(properties.getClientRate(), properties.getClientBurst(), now));
+		}
+		return bucket;
+	}
+
+	private static String clientId(HttpServletRequest request) {
+		String clientId = request.getHeader(CLIENT_ID_HEADER);
+		return clientId != null && !clientId.isEmpty() ? clientId : request.getRemoteAddr();
+	}
+
+	private void reject(HttpServletResponse response, long waitNanos, String message) throws IOException {
+		long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(),
+				new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), message));
+	}
+
+	AdaptiveConcurrencyLimit getConcurrencyLimit() {
+		return concurrencyLimit;
+	}
+}
@@ -0,0 +1,95 @@
+package com.example.lemonade_stand.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for admission control on the order processing endpoint, bound from
+ * {@code lemonade.admission.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "lemonade.admission")
+public class AdmissionProperties {
+
+	private boolean enabled = true; // Whether admission control is applied at all
+	private double clientRate = 50; // Sustained batches per second per client
+	private int clientBurst = 100; // Batches a client may send at once
+	private int maxClients = 10_000; // Tracked clients before new ones share an overflow bucket
+	private int initialLimit = 32; // Starting global concurrency limit
+	private int minLimit = 4; // Floor of the adaptive limit
+	private int maxLimit = 256; // Ceiling of the adaptive limit
+	private long targetP99Millis = 250; // Latency above which the limit is cut
+	private int windowSize = 200; // Completed batches between two limit adjustments
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public double getClientRate() {
+		return clientRate;
+	}
+
+	public void setClientRate(double clientRate) {
+		this.clientRate = clientRate;
+	}
+
+	public int getClientBurst() {
+		return clientBurst;
+	}
+
+	public void setClientBurst(int clientBurst) {
+		this.clientBurst = clientBurst;
+	}
+
+	public int getMaxClients() {
+		return maxClients;
+	}
+
+	public void setMaxClients(int maxClients) {
+		this.maxClients = maxClients;
+	}
+
+	public int getInitialLimit() {
+		return initialLimit;
+	}
+
+	public void setInitialLimit(int initialLimit) {
+		this.initialLimit = initialLimit;
+	}
+
+	public int getMinLimit() {
+		return minLimit;
+	}
+
+	public void setMinLimit(int minLimit) {
+		this.minLimit = minLimit;
+	}
+
+	public int getMaxLimit() {
+		return maxLimit;
+	}
+
+	public void setMaxLimit(int maxLimit) {
+		this.maxLimit = maxLimit;
+	}
+
+	public long getTargetP99Millis() {
+		return targetP99Millis;
+	}
+
+	public void setTargetP99Millis(long targetP99Millis) {
+		this.targetP99Millis = targetP99Millis;
+	}
+
+	public int getWindowSize() {
+		return windowSize;
+	}
+
+	public void setWindowSize(int windowSize) {
+		this.windowSize = windowSize;
+	}
+}
@@ -0,0 +1,47 @@
+package com.example.lemonade_stand.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm: the
+ * whole bucket state is a single theoretical arrival time updated with CAS, so
+ * admitting a request never blocks another thread.
+ */
+public class TokenBucket {
+
+	private final long emissionIntervalNanos; // Time it takes to earn one token
+	private final long burstWindowNanos; // How far ahead of now the bucket may be drawn
+	private final AtomicLong theoreticalArrival; // Time at which the bucket is full again
+
+	/**
+	 * @param permitsPerSecond Sustained rate of admitted requests.
+	 * @param burst            Number of requests that may be admitted at once.
+	 * @param nowNanos         Current time, from {@link System#nanoTime()}.
+	 */
+	public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+		this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+		this.burstWindowNanos = emissionIntervalNanos * burst;
+		this.theoreticalArrival = new AtomicLong(nowNanos);
+	}
+
+	/**
+	 * Tries to take one token.
+	 *
+	 * @param nowNanos Current time, from {@link System#nanoTime()}.
+	 * @return 0 if the request is admitted, otherwise the nanoseconds to wait
+	 *         before a token becomes available.
+	 */
+	public long tryAcquire(long nowNanos) {
+		while (true) {
+			long arrival = theoreticalArrival.get();
+			long nextArrival = Math.max(arrival, nowNanos) + emissionIntervalNanos;
+			long allowedAt = nextArrival - burstWindowNanos;
+			if (nowNanos < allowedAt) {
+				return allowedAt - nowNanos; // Bucket empty
+			}
+			if (theoreticalArrival.compareAndSet(arrival, nextArrival)) {
+				return 0;
+			}
+		}
+	}
+}
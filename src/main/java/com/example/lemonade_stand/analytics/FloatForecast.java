@@ -0,0 +1,54 @@
+package com.example.lemonade_stand.analytics;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Forecast of how long the drawer's float of one change denomination lasts at
+ * the current rates.
+ */
+public class FloatForecast {
+
+	private final int denomination; // The bill denomination
+	private final int available; // Bills of that denomination in the drawer now
+	private final double inflowPerMinute; // Decayed rate of bills collected
+	private final double outflowPerMinute; // Decayed rate of bills handed back as change
+	private final Double secondsToEmpty; // Null while the float is not shrinking
+	private final boolean low; // Whether the float runs out within the alert horizon
+
+	public FloatForecast(int denomination, int available, double inflowPerMinute, double outflowPerMinute,
+			Double secondsToEmpty, boolean low) {
+		this.denomination = denomination;
+		this.available = available;
+		this.inflowPerMinute = inflowPerMinute;
+		this.outflowPerMinute = outflowPerMinute;
+		this.secondsToEmpty = secondsToEmpty;
+		this.low = low;
+	}
+
+	public int getDenomination() {
+		return denomination;
+	}
+
+	public int getAvailable() {
+		return available;
+	}
+
+	@JsonProperty("inflow_per_minute")
+	public double getInflowPerMinute() {
+		return inflowPerMinute;
+	}
+
+	@JsonProperty("outflow_per_minute")
+	public double getOutflowPerMinute() {
+		return outflowPerMinute;
+	}
+
+	@JsonProperty("seconds_to_empty")
+	public Double getSecondsToEmpty() {
+		return secondsToEmpty;
+	}
+
+	public boolean isLow() {
+		return low;
+	}
+}
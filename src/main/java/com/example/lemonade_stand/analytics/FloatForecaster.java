@@ -0,0 +1,246 @@
+package com.example.lemonade_stand.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.day.DayClosedEvent;
+import com.example.lemonade_stand.drawer.CashDrawer;
+import com.example.lemonade_stand.order.BatchProcessedEvent;
+import com.example.lemonade_stand.order.BillTally;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Streams committed batches into exponentially decayed inflow and outflow rates
+ * of the change denominations and predicts when each float runs out. Every
+ * batch costs a constant number of operations, and forecasts read the in-memory
+ * drawer rather than the database.
+ * <p>
+ * A rate decays by half every {@code lemonade.forecast.half-life-seconds}
+ * without activity, so the forecast follows the current pace of the stand
+ * rather than the whole day. The rates start over when a business day closes.
+ * <p>
+ * Request threads only add a committed batch's bills to lock-free pending
+ * counts. The counts are folded into the rates when a forecast is read and
+ * every {@code lemonade.forecast.fold-millis}, which also raises the low-float
+ * alert.
+ */
+@Component
+public class FloatForecaster {
+
+	private static final Logger log = LoggerFactory.getLogger(FloatForecaster.class);
+	private static final int[] CHANGE_DENOMINATIONS = { 5, 10 }; // Bills handed back as change
+
+	@Autowired
+	private CashDrawer cashDrawer;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${lemonade.forecast.half-life-seconds:300}")
+	private double halfLifeSeconds; // Time for a rate to decay to half without activity
+	@Value("${lemonade.forecast.alert-seconds:900}")
+	private double alertSeconds; // Forecasts emptying sooner than this are flagged low
+
+	private double tauNanos; // Mean lifetime of the decay, half-life / ln 2
+	private final double[] inflowPerNano = new double[CHANGE_DENOMINATIONS.length];
+	private final double[] outflowPerNano = new double[CHANGE_DENOMINATIONS.length];
+	private final boolean[] low = new boolean[CHANGE_DENOMINATIONS.length]; // Last alert state, to log transitions
+	private final LongAdder[] pendingCollected = newAdders(); // Bills collected since the last fold
+	private final LongAdder[] pendingPaid = newAdders(); // Bills handed back since the last fold
+	private long lastUpdateNanos = System.nanoTime();
+
+	@PostConstruct
+	public void registerMetrics() {
+		tauNanos = TimeUnit.MILLISECONDS.toNanos((long) (halfLifeSeconds * 1000)) / Math.log(2);
+		for (int i = 0; i < CHANGE_DENOMINATIONS.length; i++) {
+			int denomination = CHANGE_DENOMINATIONS[i];
+			Tags tags = Tags.of("denomination", Integer.toString(denomination));
+			Gauge.builder("lemonade.float.inflow", this, f -> f.forecast(denomination).getInflowPerMinute())
+					.tags(tags).baseUnit("bills/minute").description("Decayed rate of bills collected")
+					.register(meterRegistry);
+			Gauge.builder("lemonade.float.outflow", this, f -> f.forecast(denomination).getOutflowPerMinute())
+					.tags(tags).baseUnit("bills/minute").description("Decayed rate of bills handed back as change")
+					.register(meterRegistry);
+			Gauge.builder("lemonade.float.time_to_empty", this, f -> {
+				Double seconds = f.forecast(denomination).getSecondsToEmpty();
+				return seconds != null ? seconds : Double.POSITIVE_INFINITY;
+			}).tags(tags).baseUnit("seconds").description("Predicted time until the float runs out")
+					.register(meterRegistry);
+			Gauge.builder("lemonade.float.low", this, f -> f.forecast(denomination).isLow() ? 1 : 0).tags(tags)
+					.description("1 if the float is predicted to run out within the alert horizon")
+					.register(meterRegistry);
+		}
+	}
+
+	/**
+	 * Adds a committed batch's bills to the pending counts, without locking.
+	 *
+	 * @param event The processed batch.
+	 */
+	@EventListener
+	public void onBatchProcessed(BatchProcessedEvent event) {
+		if (!event.isCommitted()) {
+			return;
+		}
+		for (int i = 0; i < CHANGE_DENOMINATIONS.length; i++) {
+			int collected = event.getBillsCollected().getCount(CHANGE_DENOMINATIONS[i]);
+			int paid = event.getChangePaid().getCount(CHANGE_DENOMINATIONS[i]);
+			if (collected != 0) {
+				pendingCollected[i].add(collected);
+			}
+			if (paid != 0) {
+				pendingPaid[i].add(paid);
+			}
+		}
+	}
+
+	/**
+	 * Starts the rates over for the new business day.
+	 *
+	 * @param event The closed day.
+	 */
+	@EventListener
+	public void onDayClosed(DayClosedEvent event) {
+		reset();
+	}
+
+	/**
+	 * Folds the pending counts into the rates as observed now.
+	 */
+	@Scheduled(fixedDelayString = "${lemonade.forecast.fold-millis:1000}")
+	public void fold() {
+		fold(System.nanoTime());
+	}
+
+	/**
+	 * Folds bill movements observed at the given time into the rates.
+	 *
+	 * @param nowNanos   {@link System#nanoTime()} of the observation.
+	 * @param collected  Bills collected from customers.
+	 * @param changePaid Bills handed back as change.
+	 */
+	public synchronized void record(long nowNanos, BillTally collected, BillTally changePaid) {
+		decayTo(nowNanos);
+		for (int i = 0; i < CHANGE_DENOMINATIONS.length; i++) {
+			inflowPerNano[i] += collected.getCount(CHANGE_DENOMINATIONS[i]) / tauNanos;
+			outflowPerNano[i] += changePaid.getCount(CHANGE_DENOMINATIONS[i]) / tauNanos;
+		}
+		checkAlerts(nowNanos);
+	}
+
+	// Folds and clears the pending counts; each adder cell is swapped to zero, so
+	// a count added meanwhile lands in this fold or the next
+	private synchronized void fold(long nowNanos) {
+		decayTo(nowNanos);
+		for (int i = 0; i < CHANGE_DENOMINATIONS.length; i++) {
+			inflowPerNano[i] += pendingCollected[i].sumThenReset() / tauNanos;
+			outflowPerNano[i] += pendingPaid[i].sumThenReset() / tauNanos;
+		}
+		checkAlerts(nowNanos);
+	}
+
+	// Logs each float that has just been predicted to run out
+	private void checkAlerts(long nowNanos) {
+		for (int i = 0; i < CHANGE_DENOMINATIONS.length; i++) {
+			boolean isLow = forecast(CHANGE_DENOMINATIONS[i], nowNanos).isLow();
+			if (isLow && !low[i]) {
+				log.warn("Float of {} bills predicted to run out within {} seconds", CHANGE_DENOMINATIONS[i],
+						(long) alertSeconds);
+			}
+			low[i] = isLow;
+		}
+	}
+
+	/**
+	 * @return Forecasts for every change denomination, as of now.
+	 */
+	public List<FloatForecast> forecasts() {
+		long now = System.nanoTime();
+		fold(now);
+		List<FloatForecast> forecasts = new ArrayList<>(CHANGE_DENOMINATIONS.length);
+		for (int denomination : CHANGE_DENOMINATIONS) {
+			forecasts.add(forecast(denomination, now));
+		}
+		return forecasts;
+	}
+
+	/**
+	 * @param denomination A change denomination, 5 or 10.
+	 * @return The forecast for that denomination, as of now.
+	 */
+	public FloatForecast forecast(int denomination) {
+		long now = System.nanoTime();
+		fold(now);
+		return forecast(denomination, now);
+	}
+
+	/**
+	 * @param denomination A change denomination, 5 or 10.
+	 * @param nowNanos     {@link System#nanoTime()} to forecast from.
+	 * @return The forecast for that denomination.
+	 */
+	public synchronized FloatForecast forecast(int denomination, long nowNanos) {
+		int i = denomination == 5 ? 0 : denomination == 10 ? 1 : -1;
+		if (i < 0) {
+			throw new IllegalArgumentException("Not a change denomination: " + denomination);
+		}
+		double decay = Math.exp(-Math.max(0, nowNanos - lastUpdateNanos) / tauNanos);
+		double perMinute = TimeUnit.MINUTES.toNanos(1);
+		double inflow = inflowPerNano[i] * decay;
+		double outflow = outflowPerNano[i] * decay;
+		int available = cashDrawer.getAvailable(denomination);
+
+		Double secondsToEmpty = null;
+		if (outflow > inflow) {
+			secondsToEmpty = available / ((outflow - inflow) * TimeUnit.SECONDS.toNanos(1));
+		}
+		boolean isLow = secondsToEmpty != null && secondsToEmpty < alertSeconds;
+		return new FloatForecast(denomination, available, inflow * perMinute, outflow * perMinute, secondsToEmpty,
+				isLow);
+	}
+
+	/**
+	 * Forgets every rate and pending count, e.g. at the start of a new day.
+	 */
+	public synchronized void reset() {
+		for (int i = 0; i < CHANGE_DENOMINATIONS.length; i++) {
+			inflowPerNano[i] = 0;
+			outflowPerNano[i] = 0;
+			low[i] = false;
+			pendingCollected[i].reset();
+			pendingPaid[i].reset();
+		}
+		lastUpdateNanos = System.nanoTime();
+	}
+
+	private static LongAdder[] newAdders() {
+		LongAdder[] adders = new LongAdder[CHANGE_DENOMINATIONS.length];
+		for (int i = 0; i < adders.length; i++) {
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+
+	private void decayTo(long nowNanos) {
+		double decay = Math.exp(-Math.max(0, nowNanos - lastUpdateNanos) / tauNanos);
+		for (int i = 0; i < CHANGE_DENOMINATIONS.length; i++) {
+			inflowPerNano[i] *= decay;
+			outflowPerNano[i] *= decay;
+		}
+		lastUpdateNanos = Math.max(lastUpdateNanos, nowNanos);
+	}
+}
@@ -0,0 +1,24 @@
+package com.example.lemonade_stand.change;
+
+/**
+ * Bills a batch can hand back as change: those it collected itself and those
+ * it can take from the cash drawer.
+ */
+public interface ChangeDrawer {
+
+	/**
+	 * @param denomination The bill denomination.
+	 * @return Bills of that denomination the batch could take now. Other batches
+	 *         may take drawer bills meanwhile, so a later {@link #take} can still
+	 *         fail.
+	 */
+	int available(int denomination);
+
+	/**
+	 * Hands one bill back as change.
+	 *
+	 * @param denomination The bill denomination.
+	 * @return True if a bill was available.
+	 */
+	boolean take(int denomination);
+}
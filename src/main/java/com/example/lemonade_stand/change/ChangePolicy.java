@@ -0,0 +1,19 @@
+package com.example.lemonade_stand.change;
+
+/**
+ * Chooses which bills to hand back as change. Selected with
+ * {@code lemonade.change.policy}, see {@link ChangePolicyConfig}.
+ */
+public interface ChangePolicy {
+
+	/**
+	 * Hands back exactly the change owed, or as much as could be taken if that is
+	 * impossible; the batch then fails and every bill taken is put back.
+	 *
+	 * @param change   Change owed, in dollars.
+	 * @param drawer   Bills the batch can hand back.
+	 * @param upcoming Orders of the batch still to be served, in serving order.
+	 * @return True if exact change was handed back.
+	 */
+	boolean giveChange(int change, ChangeDrawer drawer, UpcomingOrders upcoming);
+}
@@ -0,0 +1,27 @@
+package com.example.lemonade_stand.change;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the change policy with {@code lemonade.change.policy}: {@code greedy}
+ * (default) or {@code lookahead} to score each way of making change on the
+ * upcoming orders of the batch.
+ */
+@Configuration
+public class ChangePolicyConfig {
+
+	@Bean
+	@ConditionalOnProperty(name = "lemonade.change.policy", havingValue = "greedy", matchIfMissing = true)
+	public ChangePolicy greedyChangePolicy() {
+		return new GreedyChangePolicy();
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "lemonade.change.policy", havingValue = "lookahead")
+	public ChangePolicy lookaheadChangePolicy(@Value("${lemonade.change.lookahead-orders:8}") int lookaheadOrders) {
+		return new LookaheadChangePolicy(lookaheadOrders);
+	}
+}
@@ -0,0 +1,40 @@
+package com.example.lemonade_stand.change;
+
+import com.example.lemonade_stand.util.AppConstants;
+
+/**
+ * Hands back the largest bills first. With $5 and $10 bills as change this
+ * keeps as many $5 bills as possible, and since two $5 bills can stand in for
+ * any $10 bill, no other choice leaves more later orders serviceable.
+ */
+public class GreedyChangePolicy implements ChangePolicy {
+
+	static final int[] DESCENDING = descending(); // Bill denominations, largest first
+
+	@Override
+	public boolean giveChange(int change, ChangeDrawer drawer, UpcomingOrders upcoming) {
+		return giveLargestFirst(change, drawer) == 0;
+	}
+
+	/**
+	 * @param change Change owed, in dollars.
+	 * @param drawer Bills the batch can hand back.
+	 * @return Change still owed once no bill fits any more.
+	 */
+	static int giveLargestFirst(int change, ChangeDrawer drawer) {
+		for (int denomination : DESCENDING) {
+			while (change >= denomination && drawer.take(denomination)) {
+				change -= denomination;
+			}
+		}
+		return change;
+	}
+
+	private static int[] descending() {
+		int[] denominations = new int[AppConstants.BILL_DENOMINATIONS.size()];
+		for (int i = 0; i < denominations.length; i++) {
+			denominations[i] = AppConstants.BILL_DENOMINATIONS.get(denominations.length - 1 - i);
+		}
+		return denominations;
+	}
+}
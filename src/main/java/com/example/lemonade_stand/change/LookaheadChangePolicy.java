@@ -0,0 +1,132 @@
+package com.example.lemonade_stand.change;
+
+/**
+ * Chooses, among the ways to make exact change from the bills available, the
+ * one that lets the most upcoming orders of the batch be served in a row. Each
+ * candidate is scored by serving the next {@code lemonade.change.lookahead-orders}
+ * orders largest-first on a copy of the counts; since the batch fails at its
+ * first unserviceable order, the score stops there.
+ * <p>
+ * Candidates are tried largest bills first, and the search stops as soon as
+ * one serves the whole horizon, so in the common case it costs one rollout.
+ * At most 64 candidates are scored, on scratch counts kept per thread, so the
+ * search allocates nothing. If a chosen bill was taken by another batch in the
+ * meantime, the rest of the change is handed back largest-first.
+ */
+public class LookaheadChangePolicy implements ChangePolicy {
+
+	private static final int MAX_PLANS = 64; // Candidates scored per change at most
+	private static final int[] DENOMINATIONS = GreedyChangePolicy.DESCENDING;
+
+	private final int horizon; // Upcoming orders a candidate is scored on
+	private final ThreadLocal<Search> searches = ThreadLocal.withInitial(Search::new); // Scratch reused per thread
+
+	/**
+	 * @param horizon Upcoming orders each candidate is scored on.
+	 */
+	public LookaheadChangePolicy(int horizon) {
+		this.horizon = horizon;
+	}
+
+	@Override
+	public boolean giveChange(int change, ChangeDrawer drawer, UpcomingOrders upcoming) {
+		int orders = Math.min(horizon, upcoming.size());
+		if (orders == 0) {
+			return GreedyChangePolicy.giveLargestFirst(change, drawer) == 0;
+		}
+		Search search = searches.get();
+		search.reset(drawer, upcoming, orders);
+		search.explore(0, change);
+		search.upcoming = null; // Do not keep the batch reachable from the thread
+		if (search.bestServed < 0) {
+			// No exact change from the bills counted; try anyway, as more may have
+			// come back to the drawer
+			return GreedyChangePolicy.giveLargestFirst(change, drawer) == 0;
+		}
+		int owed = change;
+		for (int i = 0; i < DENOMINATIONS.length; i++) {
+			for (int k = 0; k < search.best[i]; k++) {
+				if (!drawer.take(DENOMINATIONS[i])) {
+					return GreedyChangePolicy.giveLargestFirst(owed, drawer) == 0;
+				}
+				owed -= DENOMINATIONS[i];
+			}
+		}
+		return true;
+	}
+
+	// Depth-first search over the counts of each denomination, largest first
+	private static final class Search {
+		final int[] available = new int[DENOMINATIONS.length];
+		final int[] plan = new int[DENOMINATIONS.length];
+		final int[] best = new int[DENOMINATIONS.length]; // Best plan so far
+		final int[] counts = new int[DENOMINATIONS.length]; // Rollout scratch
+		UpcomingOrders upcoming;
+		int orders; // Upcoming orders scored
+		int bestServed; // Score of the best plan, -1 if none makes exact change
+		int plans;
+
+		void reset(ChangeDrawer drawer, UpcomingOrders upcoming, int orders) {
+			this.upcoming = upcoming;
+			this.orders = orders;
+			bestServed = -1;
+			plans = 0;
+			for (int i = 0; i < DENOMINATIONS.length; i++) {
+				available[i] = drawer.available(DENOMINATIONS[i]);
+				plan[i] = 0;
+			}
+		}
+
+		void explore(int i, int remaining) {
+			if (plans >= MAX_PLANS || bestServed == orders) {
+				return;
+			}
+			if (remaining == 0) {
+				plans++;
+				int served = rollout();
+				if (served > bestServed) {
+					System.arraycopy(plan, 0, best, 0, plan.length);
+					bestServed = served;
+				}
+				return;
+			}
+			if (i == DENOMINATIONS.length) {
+				return;
+			}
+			int denomination = DENOMINATIONS[i];
+			for (int k = Math.min(available[i], remaining / denomination); k >= 0; k--) {
+				plan[i] = k;
+				explore(i + 1, remaining - k * denomination);
+			}
+			plan[i] = 0;
+		}
+
+		// Upcoming orders served in a row, largest first, after handing back the plan
+		int rollout() {
+			for (int i = 0; i < DENOMINATIONS.length; i++) {
+				counts[i] = available[i] - plan[i];
+			}
+			for (int j = 0; j < orders; j++) {
+				int owed = upcoming.getChangeOwed(j);
+				if (owed < 0) {
+					return j;
+				}
+				int billValue = upcoming.getBillValue(j);
+				for (int i = 0; i < DENOMINATIONS.length; i++) {
+					if (DENOMINATIONS[i] == billValue) {
+						counts[i]++;
+					}
+				}
+				for (int i = 0; i < DENOMINATIONS.length; i++) {
+					int given = Math.min(counts[i], owed / DENOMINATIONS[i]);
+					counts[i] -= given;
+					owed -= given * DENOMINATIONS[i];
+				}
+				if (owed != 0) {
+					return j;
+				}
+			}
+			return orders;
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.example.lemonade_stand.change;
+
+import com.example.lemonade_stand.order.OrderBatch;
+import com.example.lemonade_stand.util.AppConstants;
+
+/**
+ * The orders of a batch behind the one being served, in serving order. One
+ * instance follows a batch as it is served, so looking ahead allocates
+ * nothing.
+ */
+public final class UpcomingOrders {
+
+	/** No orders known beyond the current one. */
+	public static final UpcomingOrders NONE = new UpcomingOrders(new OrderBatch(0), new int[0]);
+
+	private final OrderBatch batch; // The batch being served
+	private final int[] servingOrder; // Order indexes in the order they are served
+	private int next; // Position in servingOrder of the first upcoming order
+
+	/**
+	 * @param batch        The batch being served.
+	 * @param servingOrder Order indexes in the order they are served.
+	 */
+	public UpcomingOrders(OrderBatch batch, int[] servingOrder) {
+		this.batch = batch;
+		this.servingOrder = servingOrder;
+	}
+
+	/**
+	 * Moves past the orders served so far.
+	 *
+	 * @param served Position in the serving order of the first order not yet
+	 *               being served.
+	 */
+	public void advanceTo(int served) {
+		next = served;
+	}
+
+	/**
+	 * @return Number of upcoming orders.
+	 */
+	public int size() {
+		return servingOrder.length - next;
+	}
+
+	/**
+	 * @param i Upcoming order, 0 for the next one.
+	 * @return The bill the customer pays with.
+	 */
+	public int getBillValue(int i) {
+		return batch.getBillValue(servingOrder[next + i]);
+	}
+
+	/**
+	 * @param i Upcoming order, 0 for the next one.
+	 * @return Change the order will be owed, or -1 if it cannot be served at all.
+	 */
+	public int getChangeOwed(int i) {
+		int index = servingOrder[next + i];
+		int cost = batch.getRequestedLemonades(index) * AppConstants.LEMONADE_COST;
+		int billValue = batch.getBillValue(index);
+		return cost > 0 && billValue >= cost ? billValue - cost : -1;
+	}
+}
@@ -0,0 +1,63 @@
+package com.example.lemonade_stand.controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.tracing.Span;
+import com.example.lemonade_stand.tracing.Tracer;
+
+/**
+ * Writes {@link BillTallyResponse} bodies straight to the response stream, so
+ * large tallies are never turned into an intermediate list or string.
+ */
+@Component
+public class BillTallyMessageConverter extends AbstractHttpMessageConverter<BillTallyResponse> {
+
+	@Autowired
+	private Tracer tracer;
+
+	public BillTallyMessageConverter() {
+		super(StandardCharsets.UTF_8, MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON);
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return BillTallyResponse.class.isAssignableFrom(clazz);
+	}
+
+	@Override
+	protected boolean canRead(MediaType mediaType) {
+		return false; // Response only
+	}
+
+	@Override
+	protected BillTallyResponse readInternal(Class<? extends BillTallyResponse> clazz, HttpInputMessage inputMessage)
+			throws IOException, HttpMessageNotReadableException {
+		throw new HttpMessageNotReadableException("BillTallyResponse cannot be read", inputMessage);
+	}
+
+	@Override
+	protected void writeInternal(BillTallyResponse response, HttpOutputMessage outputMessage)
+			throws IOException, HttpMessageNotWritableException {
+		Span span = tracer.startSpan("order.render").setAttribute("response.form", response.getForm().name())
+				.setAttribute("response.bills", response.getBillsRemaining().totalBills());
+		try {
+			if (response.getForm() == BillTallyResponse.Form.COUNTS) {
+				response.getBillsRemaining().writeCounts(outputMessage.getBody());
+			} else {
+				response.getBillsRemaining().writeExpanded(outputMessage.getBody());
+			}
+		} finally {
+			span.end();
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package com.example.lemonade_stand.controller;
+
+import com.example.lemonade_stand.order.BillTally;
+
+/**
+ * Response body for a processed order batch, rendered by
+ * {@link BillTallyMessageConverter} directly to the servlet output stream.
+ */
+public class BillTallyResponse {
+
+	/**
+	 * How the remaining bills are rendered.
+	 */
+	public enum Form {
+		EXPANDED, // One entry per bill, e.g. [5, 5, 20]
+		COUNTS // One count per denomination, e.g. {"5":2,"10":0,"20":1}
+	}
+
+	private final BillTally billsRemaining; // Bills left over from the batch
+	private final Form form; // Rendering chosen for this response
+
+	public BillTallyResponse(BillTally billsRemaining, Form form) {
+		this.billsRemaining = billsRemaining;
+		this.form = form;
+	}
+
+	public BillTally getBillsRemaining() {
+		return billsRemaining;
+	}
+
+	public Form getForm() {
+		return form;
+	}
+}
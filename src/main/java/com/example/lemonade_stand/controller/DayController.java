@@ -0,0 +1,67 @@
+package com.example.lemonade_stand.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.lemonade_stand.database.DaySummaryRecord;
+import com.example.lemonade_stand.day.DaySessionService;
+
+/**
+ * Controller for business days: closing the open day and reading day
+ * summaries.
+ */
+@RestController
+@RequestMapping("api/days")
+public class DayController {
+
+	@Autowired
+	private DaySessionService daySessionService;
+
+	/**
+	 * Endpoint for closing the open day and opening the next one.
+	 * 
+	 * @return Summary of the closed day.
+	 */
+	@PostMapping("/close")
+	public DaySummaryRecord closeDay() {
+		return daySessionService.closeDay();
+	}
+
+	/**
+	 * Endpoint for the live summary of the open day.
+	 * 
+	 * @return Summary of the open day so far.
+	 */
+	@GetMapping("/current")
+	public DaySummaryRecord currentDay() {
+		return daySessionService.currentDay();
+	}
+
+	/**
+	 * Endpoint listing every closed day.
+	 * 
+	 * @return Summaries of closed days, most recent first.
+	 */
+	@GetMapping
+	public List<DaySummaryRecord> closedDays() {
+		return daySessionService.closedDays();
+	}
+
+	/**
+	 * Endpoint for one closed day.
+	 * 
+	 * @param dayId Sequence number of the day.
+	 * @return Its summary, or 404 if the day is not closed.
+	 */
+	@GetMapping("/{dayId}")
+	public ResponseEntity<DaySummaryRecord> closedDay(@PathVariable long dayId) {
+		return daySessionService.closedDay(dayId).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+	}
+}
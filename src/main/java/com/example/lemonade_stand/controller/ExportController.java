@@ -0,0 +1,88 @@
+package com.example.lemonade_stand.controller;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.lemonade_stand.exception_handler.GlobalExceptionHandler.ErrorResponse;
+import com.example.lemonade_stand.ledger.ColumnarLedgerExportWriter;
+import com.example.lemonade_stand.ledger.CsvLedgerExportWriter;
+import com.example.lemonade_stand.ledger.LedgerExportWriter;
+import com.example.lemonade_stand.ledger.LedgerExporter;
+import com.example.lemonade_stand.order.OrderOutcome;
+
+/**
+ * Controller exporting the order ledger as a file download.
+ */
+@RestController
+@RequestMapping("api/orders")
+public class ExportController {
+
+	@Autowired
+	private LedgerExporter ledgerExporter;
+
+	/**
+	 * Endpoint streaming the order ledger of a date range. Rows are written to
+	 * the response as they are read, so the export size is not bounded by memory.
+	 * 
+	 * @param format   "csv" or "columnar".
+	 * @param from     First business date, inclusive; defaults to today.
+	 * @param to       Last business date, inclusive; defaults to today.
+	 * @param outcome  Only orders with this outcome, e.g. SOLD; all if absent.
+	 * @param response The response the file is written to.
+	 * @return Nothing once the file is written, or a 400 for an unknown format or
+	 *         outcome or a range ending before it starts.
+	 */
+	@GetMapping("/export")
+	public ResponseEntity<Object> export(@RequestParam(defaultValue = "csv") String format,
+			@RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+			@RequestParam(required = false) String outcome, HttpServletResponse response) throws IOException {
+		LedgerExportWriter writer;
+		if ("csv".equals(format)) {
+			writer = new CsvLedgerExportWriter();
+		} else if ("columnar".equals(format)) {
+			writer = new ColumnarLedgerExportWriter();
+		} else {
+			return ResponseEntity.badRequest().body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(),
+					"Invalid format: " + format + ". Accepted values are csv or columnar."));
+		}
+		OrderOutcome outcomeFilter = null;
+		if (outcome != null) {
+			try {
+				outcomeFilter = OrderOutcome.valueOf(outcome.toUpperCase(Locale.ROOT));
+			} catch (IllegalArgumentException e) {
+				return ResponseEntity.badRequest().body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(),
+						"Invalid outcome: " + outcome + ". Accepted values are "
+								+ Arrays.toString(OrderOutcome.values()) + "."));
+			}
+		}
+		LocalDate today = LocalDate.now();
+		LocalDate first = from != null ? from : today;
+		LocalDate last = to != null ? to : today;
+		if (last.isBefore(first)) {
+			return ResponseEntity.badRequest()
+					.body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), "The range must not end before it starts."));
+		}
+
+		response.setContentType(writer.getContentType());
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+				"attachment; filename=\"orders-" + first + "-" + last + "." + writer.getFileExtension() + "\"");
+		ledgerExporter.export(first, last, outcomeFilter, writer, response.getOutputStream());
+		return null;
+	}
+}
@@ -0,0 +1,59 @@
+package com.example.lemonade_stand.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.lemonade_stand.exception_handler.GlobalExceptionHandler.ErrorResponse;
+import com.example.lemonade_stand.inventory.Inventory;
+
+/**
+ * Controller for the stock the lemonades are made from.
+ */
+@RestController
+@RequestMapping("api/inventory")
+public class InventoryController {
+
+	@Autowired
+	private Inventory inventory;
+
+	/**
+	 * Endpoint for the current stock levels.
+	 * 
+	 * @return Units in stock per item.
+	 */
+	@GetMapping
+	public Map<String, Long> getStock() {
+		return inventory.getStock();
+	}
+
+	/**
+	 * Endpoint for adding delivered stock of an item.
+	 * 
+	 * @param item     The stock item, e.g. cup.
+	 * @param quantity Units delivered.
+	 * @return Units in stock per item, or a 400 for an unknown item or a
+	 *         quantity below 1.
+	 */
+	@PostMapping("/{item}/restock")
+	public ResponseEntity<Object> restock(@PathVariable String item, @RequestParam long quantity) {
+		if (quantity < 1) {
+			return ResponseEntity.badRequest()
+					.body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), "Quantity must be at least 1."));
+		}
+		if (!inventory.getStock().containsKey(item)) {
+			return ResponseEntity.badRequest()
+					.body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), "Unknown stock item: " + item));
+		}
+		inventory.restock(item, quantity);
+		return ResponseEntity.ok(inventory.getStock());
+	}
+}
@@ -1,17 +1,46 @@
 package com.example.lemonade_stand.controller;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.lemonade_stand.analytics.FloatForecast;
+import com.example.lemonade_stand.analytics.FloatForecaster;
+import com.example.lemonade_stand.controller.BillTallyResponse.Form;
+import com.example.lemonade_stand.exception_handler.GlobalExceptionHandler.ErrorResponse;
+import com.example.lemonade_stand.exception_handler.GlobalExceptionHandler.ValidationErrorResponse;
+import com.example.lemonade_stand.exception_handler.OrderViolation;
+import com.example.lemonade_stand.lane.Lane;
+import com.example.lemonade_stand.lane.OrderLanes;
+import com.example.lemonade_stand.order.BillTally;
+import com.example.lemonade_stand.order.BinaryOrderCodec;
 import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderBatch;
+import com.example.lemonade_stand.order.OrderBatchValidator;
+import com.example.lemonade_stand.order.OrderDeduplicator;
 import com.example.lemonade_stand.order.OrderProcessor;
 import com.example.lemonade_stand.order.SalesReportGenerator;
+import com.example.lemonade_stand.order.SalesReportGenerator.Format;
+import com.example.lemonade_stand.tracing.Span;
+import com.example.lemonade_stand.tracing.Tracer;
 
 /**
  * Controller for handling lemonade stand operations, including processing
@@ -21,30 +50,154 @@ import com.example.lemonade_stand.order.SalesReportGenerator;
 @RequestMapping("api/orders")
 public class LemonadeController {
 
+	private static final List<String> FORMATS = Arrays.asList("auto", "counts", "expanded");
+	private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+	private static final String TEXT_PLAIN_UTF8_VALUE = TEXT_PLAIN_UTF8.toString();
+
 	@Autowired
 	private OrderProcessor orderProcessor;
 
+	@Autowired
+	private OrderBatchValidator orderBatchValidator;
+
+	@Autowired
+	private OrderDeduplicator orderDeduplicator;
+
 	@Autowired
 	private SalesReportGenerator salesReportGenerator;
 
+	@Autowired
+	private FloatForecaster floatForecaster;
+
+	@Autowired
+	private OrderLanes orderLanes;
+
+	@Autowired
+	private Tracer tracer;
+
+	@Value("${lemonade.response.count-form-threshold:1000}")
+	private long countFormThreshold; // Bills above which "auto" renders counts
+
 	/**
 	 * Endpoint for processing lemonade orders.
 	 * 
 	 * @param orders List of customer orders.
-	 * @return String representing the remaining bills or "null" if failed.
+	 * @param format How remaining bills are rendered: "expanded", "counts", or
+	 *               "auto" to switch to counts for large results.
+	 * @param lane   "interactive" or "bulk"; by batch size if absent.
+	 * @return The remaining bills or "null" if failed, a 400 listing every
+	 *         invalid order, or a 429 if the batch's lane is full.
 	 */
 	@PostMapping("/process")
-	public String processOrder(@RequestBody List<CustomerOrder> orders) {
-		return orderProcessor.processOrders(orders);
+	public ResponseEntity<Object> processOrder(@RequestBody List<CustomerOrder> orders,
+			@RequestParam(defaultValue = "auto") String format,
+			@RequestHeader(value = Lane.HEADER, required = false) String lane) {
+		if (orders == null || orders.isEmpty() || orders.contains(null)) {
+			return ResponseEntity.ok("null");
+		}
+		return processValidBatch(OrderBatch.fromOrders(orders), format, lane);
+	}
+
+	/**
+	 * Endpoint for processing lemonade orders sent in the compact binary format.
+	 * 
+	 * @param payload Binary encoded order batch, see {@link BinaryOrderCodec}.
+	 * @param format  How remaining bills are rendered: "expanded", "counts", or
+	 *                "auto" to switch to counts for large results.
+	 * @param lane    "interactive" or "bulk"; by batch size if absent.
+	 * @return The remaining bills or "null" if failed, a 400 listing every
+	 *         invalid order, or a 429 if the batch's lane is full.
+	 */
+	@PostMapping(value = "/process", consumes = BinaryOrderCodec.CONTENT_TYPE)
+	public ResponseEntity<Object> processBinaryOrder(@RequestBody byte[] payload,
+			@RequestParam(defaultValue = "auto") String format,
+			@RequestHeader(value = Lane.HEADER, required = false) String lane) {
+		Span span = tracer.startSpan("order.decode").setAttribute("body.bytes", payload.length);
+		OrderBatch batch;
+		try {
+			batch = BinaryOrderCodec.decode(ByteBuffer.wrap(payload));
+		} finally {
+			span.end();
+		}
+		return processValidBatch(batch, format, lane);
+	}
+
+	/**
+	 * Validates the batch in one pass and processes it in its lane only if every
+	 * order is valid.
+	 */
+	private ResponseEntity<Object> processValidBatch(OrderBatch batch, String format, String laneName) {
+		if (!FORMATS.contains(format)) {
+			return ResponseEntity.badRequest().body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(),
+					"Invalid format: " + format + ". Accepted values are auto, counts, or expanded."));
+		}
+		Lane requestedLane = laneName != null ? Lane.fromName(laneName) : null;
+		if (laneName != null && requestedLane == null) {
+			return ResponseEntity.badRequest().body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(),
+					"Invalid lane: " + laneName + ". Accepted values are interactive or bulk."));
+		}
+		Span span = tracer.startSpan("order.validate");
+		List<OrderViolation> violations = orderBatchValidator.validate(batch);
+		List<OrderViolation> duplicates = orderDeduplicator.findDuplicates(batch);
+		if (!duplicates.isEmpty()) {
+			violations = new ArrayList<>(violations);
+			violations.addAll(duplicates);
+		}
+		span.setAttribute("order.violations", violations.size()).end();
+		if (!violations.isEmpty()) {
+			return ResponseEntity.badRequest().body(new ValidationErrorResponse(violations));
+		}
+
+		Lane lane = orderLanes.assign(requestedLane, batch.size());
+		BillTally billsRemaining = orderLanes.run(lane, () -> orderProcessor.processBatch(batch, lane));
+		if (billsRemaining == null) {
+			return ResponseEntity.ok("null");
+		}
+
+		// Large results default to the count form; the expanded form is gzip
+		// compressed by the server when the client accepts it
+		boolean countForm = "counts".equals(format)
+				|| ("auto".equals(format) && billsRemaining.totalBills() > countFormThreshold);
+		return ResponseEntity.ok().contentType(countForm ? MediaType.APPLICATION_JSON : TEXT_PLAIN_UTF8)
+				.body(new BillTallyResponse(billsRemaining, countForm ? Form.COUNTS : Form.EXPANDED));
 	}
 
 	/**
 	 * Endpoint for generating a report of total lemonades sold and remaining bills.
+	 * The report is written to the response as rendered bytes.
 	 * 
-	 * @return Report string with sales and bill information.
+	 * @param format   "text" (default) or "json".
+	 * @param response The response the report is written to.
+	 * @return Nothing once the report is written, or a 400 for an unknown format.
 	 */
 	@GetMapping("/report")
-	public String generateReport() {
-		return salesReportGenerator.getCompleteSalesReport();
+	public ResponseEntity<Object> generateReport(@RequestParam(defaultValue = "text") String format,
+			HttpServletResponse response) throws IOException {
+		Format reportFormat;
+		if ("text".equals(format)) {
+			reportFormat = Format.TEXT;
+		} else if ("json".equals(format)) {
+			reportFormat = Format.JSON;
+		} else {
+			return ResponseEntity.badRequest().body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(),
+					"Invalid format: " + format + ". Accepted values are text or json."));
+		}
+		byte[] report = salesReportGenerator.getReport(reportFormat);
+		response.setContentType(
+				reportFormat == Format.JSON ? MediaType.APPLICATION_JSON_VALUE : TEXT_PLAIN_UTF8_VALUE);
+		response.setContentLength(report.length);
+		response.getOutputStream().write(report);
+		return null;
+	}
+
+	/**
+	 * Endpoint forecasting when the $5 and $10 change floats run out at the
+	 * current pace.
+	 * 
+	 * @return One forecast per change denomination.
+	 */
+	@GetMapping("/forecast")
+	public List<FloatForecast> forecastFloat() {
+		return floatForecaster.forecasts();
 	}
 }
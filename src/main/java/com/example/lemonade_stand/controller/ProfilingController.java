@@ -0,0 +1,101 @@
+package com.example.lemonade_stand.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.lemonade_stand.exception_handler.GlobalExceptionHandler.ErrorResponse;
+import com.example.lemonade_stand.profiling.ProfilingService;
+import com.example.lemonade_stand.profiling.ProfilingStatus;
+
+/**
+ * Admin controller starting, stopping and downloading a flight recording.
+ * Only present when profiling is enabled.
+ */
+@RestController
+@RequestMapping("api/admin/profiling")
+@ConditionalOnProperty(name = "lemonade.profiling.enabled", havingValue = "true")
+public class ProfilingController {
+
+	@Autowired
+	private ProfilingService profilingService;
+
+	/**
+	 * Endpoint starting a recording.
+	 * 
+	 * @param durationSeconds Time until the recording stops itself; the configured
+	 *                        maximum if absent.
+	 * @return Status of the new recording, or 409 if one is already running.
+	 */
+	@PostMapping("/start")
+	public ResponseEntity<Object> start(@RequestParam(defaultValue = "0") long durationSeconds)
+			throws IOException, ParseException {
+		ProfilingStatus status = profilingService.start(durationSeconds);
+		if (status == null) {
+			return ResponseEntity.status(HttpStatus.CONFLICT)
+					.body(new ErrorResponse(HttpStatus.CONFLICT.value(), "A recording is already running."));
+		}
+		return ResponseEntity.ok(status);
+	}
+
+	/**
+	 * Endpoint stopping the running recording.
+	 * 
+	 * @return Status of the stopped recording, or 409 if none is running.
+	 */
+	@PostMapping("/stop")
+	public ResponseEntity<Object> stop() {
+		ProfilingStatus status = profilingService.stop();
+		if (status == null) {
+			return ResponseEntity.status(HttpStatus.CONFLICT)
+					.body(new ErrorResponse(HttpStatus.CONFLICT.value(), "No recording is running."));
+		}
+		return ResponseEntity.ok(status);
+	}
+
+	/**
+	 * Endpoint for the status of the running or last recording.
+	 * 
+	 * @return Its status.
+	 */
+	@GetMapping
+	public ProfilingStatus status() {
+		return profilingService.getStatus();
+	}
+
+	/**
+	 * Endpoint downloading the last recording as a JFR file.
+	 * 
+	 * @param response The response the file is written to.
+	 * @return Nothing once the file is written, or 404 if there is no stopped
+	 *         recording.
+	 */
+	@GetMapping("/recording")
+	public ResponseEntity<Object> download(HttpServletResponse response) throws IOException {
+		long id = profilingService.getStatus().getId();
+		try (InputStream recording = profilingService.openRecording()) {
+			if (recording == null) {
+				return ResponseEntity.status(HttpStatus.NOT_FOUND)
+						.body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), "No stopped recording to download."));
+			}
+			response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+			response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"lemonade-" + id + ".jfr\"");
+			recording.transferTo(response.getOutputStream());
+		}
+		return null;
+	}
+}
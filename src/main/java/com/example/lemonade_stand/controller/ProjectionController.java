@@ -0,0 +1,57 @@
+package com.example.lemonade_stand.controller;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.lemonade_stand.projection.SalesProjections;
+
+/**
+ * Controller for the sales read models projected from the order ledger.
+ */
+@RestController
+@RequestMapping("api/projections")
+public class ProjectionController {
+
+	@Autowired
+	private SalesProjections salesProjections;
+
+	/**
+	 * Endpoint listing the read models.
+	 * 
+	 * @return Their names.
+	 */
+	@GetMapping
+	public List<String> names() {
+		return salesProjections.getNames();
+	}
+
+	/**
+	 * Endpoint for one read model, served from memory.
+	 * 
+	 * @param name Name of the read model.
+	 * @return Its current state, or 404 if there is no read model of that name.
+	 */
+	@GetMapping("/{name}")
+	public ResponseEntity<Object> query(@PathVariable String name) {
+		return salesProjections.query(name).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+	}
+
+	/**
+	 * Endpoint rebuilding every read model from the order ledger.
+	 * 
+	 * @return The number of batches replayed.
+	 */
+	@PostMapping("/rebuild")
+	public Map<String, Long> rebuild() {
+		return Collections.singletonMap("batches", salesProjections.rebuild());
+	}
+}
@@ -0,0 +1,24 @@
+package com.example.lemonade_stand.database;
+
+/**
+ * The count of one denomination as read from the database. Immutable, so it
+ * can be cached and shared, unlike the managed {@link BillCounterRecord}.
+ */
+public final class BillCount {
+
+	private final int billDenomination; // The denomination of the bill
+	private final int count; // Count of bills for this denomination
+
+	public BillCount(int billDenomination, int count) {
+		this.billDenomination = billDenomination;
+		this.count = count;
+	}
+
+	public int getBillDenomination() {
+		return billDenomination;
+	}
+
+	public int getCount() {
+		return count;
+	}
+}
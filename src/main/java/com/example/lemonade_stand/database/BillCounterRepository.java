@@ -1,13 +1,72 @@
 package com.example.lemonade_stand.database;
 
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Bill counts per denomination. With the {@code cache} profile the lookups are
+ * cached under the current {@code SalesStateVersion} (see {@code CacheConfig})
+ * and every write below evicts both caches.
+ */
 @Repository
 public interface BillCounterRepository extends JpaRepository<BillCounterRecord, Integer> {
 	// Custom query to find a bill by denomination
 	BillCounterRecord findByBillDenomination(Integer denomination);
 
+	// Count of one denomination, null if it has no record
+	@Cacheable(cacheNames = CacheNames.BILL_COUNTER, key = CacheNames.VERSION_KEY + " + ':' + #p0")
+	@Query("select b.count from BillCounterRecord b where b.billDenomination = :denomination")
+	Integer findCountByDenomination(@Param("denomination") int denomination);
+
 	// Custom query to find the latest sales record (by ID, descending)
 	BillCounterRecord findFirstByOrderByIdDesc();
+
+	// Every denomination's count, as read by the sales report
+	@Cacheable(cacheNames = CacheNames.BILL_COUNTERS, key = CacheNames.VERSION_KEY)
+	@Query("select new com.example.lemonade_stand.database.BillCount(b.billDenomination, b.count) "
+			+ "from BillCounterRecord b order by b.billDenomination")
+	List<BillCount> findAllCounts();
+
+	// Locks the rows of the given denominations until the transaction ends, always
+	// in denomination order so concurrent commits cannot deadlock
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select b from BillCounterRecord b where b.billDenomination in :denominations order by b.billDenomination")
+	List<BillCounterRecord> lockDenominations(@Param("denominations") List<Integer> denominations);
+
+	// Atomically adds a (possibly negative) delta to the count of a denomination
+	@Modifying
+	@Transactional
+	@CacheEvict(cacheNames = { CacheNames.BILL_COUNTER, CacheNames.BILL_COUNTERS }, allEntries = true)
+	@Query("update BillCounterRecord b set b.count = b.count + :delta where b.billDenomination = :denomination")
+	int addToCount(@Param("denomination") int denomination, @Param("delta") int delta);
+
+	// Overwrites the count of a denomination
+	@Modifying
+	@Transactional
+	@CacheEvict(cacheNames = { CacheNames.BILL_COUNTER, CacheNames.BILL_COUNTERS }, allEntries = true)
+	@Query("update BillCounterRecord b set b.count = :count where b.billDenomination = :denomination")
+	int setCount(@Param("denomination") int denomination, @Param("count") int count);
+
+	@Override
+	@CacheEvict(cacheNames = { CacheNames.BILL_COUNTER, CacheNames.BILL_COUNTERS }, allEntries = true)
+	<S extends BillCounterRecord> S save(S record);
+
+	@Override
+	@CacheEvict(cacheNames = { CacheNames.BILL_COUNTER, CacheNames.BILL_COUNTERS }, allEntries = true)
+	void deleteAll();
+
+	@Override
+	@CacheEvict(cacheNames = { CacheNames.BILL_COUNTER, CacheNames.BILL_COUNTERS }, allEntries = true)
+	void deleteAllInBatch();
 }
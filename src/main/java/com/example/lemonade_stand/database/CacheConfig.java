@@ -0,0 +1,39 @@
+package com.example.lemonade_stand.database;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Turns on the repository lookup caches with the {@code cache} profile. The
+ * Caffeine caches, their eviction policy and hit/miss metrics are configured in
+ * {@code application-cache.properties}; the database stays the source of truth
+ * and every repository write evicts the caches it affects.
+ * <p>
+ * The caches are transaction aware: a write inside a transaction evicts only
+ * once the transaction has committed. Lookups are also keyed by the
+ * {@code SalesStateVersion}, bumped after every commit, so a lookup that read
+ * the row before a commit but stores it after the eviction is never served
+ * once the commit is visible. Only immutable values are cached, never managed
+ * entities.
+ */
+@Configuration
+@Profile("cache")
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+	@Bean
+	public CacheManager cacheManager(CacheProperties cacheProperties) {
+		CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+		caffeineCacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+		caffeineCacheManager.setCacheNames(cacheProperties.getCacheNames());
+		return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+	}
+}
@@ -0,0 +1,19 @@
+package com.example.lemonade_stand.database;
+
+/**
+ * Names of the repository lookup caches, enabled by the {@code cache} profile.
+ */
+public final class CacheNames {
+
+	public static final String BILL_COUNTER = "billCounter"; // One denomination's count, by denomination
+	public static final String BILL_COUNTERS = "billCounters"; // Every denomination's count
+	public static final String LATEST_SALES = "latestSales"; // The lemonades sold total
+
+	// Cache key expression for the committed state version; a lookup that read
+	// the database before a commit is cached under the version before it, which
+	// no lookup after the commit asks for
+	static final String VERSION_KEY = "@salesStateVersion.get()";
+
+	private CacheNames() {
+	}
+}
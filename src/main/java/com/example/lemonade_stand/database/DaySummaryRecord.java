@@ -0,0 +1,135 @@
+package com.example.lemonade_stand.database;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Immutable snapshot of one closed business day. Written once when the day is
+ * closed, so prior days are read back as one row instead of being recomputed
+ * from orders. Until then the row, with no close time, holds the latest
+ * checkpoint of the open day.
+ */
+@Entity
+public class DaySummaryRecord {
+
+	@Id
+	private Long dayId; // Sequence number of the day, starting at 1
+	private LocalDate businessDate; // Calendar date the day was opened on
+	private Instant openedAt; // When the day was opened
+	private Instant closedAt; // When the day was closed, null while open
+	private long lemonadesSold; // Lemonades sold during the day
+	private long batchesCommitted; // Order batches committed during the day
+	private long batchesFailed; // Order batches that could not be served
+	private long collected5; // $5 bills collected from customers
+	private long collected10; // $10 bills collected from customers
+	private long collected20; // $20 bills collected from customers
+	private long changePaid5; // $5 bills handed back as change
+	private long changePaid10; // $10 bills handed back as change
+	private int closing5; // $5 bills in the drawer at close
+	private int closing10; // $10 bills in the drawer at close
+	private int closing20; // $20 bills in the drawer at close
+
+	// Default constructor
+	public DaySummaryRecord() {
+	}
+
+	// Constructor
+	public DaySummaryRecord(Long dayId, LocalDate businessDate, Instant openedAt, Instant closedAt, long lemonadesSold,
+			long batchesCommitted, long batchesFailed, long[] collected, long[] changePaid, int[] closing) {
+		this.dayId = dayId;
+		this.businessDate = businessDate;
+		this.openedAt = openedAt;
+		this.closedAt = closedAt;
+		this.lemonadesSold = lemonadesSold;
+		this.batchesCommitted = batchesCommitted;
+		this.batchesFailed = batchesFailed;
+		this.collected5 = collected[0];
+		this.collected10 = collected[1];
+		this.collected20 = collected[2];
+		this.changePaid5 = changePaid[0];
+		this.changePaid10 = changePaid[1];
+		this.closing5 = closing[0];
+		this.closing10 = closing[1];
+		this.closing20 = closing[2];
+	}
+
+	@JsonProperty("day_id")
+	public Long getDayId() {
+		return dayId;
+	}
+
+	@JsonProperty("business_date")
+	public LocalDate getBusinessDate() {
+		return businessDate;
+	}
+
+	@JsonProperty("opened_at")
+	public Instant getOpenedAt() {
+		return openedAt;
+	}
+
+	@JsonProperty("closed_at")
+	public Instant getClosedAt() {
+		return closedAt;
+	}
+
+	@JsonProperty("lemonades_sold")
+	public long getLemonadesSold() {
+		return lemonadesSold;
+	}
+
+	@JsonProperty("batches_committed")
+	public long getBatchesCommitted() {
+		return batchesCommitted;
+	}
+
+	@JsonProperty("batches_failed")
+	public long getBatchesFailed() {
+		return batchesFailed;
+	}
+
+	@JsonProperty("collected_5")
+	public long getCollected5() {
+		return collected5;
+	}
+
+	@JsonProperty("collected_10")
+	public long getCollected10() {
+		return collected10;
+	}
+
+	@JsonProperty("collected_20")
+	public long getCollected20() {
+		return collected20;
+	}
+
+	@JsonProperty("change_paid_5")
+	public long getChangePaid5() {
+		return changePaid5;
+	}
+
+	@JsonProperty("change_paid_10")
+	public long getChangePaid10() {
+		return changePaid10;
+	}
+
+	@JsonProperty("closing_5")
+	public int getClosing5() {
+		return closing5;
+	}
+
+	@JsonProperty("closing_10")
+	public int getClosing10() {
+		return closing10;
+	}
+
+	@JsonProperty("closing_20")
+	public int getClosing20() {
+		return closing20;
+	}
+}
@@ -0,0 +1,19 @@
+package com.example.lemonade_stand.database;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DaySummaryRepository extends JpaRepository<DaySummaryRecord, Long> {
+	// Latest day, closed or the open day's checkpoint, to continue after a restart
+	DaySummaryRecord findFirstByOrderByDayIdDesc();
+
+	// Closed days, most recent first
+	List<DaySummaryRecord> findAllByClosedAtIsNotNullOrderByDayIdDesc();
+
+	// A closed day
+	Optional<DaySummaryRecord> findByDayIdAndClosedAtIsNotNull(Long dayId);
+}
@@ -0,0 +1,45 @@
+package com.example.lemonade_stand.database;
+
+import java.time.Instant;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * A batch still in flight when a shutdown's drain deadline passed, kept for
+ * audit. A batch abandoned while serving wrote nothing; one abandoned while
+ * committing was inside its transaction, so it was written completely or not
+ * at all.
+ */
+@Entity
+public class IncompleteBatchRecord {
+
+	@Id
+	private String batchId; // Id of the abandoned batch
+	private String stage; // SERVING or COMMITTING when it was abandoned
+	private Instant abandonedAt; // When the drain deadline passed
+
+	// Default constructor
+	public IncompleteBatchRecord() {
+	}
+
+	// Constructor
+	public IncompleteBatchRecord(String batchId, String stage, Instant abandonedAt) {
+		this.batchId = batchId;
+		this.stage = stage;
+		this.abandonedAt = abandonedAt;
+	}
+
+	// Getters
+	public String getBatchId() {
+		return batchId;
+	}
+
+	public String getStage() {
+		return stage;
+	}
+
+	public Instant getAbandonedAt() {
+		return abandonedAt;
+	}
+}
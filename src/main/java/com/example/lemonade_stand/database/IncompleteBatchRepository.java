@@ -0,0 +1,8 @@
+package com.example.lemonade_stand.database;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IncompleteBatchRepository extends JpaRepository<IncompleteBatchRecord, String> {
+}
@@ -0,0 +1,37 @@
+package com.example.lemonade_stand.database;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+
+@Entity
+public class InventoryItemRecord {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id; // Unique identifier for the record
+	@Column(unique = true)
+	private String itemName; // Stock item, e.g. cup
+	private long stock; // Units of the item in stock
+
+	// Default constructor
+	public InventoryItemRecord() {
+	}
+
+	// Constructor
+	public InventoryItemRecord(String itemName, long stock) {
+		this.itemName = itemName;
+		this.stock = stock;
+	}
+
+	// Getters
+	public String getItemName() {
+		return itemName;
+	}
+
+	public long getStock() {
+		return stock;
+	}
+}
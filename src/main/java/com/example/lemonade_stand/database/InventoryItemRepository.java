@@ -0,0 +1,20 @@
+package com.example.lemonade_stand.database;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface InventoryItemRepository extends JpaRepository<InventoryItemRecord, Long> {
+	// Custom query to find a stock item by name
+	InventoryItemRecord findByItemName(String itemName);
+
+	// Overwrites the stock of an item
+	@Modifying
+	@Transactional
+	@Query("update InventoryItemRecord i set i.stock = :stock where i.itemName = :itemName")
+	int setStock(@Param("itemName") String itemName, @Param("stock") long stock);
+}
@@ -0,0 +1,85 @@
+package com.example.lemonade_stand.database;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import com.example.lemonade_stand.order.OrderOutcome;
+
+/**
+ * One row per order of every processed batch, for audit and reconciliation.
+ * Rows are keyed by business date first, so a whole day can be dropped or
+ * archived with a range delete (or a partition drop on databases that support
+ * range partitioning) without touching other days.
+ */
+@Entity
+@Table(name = "order_ledger", indexes = { @Index(name = "idx_order_ledger_day_batch", columnList = "businessDate,batchId"),
+		@Index(name = "idx_order_ledger_day_id", columnList = "businessDate,id") })
+public class OrderLedgerRecord {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id; // Unique identifier for the record
+	private LocalDate businessDate; // Day the batch was processed on, the partition key
+	private String batchId; // Identifier shared by all orders of a batch
+	private int positionInBatch; // Index of the order within the request
+	private int positionInLine; // The customer's position in line
+	private int billValue; // The bill handed over
+	private int requestedLemonades; // Lemonades requested
+	private int changeGiven; // Change handed back, 0 unless sold
+	@Enumerated(EnumType.STRING)
+	private OrderOutcome outcome; // What happened to the order
+	private Instant processedAt; // When the batch finished processing
+
+	// Default constructor
+	public OrderLedgerRecord() {
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public LocalDate getBusinessDate() {
+		return businessDate;
+	}
+
+	public String getBatchId() {
+		return batchId;
+	}
+
+	public int getPositionInBatch() {
+		return positionInBatch;
+	}
+
+	public int getPositionInLine() {
+		return positionInLine;
+	}
+
+	public int getBillValue() {
+		return billValue;
+	}
+
+	public int getRequestedLemonades() {
+		return requestedLemonades;
+	}
+
+	public int getChangeGiven() {
+		return changeGiven;
+	}
+
+	public OrderOutcome getOutcome() {
+		return outcome;
+	}
+
+	public Instant getProcessedAt() {
+		return processedAt;
+	}
+}
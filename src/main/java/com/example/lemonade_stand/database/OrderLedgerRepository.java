@@ -0,0 +1,12 @@
+package com.example.lemonade_stand.database;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderLedgerRepository extends JpaRepository<OrderLedgerRecord, Long> {
+	// Retrieve all orders of a batch in request order
+	List<OrderLedgerRecord> findByBatchIdOrderByPositionInBatch(String batchId);
+}
@@ -1,10 +1,40 @@
 package com.example.lemonade_stand.database;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface SalesRepository extends JpaRepository<SalesRecord, Integer> {
 	// Retrieve the single sales record (assuming there's only one)
 	SalesRecord findFirstByOrderByIdDesc();
+
+	// Lemonades sold total of the latest sales record, null if there is none
+	@Cacheable(cacheNames = CacheNames.LATEST_SALES, key = CacheNames.VERSION_KEY)
+	@Query("select s.totalLemonadesSold from SalesRecord s where s.id = (select max(r.id) from SalesRecord r)")
+	Integer findLatestLemonadesSold();
+
+	// Atomically adds lemonades to the sales total
+	@Modifying
+	@Transactional
+	@CacheEvict(cacheNames = CacheNames.LATEST_SALES, allEntries = true)
+	@Query("update SalesRecord s set s.totalLemonadesSold = s.totalLemonadesSold + :lemonades")
+	int addToTotal(@Param("lemonades") int lemonades);
+
+	@Override
+	@CacheEvict(cacheNames = CacheNames.LATEST_SALES, allEntries = true)
+	<S extends SalesRecord> S save(S record);
+
+	@Override
+	@CacheEvict(cacheNames = CacheNames.LATEST_SALES, allEntries = true)
+	void deleteAll();
+
+	@Override
+	@CacheEvict(cacheNames = CacheNames.LATEST_SALES, allEntries = true)
+	void deleteAllInBatch();
 }
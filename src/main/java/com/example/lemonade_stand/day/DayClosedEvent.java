@@ -0,0 +1,23 @@
+package com.example.lemonade_stand.day;
+
+import com.example.lemonade_stand.database.DaySummaryRecord;
+
+/**
+ * Published by the {@link DaySessionService} once a business day has been
+ * closed and its summary stored, so per-day state elsewhere can start over.
+ */
+public class DayClosedEvent {
+
+	private final DaySummaryRecord summary; // The stored summary of the closed day
+
+	public DayClosedEvent(DaySummaryRecord summary) {
+		this.summary = summary;
+	}
+
+	/**
+	 * @return The stored summary of the closed day.
+	 */
+	public DaySummaryRecord getSummary() {
+		return summary;
+	}
+}
@@ -0,0 +1,100 @@
+package com.example.lemonade_stand.day;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.lemonade_stand.database.DaySummaryRecord;
+import com.example.lemonade_stand.order.BatchProcessedEvent;
+import com.example.lemonade_stand.util.AppConstants;
+
+/**
+ * Live counters of the open day. Request threads add to them concurrently; the
+ * whole object is replaced, never reset, when the day closes.
+ */
+final class DayCounters {
+
+	private final long dayId; // Sequence number of the day
+	private final LocalDate businessDate; // Calendar date the day was opened on
+	private final Instant openedAt; // When the day was opened
+	private final LongAdder lemonadesSold = new LongAdder();
+	private final LongAdder batchesCommitted = new LongAdder();
+	private final LongAdder batchesFailed = new LongAdder();
+	private final LongAdder[] collected = newAdders(); // Bills collected per denomination index
+	private final LongAdder[] changePaid = newAdders(); // Bills paid out per denomination index
+	private final AtomicInteger writers = new AtomicInteger(); // Threads currently recording into this day
+
+	DayCounters(long dayId, LocalDate businessDate, Instant openedAt) {
+		this.dayId = dayId;
+		this.businessDate = businessDate;
+		this.openedAt = openedAt.truncatedTo(ChronoUnit.MICROS); // As precise as the checkpoint row
+	}
+
+	/**
+	 * @param checkpoint The open day as last checkpointed.
+	 * @return Counters continuing the checkpointed day.
+	 */
+	static DayCounters resume(DaySummaryRecord checkpoint) {
+		DayCounters day = new DayCounters(checkpoint.getDayId(), checkpoint.getBusinessDate(),
+				checkpoint.getOpenedAt());
+		day.lemonadesSold.add(checkpoint.getLemonadesSold());
+		day.batchesCommitted.add(checkpoint.getBatchesCommitted());
+		day.batchesFailed.add(checkpoint.getBatchesFailed());
+		day.collected[0].add(checkpoint.getCollected5());
+		day.collected[1].add(checkpoint.getCollected10());
+		day.collected[2].add(checkpoint.getCollected20());
+		day.changePaid[0].add(checkpoint.getChangePaid5());
+		day.changePaid[1].add(checkpoint.getChangePaid10());
+		return day;
+	}
+
+	long getDayId() {
+		return dayId;
+	}
+
+	AtomicInteger writers() {
+		return writers;
+	}
+
+	void record(BatchProcessedEvent event) {
+		if (!event.isCommitted()) {
+			batchesFailed.increment();
+			return;
+		}
+		batchesCommitted.increment();
+		lemonadesSold.add(event.getLemonadesSold());
+		for (int index = 0; index < collected.length; index++) {
+			int denomination = AppConstants.BILL_DENOMINATIONS.get(index);
+			collected[index].add(event.getBillsCollected().getCount(denomination));
+			changePaid[index].add(event.getChangePaid().getCount(denomination));
+		}
+	}
+
+	/**
+	 * @param closedAt When the day closed, null for a live view.
+	 * @param drawer   Bills in the drawer per denomination index.
+	 * @return The counters as a summary record.
+	 */
+	DaySummaryRecord toSummary(Instant closedAt, int[] drawer) {
+		return new DaySummaryRecord(dayId, businessDate, openedAt, closedAt, lemonadesSold.sum(),
+				batchesCommitted.sum(), batchesFailed.sum(), sums(collected), sums(changePaid), drawer);
+	}
+
+	private static LongAdder[] newAdders() {
+		LongAdder[] adders = new LongAdder[AppConstants.BILL_DENOMINATIONS.size()];
+		for (int index = 0; index < adders.length; index++) {
+			adders[index] = new LongAdder();
+		}
+		return adders;
+	}
+
+	private static long[] sums(LongAdder[] adders) {
+		long[] sums = new long[adders.length];
+		for (int index = 0; index < adders.length; index++) {
+			sums[index] = adders[index].sum();
+		}
+		return sums;
+	}
+}
@@ -0,0 +1,142 @@
+package com.example.lemonade_stand.day;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.lemonade_stand.database.DaySummaryRecord;
+import com.example.lemonade_stand.database.DaySummaryRepository;
+import com.example.lemonade_stand.drawer.CashDrawer;
+import com.example.lemonade_stand.order.BatchProcessedEvent;
+import com.example.lemonade_stand.util.AppConstants;
+
+/**
+ * Tracks business days. There is always one open day collecting every processed
+ * batch; closing it swaps in fresh counters for the next day in one step and
+ * stores the closed day as a summary snapshot. Order processing never waits on
+ * a close: a batch that races the swap is simply counted in the next day.
+ * <p>
+ * The open day is checkpointed to its summary row at a fixed interval and on
+ * shutdown, and resumed from it on startup, so a restart loses at most the
+ * batches of one interval.
+ */
+@Service
+public class DaySessionService {
+
+	@Autowired
+	private DaySummaryRepository daySummaryRepository;
+	@Autowired
+	private CashDrawer cashDrawer;
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	private final AtomicReference<DayCounters> current = new AtomicReference<>();
+
+	/**
+	 * Resumes the open day from its checkpoint, or opens the day following the
+	 * last closed one.
+	 */
+	@PostConstruct
+	public synchronized void openFirstDay() {
+		DaySummaryRecord last = daySummaryRepository.findFirstByOrderByDayIdDesc();
+		if (last != null && last.getClosedAt() == null) {
+			current.set(DayCounters.resume(last));
+			return;
+		}
+		long dayId = last != null ? last.getDayId() + 1 : 1;
+		current.set(new DayCounters(dayId, LocalDate.now(), Instant.now()));
+	}
+
+	/**
+	 * Writes the open day's counters to its summary row. Synchronized with
+	 * {@link #closeDay}, so a checkpoint never overwrites a closed day.
+	 */
+	@Scheduled(fixedDelayString = "${lemonade.day.checkpoint-millis:5000}")
+	@PreDestroy
+	public synchronized void checkpoint() {
+		daySummaryRepository.save(current.get().toSummary(null, drawerCounts()));
+	}
+
+	/**
+	 * Counts a processed batch in the open day.
+	 *
+	 * @param event The processed batch.
+	 */
+	@EventListener
+	public void onBatchProcessed(BatchProcessedEvent event) {
+		DayCounters day;
+		while (true) {
+			day = current.get();
+			day.writers().incrementAndGet();
+			if (current.get() == day) {
+				break;
+			}
+			day.writers().decrementAndGet(); // Closed in the meantime, count it in the next day
+		}
+		try {
+			day.record(event);
+		} finally {
+			day.writers().decrementAndGet();
+		}
+	}
+
+	/**
+	 * Closes the open day, opens the next one and stores the closed day's
+	 * summary, then announces it with a {@link DayClosedEvent}.
+	 *
+	 * @return The summary of the closed day.
+	 */
+	public synchronized DaySummaryRecord closeDay() {
+		DayCounters closing = current.get();
+		current.set(new DayCounters(closing.getDayId() + 1, LocalDate.now(), Instant.now()));
+
+		// Wait for batches that were already counting into the closed day
+		while (closing.writers().get() != 0) {
+			Thread.onSpinWait();
+		}
+		DaySummaryRecord closed = daySummaryRepository.save(closing.toSummary(Instant.now(), drawerCounts()));
+		eventPublisher.publishEvent(new DayClosedEvent(closed));
+		return closed;
+	}
+
+	/**
+	 * @return The live summary of the open day.
+	 */
+	public DaySummaryRecord currentDay() {
+		return current.get().toSummary(null, drawerCounts());
+	}
+
+	/**
+	 * @return Summaries of every closed day, most recent first.
+	 */
+	public List<DaySummaryRecord> closedDays() {
+		return daySummaryRepository.findAllByClosedAtIsNotNullOrderByDayIdDesc();
+	}
+
+	/**
+	 * @param dayId Sequence number of a closed day.
+	 * @return Its summary, if the day was closed.
+	 */
+	public Optional<DaySummaryRecord> closedDay(long dayId) {
+		return daySummaryRepository.findByDayIdAndClosedAtIsNotNull(dayId);
+	}
+
+	private int[] drawerCounts() {
+		int[] counts = new int[AppConstants.BILL_DENOMINATIONS.size()];
+		for (int index = 0; index < counts.length; index++) {
+			counts[index] = cashDrawer.getAvailable(AppConstants.BILL_DENOMINATIONS.get(index));
+		}
+		return counts;
+	}
+}
@@ -0,0 +1,137 @@
+package com.example.lemonade_stand.drawer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.util.AppConstants;
+
+/**
+ * In-memory count of the bills available for change. Batches never change the
+ * counts directly: they hold bills through a {@link Reservation} and settle it
+ * once, so concurrent batches cannot hand out the same bill and a failed batch
+ * gives its bills back without touching the database. The counts live in a
+ * {@link DrawerStore}, private to the process by default or shared with other
+ * processes on the host.
+ */
+@Component
+public class CashDrawer {
+
+	@Autowired
+	private LeaseTimerWheel timerWheel;
+	@Autowired
+	private DrawerStore store;
+
+	@Value("${lemonade.drawer.lease-millis:5000}")
+	private long leaseMillis; // Time a batch may hold change bills before they are reclaimed
+
+	private final AtomicLong expiredLeases = new AtomicLong();
+
+	/**
+	 * Sets the count of a denomination directly. Must not be called while batches
+	 * hold reservations.
+	 *
+	 * @param denomination The bill denomination.
+	 * @param count        The number of bills in the drawer.
+	 */
+	public void reset(int denomination, int count) {
+		store.setAvailable(AppConstants.BILL_DENOMINATIONS.indexOf(denomination), count);
+	}
+
+	/**
+	 * Loads the database checkpoint, unless a shared drawer is already ahead of
+	 * it.
+	 *
+	 * @param counts        Bills per denomination, in
+	 *                      {@code AppConstants.BILL_DENOMINATIONS} order.
+	 * @param lemonadesSold Lemonades sold total in the database.
+	 * @return True if the checkpoint was loaded.
+	 */
+	public boolean restore(int[] counts, long lemonadesSold) {
+		return store.restore(counts, lemonadesSold);
+	}
+
+	/**
+	 * Adds a committed batch's lemonades to the sold total.
+	 *
+	 * @param lemonades Lemonades sold by the batch.
+	 */
+	public void recordSale(int lemonades) {
+		store.addLemonadesSold(lemonades);
+	}
+
+	/**
+	 * @return Lemonades sold, as tracked by the drawer.
+	 */
+	public long getLemonadesSold() {
+		return store.getLemonadesSold();
+	}
+
+	/**
+	 * @param denomination The bill denomination.
+	 * @return Bills of that denomination to write to the database checkpoint.
+	 */
+	public int getCheckpointCount(int denomination) {
+		return store.getCheckpointCount(AppConstants.BILL_DENOMINATIONS.indexOf(denomination));
+	}
+
+	/**
+	 * @return True if the drawer is shared with other processes and the database
+	 *         is only a periodic checkpoint.
+	 */
+	public boolean isShared() {
+		return store.isShared();
+	}
+
+	/**
+	 * @return A new reservation leased for the configured time.
+	 */
+	public Reservation reserve() {
+		return reserve(leaseMillis);
+	}
+
+	/**
+	 * @param leaseMillis Time until the reservation is reclaimed.
+	 * @return A new reservation holding no bills yet.
+	 */
+	public Reservation reserve(long leaseMillis) {
+		Reservation reservation = new Reservation(this,
+				System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseMillis));
+		timerWheel.schedule(reservation);
+		return reservation;
+	}
+
+	/**
+	 * @param denomination The bill denomination.
+	 * @return The number of bills of that denomination not held by any batch.
+	 */
+	public int getAvailable(int denomination) {
+		return store.getAvailable(AppConstants.BILL_DENOMINATIONS.indexOf(denomination));
+	}
+
+	/**
+	 * @return The number of leases reclaimed by the timer wheel so far.
+	 */
+	public long getExpiredLeases() {
+		return expiredLeases.get();
+	}
+
+	boolean take(int index) {
+		return store.take(index);
+	}
+
+	void release(int index, int count) {
+		store.release(index, count);
+	}
+
+	void commit(int[] held, int[] deposits) {
+		store.commit(held, deposits);
+	}
+
+	void leaseExpired() {
+		expiredLeases.incrementAndGet();
+	}
+}
@@ -0,0 +1,40 @@
+package com.example.lemonade_stand.drawer;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.order.OrderRepositoryService;
+import com.example.lemonade_stand.util.AppConstants;
+
+/**
+ * Writes a shared drawer's counts and sales total to the database at a fixed
+ * interval and on shutdown. A private drawer needs no checkpoint, as every
+ * commit is written to the database directly.
+ */
+@Component
+public class DrawerCheckpointer {
+
+	@Autowired
+	private CashDrawer cashDrawer;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+
+	/**
+	 * Copies the drawer to the database if it is shared.
+	 */
+	@Scheduled(fixedDelayString = "${lemonade.drawer.checkpoint-millis:5000}")
+	@PreDestroy
+	public void checkpoint() {
+		if (!cashDrawer.isShared()) {
+			return;
+		}
+		int[] counts = new int[AppConstants.BILL_DENOMINATIONS.size()];
+		for (int index = 0; index < counts.length; index++) {
+			counts[index] = cashDrawer.getCheckpointCount(AppConstants.BILL_DENOMINATIONS.get(index));
+		}
+		orderRepositoryService.replaceState(counts, cashDrawer.getLemonadesSold());
+	}
+}
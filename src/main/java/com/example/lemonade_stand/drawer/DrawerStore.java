@@ -0,0 +1,73 @@
+package com.example.lemonade_stand.drawer;
+
+/**
+ * Storage behind the {@link CashDrawer}: available bills per denomination index,
+ * bills held by this process's open reservations, and the lemonades sold total.
+ * All operations are atomic per call.
+ */
+public interface DrawerStore {
+
+	/**
+	 * @param index Denomination index in {@code AppConstants.BILL_DENOMINATIONS}.
+	 * @return Bills of that denomination not held by any reservation.
+	 */
+	int getAvailable(int index);
+
+	/**
+	 * Overwrites the available count. Must not be called while reservations are
+	 * open.
+	 */
+	void setAvailable(int index, int count);
+
+	/**
+	 * Moves one bill from available to held by this process.
+	 *
+	 * @return False if none was available.
+	 */
+	boolean take(int index);
+
+	/**
+	 * Moves held bills back to available.
+	 */
+	void release(int index, int count);
+
+	/**
+	 * Settles a reservation: the held bills leave the drawer and the deposits
+	 * become available, as one operation.
+	 *
+	 * @param held     Bills held per denomination index.
+	 * @param deposits Bills deposited per denomination index.
+	 */
+	void commit(int[] held, int[] deposits);
+
+	/**
+	 * @return The new lemonades sold total.
+	 */
+	long addLemonadesSold(long lemonades);
+
+	long getLemonadesSold();
+
+	/**
+	 * Loads the database checkpoint if the store needs it: always for a private
+	 * store, and for a shared store only when it was just created or failed its
+	 * consistency checks.
+	 *
+	 * @param counts        Bills per denomination index in the database.
+	 * @param lemonadesSold Lemonades sold total in the database.
+	 * @return True if the checkpoint was loaded.
+	 */
+	boolean restore(int[] counts, long lemonadesSold);
+
+	/**
+	 * @param index Denomination index.
+	 * @return Bills of that denomination physically in the drawer, held or not,
+	 *         as written to the database checkpoint.
+	 */
+	int getCheckpointCount(int index);
+
+	/**
+	 * @return True if the store outlives the process and is shared with other
+	 *         processes, making the database a periodic checkpoint only.
+	 */
+	boolean isShared();
+}
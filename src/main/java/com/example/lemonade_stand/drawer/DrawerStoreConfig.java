@@ -0,0 +1,30 @@
+package com.example.lemonade_stand.drawer;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the drawer store with {@code lemonade.drawer.store}: {@code heap}
+ * (default) or {@code mapped} to share the drawer file with other processes.
+ */
+@Configuration
+public class DrawerStoreConfig {
+
+	@Bean
+	@ConditionalOnProperty(name = "lemonade.drawer.store", havingValue = "heap", matchIfMissing = true)
+	public DrawerStore heapDrawerStore() {
+		return new HeapDrawerStore();
+	}
+
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(name = "lemonade.drawer.store", havingValue = "mapped")
+	public DrawerStore mappedDrawerStore(@Value("${lemonade.drawer.mapped-file}") String mappedFile)
+			throws IOException {
+		return new MappedDrawerStore(Paths.get(mappedFile));
+	}
+}
@@ -0,0 +1,81 @@
+package com.example.lemonade_stand.drawer;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.lemonade_stand.util.AppConstants;
+
+/**
+ * Default drawer store, private to the process. The database stays the source
+ * of truth and is reloaded on every restore.
+ */
+public class HeapDrawerStore implements DrawerStore {
+
+	private final AtomicIntegerArray available = new AtomicIntegerArray(AppConstants.BILL_DENOMINATIONS.size());
+	private final AtomicLong lemonadesSold = new AtomicLong();
+
+	@Override
+	public int getAvailable(int index) {
+		return available.get(index);
+	}
+
+	@Override
+	public void setAvailable(int index, int count) {
+		available.set(index, count);
+	}
+
+	@Override
+	public boolean take(int index) {
+		int count;
+		do {
+			count = available.get(index);
+			if (count == 0) {
+				return false;
+			}
+		} while (!available.compareAndSet(index, count, count - 1));
+		return true;
+	}
+
+	@Override
+	public void release(int index, int count) {
+		if (count != 0) {
+			available.addAndGet(index, count);
+		}
+	}
+
+	@Override
+	public void commit(int[] held, int[] deposits) {
+		for (int index = 0; index < deposits.length; index++) {
+			release(index, deposits[index]);
+		}
+	}
+
+	@Override
+	public long addLemonadesSold(long lemonades) {
+		return lemonadesSold.addAndGet(lemonades);
+	}
+
+	@Override
+	public long getLemonadesSold() {
+		return lemonadesSold.get();
+	}
+
+	@Override
+	public boolean restore(int[] counts, long lemonadesSold) {
+		for (int index = 0; index < counts.length; index++) {
+			available.set(index, counts[index]);
+		}
+		this.lemonadesSold.set(lemonadesSold);
+		return true;
+	}
+
+	@Override
+	public int getCheckpointCount(int index) {
+		return available.get(index); // Never checkpointed, the database is written on every commit
+	}
+
+	@Override
+	public boolean isShared() {
+		return false;
+	}
+}
@@ -0,0 +1,100 @@
+package com.example.lemonade_stand.drawer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hashed timer wheel reclaiming expired {@link Reservation} leases. Scheduling
+ * appends to one slot and settled leases are simply skipped when their slot
+ * comes round, so neither scheduling nor cancelling depends on how many leases
+ * are outstanding.
+ */
+@Component
+public class LeaseTimerWheel {
+
+	private static final int WHEEL_SIZE = 512; // Slots, a power of two
+	private static final int MASK = WHEEL_SIZE - 1;
+
+	@Value("${lemonade.drawer.wheel-tick-millis:10}")
+	private long tickMillis; // Time covered by one slot, the expiry resolution
+
+	private final ConcurrentLinkedQueue<Reservation>[] slots;
+	private long tickNanos;
+	private long startNanos;
+	private volatile long currentTick; // Next tick the wheel thread will process
+	private Thread wheelThread;
+	private volatile boolean running;
+
+	@SuppressWarnings("unchecked")
+	public LeaseTimerWheel() {
+		slots = new ConcurrentLinkedQueue[WHEEL_SIZE];
+		for (int i = 0; i < WHEEL_SIZE; i++) {
+			slots[i] = new ConcurrentLinkedQueue<>();
+		}
+	}
+
+	@PostConstruct
+	public void start() {
+		tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+		startNanos = System.nanoTime();
+		running = true;
+		wheelThread = new Thread(this::turn, "lease-timer-wheel");
+		wheelThread.setDaemon(true);
+		wheelThread.start();
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		wheelThread.join(TimeUnit.SECONDS.toMillis(1));
+	}
+
+	/**
+	 * Schedules a lease for reclaiming at its deadline.
+	 *
+	 * @param reservation The lease to watch.
+	 */
+	void schedule(Reservation reservation) {
+		long tick = Math.max((reservation.getDeadlineNanos() - startNanos) / tickNanos, currentTick);
+		slots[(int) (tick & MASK)].add(reservation);
+	}
+
+	// Wheel thread loop: wait for each tick, then expire due leases of its slot
+	private void turn() {
+		List<Reservation> notDue = new ArrayList<>();
+		while (running) {
+			long tick = currentTick;
+			long tickDeadline = startNanos + (tick + 1) * tickNanos;
+			long wait;
+			while ((wait = tickDeadline - System.nanoTime()) > 0 && running) {
+				LockSupport.parkNanos(wait);
+			}
+
+			ConcurrentLinkedQueue<Reservation> slot = slots[(int) (tick & MASK)];
+			long now = System.nanoTime();
+			Reservation reservation;
+			while ((reservation = slot.poll()) != null) {
+				if (reservation.isSettled()) {
+					continue;
+				}
+				if (reservation.getDeadlineNanos() - now <= 0) {
+					reservation.expire();
+				} else {
+					notDue.add(reservation); // Due on a later turn of the wheel
+				}
+			}
+			slot.addAll(notDue);
+			notDue.clear();
+			currentTick = tick + 1;
+		}
+	}
+}
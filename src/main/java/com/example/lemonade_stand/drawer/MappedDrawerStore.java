@@ -0,0 +1,404 @@
+package com.example.lemonade_stand.drawer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.lemonade_stand.util.AppConstants;
+
+/**
+ * Drawer store in a memory-mapped file, shared by every process on the host
+ * that maps the same file. Counters are updated in place with {@link VarHandle}
+ * atomics, so co-located processes see each other's changes immediately and the
+ * database only receives periodic checkpoints.
+ * <p>
+ * Every process owns a slot recording the bills its open reservations hold and
+ * how many multi-word updates it is in the middle of. When the file is opened,
+ * the slots of processes that are no longer alive are checked: bills held by a
+ * process that died between updates are returned to the drawer, while a process
+ * that died in the middle of an update leaves the counters suspect, so the
+ * counters are reloaded from the database checkpoint instead. Only the slots of
+ * dead processes are freed; processes still running keep their slots and the
+ * bills they hold. A damaged header means no slot can be trusted, so the file
+ * is only rebuilt if no process using it is still alive.
+ */
+public class MappedDrawerStore implements DrawerStore, Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger(MappedDrawerStore.class);
+
+	private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class,
+			ByteOrder.nativeOrder());
+
+	static final long MAGIC = 0x4C454D4F4E445257L; // "LEMONDRW"
+	static final long VERSION = 1;
+	static final int MAX_PROCESSES = 16; // Processes that can map the file at once
+
+	// Header: every field is an 8-byte aligned long
+	static final int MAGIC_OFFSET = 0;
+	static final int VERSION_OFFSET = 8;
+	static final int DENOMINATIONS_OFFSET = 16;
+	static final int SLOT_COUNT_OFFSET = 24;
+	static final int SOLD_OFFSET = 32;
+	static final int COUNTS_OFFSET = 64; // Available bills per denomination index
+	static final int HEADER_BYTES = 128;
+
+	// Process slots following the header
+	static final int SLOT_PID = 0;
+	static final int SLOT_START = 8; // Process start time, to tell a reused pid apart
+	static final int SLOT_UPDATES = 16; // Multi-word updates in progress
+	static final int SLOT_HELD = 24; // Bills held per denomination index
+	static final int SLOT_BYTES = 64;
+	static final int FILE_BYTES = HEADER_BYTES + MAX_PROCESSES * SLOT_BYTES;
+
+	private final int denominations = AppConstants.BILL_DENOMINATIONS.size();
+	private final long pid = ProcessHandle.current().pid();
+	private final long startMillis = startMillis(ProcessHandle.current());
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final int slot; // Offset of this process's slot
+	private volatile boolean needsRestore; // Counters must be loaded from the database checkpoint
+
+	/**
+	 * Maps the drawer file, creating it if needed, and checks it before use.
+	 *
+	 * @param path The drawer file, ideally on a tmpfs such as /dev/shm.
+	 * @throws IOException If the file cannot be mapped, or its header or shared
+	 *                     counters are damaged while a running process still
+	 *                     uses it.
+	 */
+	public MappedDrawerStore(Path path) throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			try (FileLock lock = channel.lock()) { // Only one process checks and recovers at a time
+				boolean fresh = channel.size() != FILE_BYTES;
+				if (fresh) {
+					channel.truncate(0);
+				}
+				buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_BYTES);
+
+				String problem = fresh ? null : checkHeader();
+				if (fresh || problem != null) {
+					if (problem != null) {
+						long livePid = findLiveProcess();
+						if (livePid != 0) {
+							throw new IOException("Drawer file " + path + " is damaged (" + problem
+									+ ") but still used by process " + livePid + "; refusing to rebuild it");
+						}
+						log.warn("Drawer file {} is damaged ({}), rebuilding it from the database checkpoint", path,
+								problem);
+					}
+					initialize();
+					needsRestore = true;
+				} else if ((problem = checkCounters()) != null) {
+					long livePid = findLiveProcess();
+					if (livePid == 0) {
+						log.warn("Drawer file {} is inconsistent ({}), reloading the counters from the database "
+								+ "checkpoint", path, problem);
+						resetCounters();
+						needsRestore = true;
+					} else if (checkTotals() != null) {
+						throw new IOException("Drawer file " + path + " is inconsistent (" + problem
+								+ ") but still used by process " + livePid + "; refusing to reload it");
+					} else {
+						// The counters belong to the running processes; only the dead slots are repaired
+						log.warn("Drawer file {} is inconsistent ({}), dropping the bills held by that process",
+								path, problem);
+						recoverDeadProcesses();
+					}
+				} else {
+					recoverDeadProcesses();
+				}
+				slot = claimSlot();
+				buffer.force();
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public int getAvailable(int index) {
+		return (int) get(COUNTS_OFFSET + 8 * index);
+	}
+
+	@Override
+	public void setAvailable(int index, int count) {
+		LONGS.setVolatile(buffer, COUNTS_OFFSET + 8 * index, (long) count);
+	}
+
+	@Override
+	public boolean take(int index) {
+		beginUpdate();
+		try {
+			int offset = COUNTS_OFFSET + 8 * index;
+			long count;
+			do {
+				count = get(offset);
+				if (count <= 0) {
+					return false;
+				}
+			} while (!LONGS.compareAndSet(buffer, offset, count, count - 1));
+			LONGS.getAndAdd(buffer, slot + SLOT_HELD + 8 * index, 1L);
+			return true;
+		} finally {
+			endUpdate();
+		}
+	}
+
+	@Override
+	public void release(int index, int count) {
+		if (count == 0) {
+			return;
+		}
+		beginUpdate();
+		try {
+			LONGS.getAndAdd(buffer, COUNTS_OFFSET + 8 * index, (long) count);
+			LONGS.getAndAdd(buffer, slot + SLOT_HELD + 8 * index, (long) -count);
+		} finally {
+			endUpdate();
+		}
+	}
+
+	@Override
+	public void commit(int[] held, int[] deposits) {
+		beginUpdate();
+		try {
+			for (int index = 0; index < denominations; index++) {
+				if (held[index] != 0) {
+					LONGS.getAndAdd(buffer, slot + SLOT_HELD + 8 * index, (long) -held[index]);
+				}
+				if (deposits[index] != 0) {
+					LONGS.getAndAdd(buffer, COUNTS_OFFSET + 8 * index, (long) deposits[index]);
+				}
+			}
+		} finally {
+			endUpdate();
+		}
+	}
+
+	@Override
+	public long addLemonadesSold(long lemonades) {
+		return (long) LONGS.getAndAdd(buffer, SOLD_OFFSET, lemonades) + lemonades;
+	}
+
+	@Override
+	public long getLemonadesSold() {
+		return get(SOLD_OFFSET);
+	}
+
+	@Override
+	public synchronized boolean restore(int[] counts, long lemonadesSold) {
+		if (!needsRestore) {
+			return false; // The file is ahead of the database
+		}
+		// The checkpoint counts bills held by running processes as still in the drawer
+		for (int index = 0; index < denominations; index++) {
+			setAvailable(index, (int) Math.max(0, counts[index] - getHeld(index)));
+		}
+		LONGS.setVolatile(buffer, SOLD_OFFSET, lemonadesSold);
+		needsRestore = false;
+		return true;
+	}
+
+	@Override
+	public int getCheckpointCount(int index) {
+		// Held bills are still in the drawer until their reservation commits
+		return (int) (get(COUNTS_OFFSET + 8 * index) + getHeld(index));
+	}
+
+	@Override
+	public boolean isShared() {
+		return true;
+	}
+
+	/**
+	 * Returns the bills this process still holds, which belong to reservations
+	 * that can no longer settle, and gives up the slot.
+	 */
+	@Override
+	public void close() throws IOException {
+		for (int index = 0; index < denominations; index++) {
+			long held = (long) LONGS.getAndSet(buffer, slot + SLOT_HELD + 8 * index, 0L);
+			LONGS.getAndAdd(buffer, COUNTS_OFFSET + 8 * index, held);
+		}
+		LONGS.setVolatile(buffer, slot + SLOT_START, 0L);
+		LONGS.setVolatile(buffer, slot + SLOT_PID, 0L);
+		buffer.force();
+		channel.close();
+	}
+
+	// Validates the header, returning the first problem found
+	private String checkHeader() {
+		if (get(MAGIC_OFFSET) != MAGIC) {
+			return "bad magic";
+		}
+		if (get(VERSION_OFFSET) != VERSION) {
+			return "unsupported version " + get(VERSION_OFFSET);
+		}
+		if (get(DENOMINATIONS_OFFSET) != denominations || get(SLOT_COUNT_OFFSET) != MAX_PROCESSES) {
+			return "different layout";
+		}
+		return null;
+	}
+
+	// Validates the counters and the slots of dead processes without changing
+	// them, returning the first problem found
+	private String checkCounters() {
+		String problem = checkTotals();
+		for (int i = 0; problem == null && i < MAX_PROCESSES; i++) {
+			int offset = HEADER_BYTES + i * SLOT_BYTES;
+			long slotPid = get(offset + SLOT_PID);
+			if (slotPid != 0 && !isAlive(slotPid, get(offset + SLOT_START))) {
+				problem = checkDeadSlot(offset);
+			}
+		}
+		return problem;
+	}
+
+	// Validates the shared bill counts and lemonades sold
+	private String checkTotals() {
+		if (get(SOLD_OFFSET) < 0) {
+			return "negative lemonades sold";
+		}
+		for (int index = 0; index < denominations; index++) {
+			if (get(COUNTS_OFFSET + 8 * index) < 0) {
+				return "negative bill count";
+			}
+		}
+		return null;
+	}
+
+	// Validates the slot of a dead process, returning the first problem found
+	private String checkDeadSlot(int offset) {
+		long slotPid = get(offset + SLOT_PID);
+		if (get(offset + SLOT_UPDATES) != 0) {
+			return "process " + slotPid + " died during an update";
+		}
+		for (int index = 0; index < denominations; index++) {
+			if (get(offset + SLOT_HELD + 8 * index) < 0) {
+				return "negative bills held by process " + slotPid;
+			}
+		}
+		return null;
+	}
+
+	// Returns the held bills of processes that died between updates and drops
+	// those of processes that died during one, as their counts cannot be trusted
+	private void recoverDeadProcesses() {
+		for (int i = 0; i < MAX_PROCESSES; i++) {
+			int offset = HEADER_BYTES + i * SLOT_BYTES;
+			long slotPid = get(offset + SLOT_PID);
+			if (slotPid == 0 || isAlive(slotPid, get(offset + SLOT_START))) {
+				continue;
+			}
+			if (checkDeadSlot(offset) == null) {
+				for (int index = 0; index < denominations; index++) {
+					LONGS.getAndAdd(buffer, COUNTS_OFFSET + 8 * index, get(offset + SLOT_HELD + 8 * index));
+				}
+				log.info("Returned bills held by exited process {} to the drawer", slotPid);
+			}
+			freeSlot(offset);
+		}
+	}
+
+	// Frees the slots of dead processes, dropping their bills, and zeroes the
+	// counters until the checkpoint is restored; slots of running processes stay
+	private void resetCounters() {
+		for (int i = 0; i < MAX_PROCESSES; i++) {
+			int offset = HEADER_BYTES + i * SLOT_BYTES;
+			long slotPid = get(offset + SLOT_PID);
+			if (slotPid != 0 && !isAlive(slotPid, get(offset + SLOT_START))) {
+				freeSlot(offset);
+			}
+		}
+		for (int index = 0; index < denominations; index++) {
+			setAvailable(index, 0);
+		}
+		LONGS.setVolatile(buffer, SOLD_OFFSET, 0L);
+	}
+
+	// Clears a slot, its pid last so it is only claimed once clear
+	private void freeSlot(int offset) {
+		LONGS.setVolatile(buffer, offset + SLOT_UPDATES, 0L);
+		for (int index = 0; index < denominations; index++) {
+			LONGS.setVolatile(buffer, offset + SLOT_HELD + 8 * index, 0L);
+		}
+		LONGS.setVolatile(buffer, offset + SLOT_START, 0L);
+		LONGS.setVolatile(buffer, offset + SLOT_PID, 0L);
+	}
+
+	// A running process registered in the file, 0 if there is none
+	private long findLiveProcess() {
+		for (int i = 0; i < MAX_PROCESSES; i++) {
+			int offset = HEADER_BYTES + i * SLOT_BYTES;
+			long slotPid = get(offset + SLOT_PID);
+			if (slotPid != 0 && isAlive(slotPid, get(offset + SLOT_START))) {
+				return slotPid;
+			}
+		}
+		return 0;
+	}
+
+	// Bills of a denomination held by every registered process
+	private long getHeld(int index) {
+		long held = 0;
+		for (int i = 0; i < MAX_PROCESSES; i++) {
+			held += get(HEADER_BYTES + i * SLOT_BYTES + SLOT_HELD + 8 * index);
+		}
+		return held;
+	}
+
+	// Zeroes the file and writes the header, magic last
+	private void initialize() {
+		for (int offset = 0; offset < FILE_BYTES; offset += 8) {
+			LONGS.setVolatile(buffer, offset, 0L);
+		}
+		LONGS.setVolatile(buffer, VERSION_OFFSET, VERSION);
+		LONGS.setVolatile(buffer, DENOMINATIONS_OFFSET, (long) denominations);
+		LONGS.setVolatile(buffer, SLOT_COUNT_OFFSET, (long) MAX_PROCESSES);
+		LONGS.setVolatile(buffer, MAGIC_OFFSET, MAGIC);
+	}
+
+	private int claimSlot() {
+		for (int i = 0; i < MAX_PROCESSES; i++) {
+			int offset = HEADER_BYTES + i * SLOT_BYTES;
+			if (LONGS.compareAndSet(buffer, offset + SLOT_PID, 0L, pid)) {
+				LONGS.setVolatile(buffer, offset + SLOT_START, startMillis);
+				return offset;
+			}
+		}
+		throw new IllegalStateException("All " + MAX_PROCESSES + " drawer slots are in use");
+	}
+
+	private void beginUpdate() {
+		LONGS.getAndAdd(buffer, slot + SLOT_UPDATES, 1L);
+	}
+
+	private void endUpdate() {
+		LONGS.getAndAdd(buffer, slot + SLOT_UPDATES, -1L);
+	}
+
+	private long get(int offset) {
+		return (long) LONGS.getVolatile(buffer, offset);
+	}
+
+	private static boolean isAlive(long pid, long startMillis) {
+		return ProcessHandle.of(pid).map(process -> startMillis(process) == startMillis).orElse(false);
+	}
+
+	private static long startMillis(ProcessHandle process) {
+		return process.info().startInstant().map(start -> start.toEpochMilli()).orElse(0L);
+	}
+}
@@ -0,0 +1,127 @@
+package com.example.lemonade_stand.drawer;
+
+import com.example.lemonade_stand.order.BillTally;
+import com.example.lemonade_stand.util.AppConstants;
+
+/**
+ * Change bills held out of the {@link CashDrawer} by one order batch under a
+ * lease. The batch takes bills one at a time while it works out change, then
+ * either commits (the held bills leave the drawer for good and the batch's own
+ * bills go in) or releases (the held bills go back). A lease that is neither
+ * committed nor released before its deadline is reclaimed by the
+ * {@link LeaseTimerWheel}, unless it was prepared: a batch writing its
+ * transaction keeps its bills until the transaction completes.
+ * <p>
+ * Every operation touches one counter per denomination, so settling is
+ * constant time regardless of batch size.
+ */
+public final class Reservation {
+
+	enum State {
+		ACTIVE, PREPARED, COMMITTED, RELEASED, EXPIRED
+	}
+
+	private final CashDrawer drawer; // Drawer the bills are held from
+	private final long deadlineNanos; // System.nanoTime() after which the lease expires
+	private final int[] held = new int[AppConstants.BILL_DENOMINATIONS.size()]; // Bills held per denomination
+	private State state = State.ACTIVE;
+
+	Reservation(CashDrawer drawer, long deadlineNanos) {
+		this.drawer = drawer;
+		this.deadlineNanos = deadlineNanos;
+	}
+
+	/**
+	 * Takes one bill of the given denomination out of the drawer.
+	 *
+	 * @param denomination The bill denomination.
+	 * @return True if a bill was available and the lease is still active.
+	 */
+	public synchronized boolean take(int denomination) {
+		int index = AppConstants.BILL_DENOMINATIONS.indexOf(denomination);
+		if (state != State.ACTIVE || !drawer.take(index)) {
+			return false;
+		}
+		held[index]++;
+		return true;
+	}
+
+	/**
+	 * Stops the lease from expiring and from taking more bills, ahead of a commit
+	 * or release.
+	 *
+	 * @return False if the lease had already expired or been settled.
+	 */
+	public synchronized boolean prepare() {
+		if (state != State.ACTIVE) {
+			return false;
+		}
+		state = State.PREPARED;
+		return true;
+	}
+
+	/**
+	 * Keeps the held bills out of the drawer and puts the batch's own bills in.
+	 *
+	 * @param deposits Bills the batch leaves in the drawer.
+	 * @return False if the lease had already expired or been released, in which
+	 *         case nothing is deposited.
+	 */
+	public synchronized boolean commit(BillTally deposits) {
+		if (state != State.ACTIVE && state != State.PREPARED) {
+			return false;
+		}
+		state = State.COMMITTED;
+		int[] depositCounts = new int[held.length];
+		for (int index = 0; index < held.length; index++) {
+			depositCounts[index] = deposits.getCount(AppConstants.BILL_DENOMINATIONS.get(index));
+		}
+		drawer.commit(held, depositCounts);
+		return true;
+	}
+
+	/**
+	 * Returns the held bills to the drawer, prepared or not. Does nothing once
+	 * settled.
+	 */
+	public synchronized void release() {
+		settle(State.RELEASED);
+	}
+
+	/**
+	 * @param denomination The bill denomination.
+	 * @return The number of bills of that denomination held by this lease.
+	 */
+	public synchronized int getHeld(int denomination) {
+		return held[AppConstants.BILL_DENOMINATIONS.indexOf(denomination)];
+	}
+
+	/**
+	 * @return True once the lease has been committed, released or has expired.
+	 */
+	public synchronized boolean isSettled() {
+		return state != State.ACTIVE && state != State.PREPARED;
+	}
+
+	long getDeadlineNanos() {
+		return deadlineNanos;
+	}
+
+	// Called by the timer wheel once the deadline has passed
+	synchronized void expire() {
+		if (state == State.ACTIVE && settle(State.EXPIRED)) {
+			drawer.leaseExpired();
+		}
+	}
+
+	private boolean settle(State newState) {
+		if (state != State.ACTIVE && state != State.PREPARED) {
+			return false;
+		}
+		state = newState;
+		for (int index = 0; index < held.length; index++) {
+			drawer.release(index, held[index]);
+		}
+		return true;
+	}
+}
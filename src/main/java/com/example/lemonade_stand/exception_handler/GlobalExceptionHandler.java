@@ -1,11 +1,16 @@
 package com.example.lemonade_stand.exception_handler;
 
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.example.lemonade_stand.lane.LaneFullException;
+
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -16,6 +21,13 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    // Handle batches arriving at a full execution lane
+    @ExceptionHandler(LaneFullException.class)
+    public ResponseEntity<ErrorResponse> handleLaneFullException(LaneFullException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(errorResponse);
+    }
+
     // Handle generic exceptions
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
@@ -49,4 +61,18 @@ public class GlobalExceptionHandler {
             return message;
         }
     }
+
+    // Error response listing every invalid order of a batch by its index
+    public static class ValidationErrorResponse extends ErrorResponse {
+        private final List<OrderViolation> violations; // All violations found in the batch
+
+        public ValidationErrorResponse(List<OrderViolation> violations) {
+            super(HttpStatus.BAD_REQUEST.value(), "Invalid order batch: " + violations.size() + " violation(s).");
+            this.violations = violations;
+        }
+
+        public List<OrderViolation> getViolations() {
+            return violations;
+        }
+    }
 }
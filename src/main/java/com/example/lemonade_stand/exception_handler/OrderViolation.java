@@ -0,0 +1,35 @@
+package com.example.lemonade_stand.exception_handler;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// A single validation failure, identified by the order's index in the request
+public class OrderViolation {
+    private final int index; // Index of the offending order within the request
+    private final String field; // Wire name of the invalid field
+    private final Object rejectedValue; // The value that failed validation, a number or an order id
+    private final String message; // Human readable description
+
+    public OrderViolation(int index, String field, Object rejectedValue, String message) {
+        this.index = index;
+        this.field = field;
+        this.rejectedValue = rejectedValue;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    @JsonProperty("rejected_value")
+    public Object getRejectedValue() {
+        return rejectedValue;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
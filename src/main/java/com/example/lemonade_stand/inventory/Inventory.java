@@ -0,0 +1,175 @@
+package com.example.lemonade_stand.inventory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.database.InventoryItemRecord;
+import com.example.lemonade_stand.database.InventoryItemRepository;
+
+/**
+ * In-memory stock of the items each lemonade is made from, e.g. lemonade, cups
+ * and ice. Orders take stock with a compare-and-set per item, so checking stock
+ * adds no lock and no database access to the order loop; changed stock is
+ * written to the database in the background every
+ * {@code lemonade.inventory.flush-millis}.
+ * <p>
+ * Stock held by an in-flight batch is not in the written count, so a crash can
+ * only undersell, never oversell.
+ */
+@Component
+public class Inventory {
+
+	private static final StockReservation UNTRACKED = new StockReservation(null, 0); // Shared when stock is not tracked
+
+	@Autowired
+	private InventoryProperties properties;
+	@Autowired
+	private InventoryItemRepository inventoryItemRepository;
+
+	private String[] items; // Stock item names, in recipe order
+	private int[] perLemonade; // Units of each item used per lemonade
+	private AtomicLongArray stock; // Units available per item
+	private final AtomicBoolean changed = new AtomicBoolean(); // Stock changed since the last write
+
+	/**
+	 * Loads the stock of every recipe item from the database, creating missing
+	 * items with their initial stock.
+	 */
+	@PostConstruct
+	public void load() {
+		Map<String, Integer> recipe = properties.getRecipe();
+		items = recipe.keySet().toArray(new String[0]);
+		perLemonade = new int[items.length];
+		stock = new AtomicLongArray(items.length);
+		for (int index = 0; index < items.length; index++) {
+			perLemonade[index] = recipe.get(items[index]);
+			InventoryItemRecord record = inventoryItemRepository.findByItemName(items[index]);
+			if (record == null) {
+				record = inventoryItemRepository.save(
+						new InventoryItemRecord(items[index], properties.getInitialStock().getOrDefault(items[index], 0L)));
+			}
+			stock.set(index, record.getStock());
+		}
+	}
+
+	/**
+	 * @return A new reservation for one batch; it holds nothing when stock is not
+	 *         tracked.
+	 */
+	public StockReservation reserve() {
+		return properties.isEnabled() ? new StockReservation(this, items.length) : UNTRACKED;
+	}
+
+	/**
+	 * @return Units in stock per item, in recipe order.
+	 */
+	public Map<String, Long> getStock() {
+		Map<String, Long> levels = new LinkedHashMap<>();
+		for (int index = 0; index < items.length; index++) {
+			levels.put(items[index], stock.get(index));
+		}
+		return levels;
+	}
+
+	/**
+	 * Adds delivered stock of an item.
+	 *
+	 * @param item     The stock item.
+	 * @param quantity Units delivered.
+	 * @return Units of the item now in stock.
+	 * @throws IllegalArgumentException If the item is not in the recipe.
+	 */
+	public long restock(String item, long quantity) {
+		long level = stock.addAndGet(indexOf(item), quantity);
+		changed.set(true);
+		return level;
+	}
+
+	/**
+	 * Sets the stock of an item directly. Must not be called while batches hold
+	 * stock.
+	 *
+	 * @param item  The stock item.
+	 * @param units Units in stock.
+	 * @throws IllegalArgumentException If the item is not in the recipe.
+	 */
+	public void reset(String item, long units) {
+		stock.set(indexOf(item), units);
+		changed.set(true);
+	}
+
+	/**
+	 * Writes the stock to the database if it changed since the last write.
+	 */
+	@Scheduled(fixedDelayString = "${lemonade.inventory.flush-millis:1000}")
+	@PreDestroy
+	public void flush() {
+		if (changed.getAndSet(false)) {
+			for (int index = 0; index < items.length; index++) {
+				inventoryItemRepository.setStock(items[index], stock.get(index));
+			}
+		}
+	}
+
+	// Takes every item for the lemonades or, if one is short, puts back what was
+	// taken for them; a count below one takes nothing, so it cannot add stock
+	boolean take(long[] held, int lemonades) {
+		if (lemonades <= 0) {
+			return false;
+		}
+		for (int index = 0; index < items.length; index++) {
+			long needed = (long) perLemonade[index] * lemonades;
+			if (!tryTake(index, needed)) {
+				for (int taken = 0; taken < index; taken++) {
+					stock.addAndGet(taken, (long) perLemonade[taken] * lemonades);
+				}
+				return false;
+			}
+		}
+		for (int index = 0; index < items.length; index++) {
+			held[index] += (long) perLemonade[index] * lemonades;
+		}
+		return true;
+	}
+
+	void release(long[] held) {
+		for (int index = 0; index < items.length; index++) {
+			if (held[index] != 0) {
+				stock.addAndGet(index, held[index]);
+			}
+		}
+	}
+
+	void sold() {
+		changed.set(true);
+	}
+
+	private boolean tryTake(int index, long needed) {
+		long available;
+		do {
+			available = stock.get(index);
+			if (available < needed) {
+				return false;
+			}
+		} while (!stock.compareAndSet(index, available, available - needed));
+		return true;
+	}
+
+	private int indexOf(String item) {
+		for (int index = 0; index < items.length; index++) {
+			if (items[index].equals(item)) {
+				return index;
+			}
+		}
+		throw new IllegalArgumentException("Unknown stock item: " + item);
+	}
+}
@@ -0,0 +1,60 @@
+package com.example.lemonade_stand.inventory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for stock tracking, bound from {@code lemonade.inventory.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "lemonade.inventory")
+public class InventoryProperties {
+
+	private boolean enabled = false; // Whether orders reserve stock at all
+	private Map<String, Integer> recipe = defaultRecipe(); // Units of each stock item used per lemonade
+	private Map<String, Long> initialStock = new LinkedHashMap<>(); // Stock of items not yet in the database
+	private long flushMillis = 1000; // Interval between writes of changed stock to the database
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public Map<String, Integer> getRecipe() {
+		return recipe;
+	}
+
+	public void setRecipe(Map<String, Integer> recipe) {
+		this.recipe = recipe;
+	}
+
+	public Map<String, Long> getInitialStock() {
+		return initialStock;
+	}
+
+	public void setInitialStock(Map<String, Long> initialStock) {
+		this.initialStock = initialStock;
+	}
+
+	public long getFlushMillis() {
+		return flushMillis;
+	}
+
+	public void setFlushMillis(long flushMillis) {
+		this.flushMillis = flushMillis;
+	}
+
+	private static Map<String, Integer> defaultRecipe() {
+		Map<String, Integer> recipe = new LinkedHashMap<>();
+		recipe.put("lemonade", 1);
+		recipe.put("cup", 1);
+		recipe.put("ice", 1);
+		return recipe;
+	}
+}
@@ -0,0 +1,52 @@
+package com.example.lemonade_stand.inventory;
+
+/**
+ * Stock held out of the {@link Inventory} by one order batch. Each served
+ * order takes the stock its lemonades need; the batch then commits (the stock
+ * is sold) or releases (the stock goes back), together with its change
+ * {@link com.example.lemonade_stand.drawer.Reservation}.
+ * <p>
+ * A reservation belongs to the thread processing its batch and is not
+ * thread-safe.
+ */
+public final class StockReservation {
+
+	private final Inventory inventory; // Inventory the stock is held from, null when stock is not tracked
+	private final long[] held; // Units held per stock item
+	private boolean settled;
+
+	StockReservation(Inventory inventory, int items) {
+		this.inventory = inventory;
+		this.held = new long[items];
+	}
+
+	/**
+	 * Takes the stock needed for some lemonades, all items or none.
+	 *
+	 * @param lemonades The number of lemonades ordered.
+	 * @return True if every item was in stock.
+	 */
+	public boolean take(int lemonades) {
+		return inventory == null || (!settled && inventory.take(held, lemonades));
+	}
+
+	/**
+	 * Keeps the held stock out of the inventory for good.
+	 */
+	public void commit() {
+		if (inventory != null && !settled) {
+			settled = true;
+			inventory.sold();
+		}
+	}
+
+	/**
+	 * Puts the held stock back. Does nothing once settled.
+	 */
+	public void release() {
+		if (inventory != null && !settled) {
+			settled = true;
+			inventory.release(held);
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package com.example.lemonade_stand.lane;
+
+import java.util.Locale;
+
+/**
+ * Execution lane of an order batch. Interactive checkouts and bulk imports run
+ * on separate executors and take serving turns by weight, so bulk work cannot
+ * hold up checkouts.
+ */
+public enum Lane {
+	INTERACTIVE, // Point-of-sale checkouts of a few orders
+	BULK; // Imports and other large batches
+
+	/** Request header a client may name the lane with. */
+	public static final String HEADER = "X-Order-Lane";
+
+	/**
+	 * @param name Lane name, case insensitive, e.g. from the request header.
+	 * @return The lane, or null if there is none of that name.
+	 */
+	public static Lane fromName(String name) {
+		for (Lane lane : values()) {
+			if (lane.name().equalsIgnoreCase(name)) {
+				return lane;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return The lane name as used in the header and metric tags.
+	 */
+	public String tag() {
+		return name().toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,20 @@
+package com.example.lemonade_stand.lane;
+
+/**
+ * Thrown when a lane's executor is busy and its queue is full.
+ */
+public class LaneFullException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Lane lane; // The lane that was full
+
+	public LaneFullException(Lane lane) {
+		super("The " + lane.tag() + " lane is full, retry later.");
+		this.lane = lane;
+	}
+
+	public Lane getLane() {
+		return lane;
+	}
+}
@@ -0,0 +1,90 @@
+package com.example.lemonade_stand.lane;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the execution lanes of the order processing endpoint, bound
+ * from {@code lemonade.lanes.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "lemonade.lanes")
+public class LaneProperties {
+
+	private boolean enabled = true; // Whether batches run on lane executors rather than request threads
+	private int interactiveMaxOrders = 5; // Largest batch run in the interactive lane
+	private final Settings interactive = new Settings(16, 256, 8);
+	private final Settings bulk = new Settings(2, 8, 1);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getInteractiveMaxOrders() {
+		return interactiveMaxOrders;
+	}
+
+	public void setInteractiveMaxOrders(int interactiveMaxOrders) {
+		this.interactiveMaxOrders = interactiveMaxOrders;
+	}
+
+	public Settings getInteractive() {
+		return interactive;
+	}
+
+	public Settings getBulk() {
+		return bulk;
+	}
+
+	/**
+	 * @param lane An execution lane.
+	 * @return The settings of that lane.
+	 */
+	public Settings get(Lane lane) {
+		return lane == Lane.INTERACTIVE ? interactive : bulk;
+	}
+
+	/**
+	 * Settings of one lane.
+	 */
+	public static class Settings {
+
+		private int threads; // Executor threads running batches of the lane
+		private int queueCapacity; // Batches waiting for a thread before new ones are rejected
+		private int weight; // Share of serving turns when both lanes are waiting
+
+		Settings(int threads, int queueCapacity, int weight) {
+			this.threads = threads;
+			this.queueCapacity = queueCapacity;
+			this.weight = weight;
+		}
+
+		public int getThreads() {
+			return threads;
+		}
+
+		public void setThreads(int threads) {
+			this.threads = threads;
+		}
+
+		public int getQueueCapacity() {
+			return queueCapacity;
+		}
+
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		public int getWeight() {
+			return weight;
+		}
+
+		public void setWeight(int weight) {
+			this.weight = weight;
+		}
+	}
+}
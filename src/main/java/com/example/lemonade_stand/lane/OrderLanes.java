@@ -0,0 +1,161 @@
+package com.example.lemonade_stand.lane;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.tracing.Tracer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs order batches on a dedicated executor per {@link Lane}. Each executor
+ * has a fixed number of threads and a bounded queue; a batch arriving at a
+ * full lane is rejected with {@link LaneFullException} instead of tying up
+ * another request thread, so a burst of bulk imports holds at most its lane's
+ * threads and queue while checkouts keep their own. The request thread waits
+ * for the result, and the trace of the request continues on the lane thread.
+ */
+@Component
+public class OrderLanes {
+
+	@Autowired
+	private LaneProperties properties;
+	@Autowired
+	private Tracer tracer;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final Map<Lane, ThreadPoolExecutor> executors = new EnumMap<>(Lane.class);
+	private final Map<Lane, Timer> latency = new EnumMap<>(Lane.class);
+	private final Map<Lane, Counter> rejected = new EnumMap<>(Lane.class);
+
+	@PostConstruct
+	public void init() {
+		for (Lane lane : Lane.values()) {
+			Tags tags = Tags.of("lane", lane.tag());
+			latency.put(lane, Timer.builder("lemonade.lane.latency").tags(tags).publishPercentiles(0.5, 0.99)
+					.description("Time from submitting a batch to its lane until it was processed")
+					.register(meterRegistry));
+			rejected.put(lane, Counter.builder("lemonade.lane.rejected").tags(tags)
+					.description("Batches rejected because the lane was full").register(meterRegistry));
+			if (!properties.isEnabled()) {
+				continue;
+			}
+			LaneProperties.Settings settings = properties.get(lane);
+			AtomicInteger threadNumber = new AtomicInteger();
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(settings.getThreads(), settings.getThreads(), 0,
+					TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(settings.getQueueCapacity()), task -> {
+						Thread thread = new Thread(task, "lane-" + lane.tag() + "-" + threadNumber.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+			executors.put(lane, executor);
+			Gauge.builder("lemonade.lane.queued", executor, e -> e.getQueue().size()).tags(tags)
+					.description("Batches waiting for a lane thread").register(meterRegistry);
+			Gauge.builder("lemonade.lane.active", executor, ThreadPoolExecutor::getActiveCount).tags(tags)
+					.description("Lane threads processing a batch").register(meterRegistry);
+		}
+	}
+
+	/**
+	 * Picks the lane of a batch. A batch of more than
+	 * {@code lemonade.lanes.interactive-max-orders} orders always runs in the
+	 * bulk lane, so a mislabelled import cannot hold up checkouts; a smaller one
+	 * runs in the lane it asks for, interactive by default.
+	 *
+	 * @param requested Lane asked for by the client, or null.
+	 * @param batchSize Number of orders in the batch.
+	 * @return The lane to run the batch in.
+	 */
+	public Lane assign(Lane requested, int batchSize) {
+		if (batchSize > properties.getInteractiveMaxOrders()) {
+			return Lane.BULK;
+		}
+		return requested != null ? requested : Lane.INTERACTIVE;
+	}
+
+	/**
+	 * Runs a batch in its lane and waits for the result. Runs it on the calling
+	 * thread if lanes are disabled.
+	 *
+	 * @param lane The lane of the batch.
+	 * @param task Processes the batch.
+	 * @return The result of the task.
+	 * @throws LaneFullException If the lane's threads are busy and its queue is
+	 *                           full.
+	 */
+	public <T> T run(Lane lane, Supplier<T> task) {
+		ThreadPoolExecutor executor = executors.get(lane);
+		long start = System.nanoTime();
+		try {
+			if (executor == null) {
+				return task.get();
+			}
+			Future<T> result;
+			try {
+				result = executor.submit(tracer.propagate(task)::get);
+			} catch (RejectedExecutionException e) {
+				rejected.get(lane).increment();
+				throw new LaneFullException(lane);
+			}
+			return await(result);
+		} finally {
+			latency.get(lane).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	// Waits for the lane thread; the batch itself is not interrupted once started
+	private static <T> T await(Future<T> result) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return result.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					}
+					if (cause instanceof Error) {
+						throw (Error) cause;
+					}
+					throw new IllegalStateException(cause);
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		for (ThreadPoolExecutor executor : executors.values()) {
+			executor.shutdown();
+		}
+		for (ThreadPoolExecutor executor : executors.values()) {
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package com.example.lemonade_stand.ledger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import com.example.lemonade_stand.order.OrderOutcome;
+
+/**
+ * Ledger export in a compact columnar binary format. Rows are buffered into row
+ * groups of at most {@link #ROW_GROUP_SIZE} rows and each group is written
+ * column by column, big-endian:
+ * <ul>
+ * <li>header: the bytes {@code LLC1}</li>
+ * <li>per row group: {@code int} row count, then the columns
+ * <ul>
+ * <li>business_date: {@code int} epoch day per row</li>
+ * <li>batch_id: run-length encoded, {@code int} run count, then per run the
+ * UUID as two {@code long}s and an {@code int} run length</li>
+ * <li>position_in_batch, position_in_line: {@code int} per row</li>
+ * <li>bill_value: {@code byte} per row</li>
+ * <li>requested_lemonades, change_given: {@code int} per row</li>
+ * <li>outcome: {@code byte} {@link OrderOutcome} ordinal per row</li>
+ * <li>processed_at: {@code long} epoch millis per row</li>
+ * </ul>
+ * </li>
+ * <li>trailer: an {@code int} row count of 0, then the {@code long} total row
+ * count</li>
+ * </ul>
+ * Orders of a batch are stored next to each other, so the batch id, the widest
+ * column, shrinks to one entry per batch.
+ */
+public class ColumnarLedgerExportWriter implements LedgerExportWriter {
+
+	public static final byte[] MAGIC = { 'L', 'L', 'C', '1' };
+	public static final int ROW_GROUP_SIZE = 4096;
+
+	private static final int BUFFER_BYTES = 64 * 1024;
+
+	private final int[] epochDays = new int[ROW_GROUP_SIZE];
+	private final long[] batchIdHigh = new long[ROW_GROUP_SIZE];
+	private final long[] batchIdLow = new long[ROW_GROUP_SIZE];
+	private final int[] positionsInBatch = new int[ROW_GROUP_SIZE];
+	private final int[] positionsInLine = new int[ROW_GROUP_SIZE];
+	private final byte[] billValues = new byte[ROW_GROUP_SIZE];
+	private final int[] requestedLemonades = new int[ROW_GROUP_SIZE];
+	private final int[] changeGiven = new int[ROW_GROUP_SIZE];
+	private final byte[] outcomes = new byte[ROW_GROUP_SIZE];
+	private final long[] processedAt = new long[ROW_GROUP_SIZE];
+
+	private DataOutputStream out;
+	private int rows; // Rows buffered in the current group
+	private long totalRows;
+
+	@Override
+	public String getContentType() {
+		return "application/vnd.lemonade.ledger-columnar";
+	}
+
+	@Override
+	public String getFileExtension() {
+		return "llc";
+	}
+
+	@Override
+	public void begin(OutputStream target) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(target, BUFFER_BYTES));
+		out.write(MAGIC);
+	}
+
+	@Override
+	public void write(ResultSet row) throws SQLException, IOException {
+		epochDays[rows] = (int) row.getObject(1, LocalDate.class).toEpochDay();
+		UUID batchId = UUID.fromString(row.getString(2));
+		batchIdHigh[rows] = batchId.getMostSignificantBits();
+		batchIdLow[rows] = batchId.getLeastSignificantBits();
+		positionsInBatch[rows] = row.getInt(3);
+		positionsInLine[rows] = row.getInt(4);
+		billValues[rows] = (byte) row.getInt(5);
+		requestedLemonades[rows] = row.getInt(6);
+		changeGiven[rows] = row.getInt(7);
+		outcomes[rows] = (byte) OrderOutcome.valueOf(row.getString(8)).ordinal();
+		processedAt[rows] = row.getTimestamp(9).getTime();
+		if (++rows == ROW_GROUP_SIZE) {
+			writeRowGroup();
+		}
+	}
+
+	@Override
+	public void end() throws IOException {
+		writeRowGroup();
+		out.writeInt(0);
+		out.writeLong(totalRows);
+		out.flush();
+	}
+
+	private void writeRowGroup() throws IOException {
+		if (rows == 0) {
+			return;
+		}
+		out.writeInt(rows);
+		for (int i = 0; i < rows; i++) {
+			out.writeInt(epochDays[i]);
+		}
+		writeBatchIdRuns();
+		for (int i = 0; i < rows; i++) {
+			out.writeInt(positionsInBatch[i]);
+		}
+		for (int i = 0; i < rows; i++) {
+			out.writeInt(positionsInLine[i]);
+		}
+		out.write(billValues, 0, rows);
+		for (int i = 0; i < rows; i++) {
+			out.writeInt(requestedLemonades[i]);
+		}
+		for (int i = 0; i < rows; i++) {
+			out.writeInt(changeGiven[i]);
+		}
+		out.write(outcomes, 0, rows);
+		for (int i = 0; i < rows; i++) {
+			out.writeLong(processedAt[i]);
+		}
+		totalRows += rows;
+		rows = 0;
+	}
+
+	private void writeBatchIdRuns() throws IOException {
+		int runs = 1;
+		for (int i = 1; i < rows; i++) {
+			if (!sameBatch(i - 1, i)) {
+				runs++;
+			}
+		}
+		out.writeInt(runs);
+		int runStart = 0;
+		for (int i = 1; i <= rows; i++) {
+			if (i == rows || !sameBatch(i - 1, i)) {
+				out.writeLong(batchIdHigh[runStart]);
+				out.writeLong(batchIdLow[runStart]);
+				out.writeInt(i - runStart);
+				runStart = i;
+			}
+		}
+	}
+
+	private boolean sameBatch(int a, int b) {
+		return batchIdHigh[a] == batchIdHigh[b] && batchIdLow[a] == batchIdLow[b];
+	}
+}
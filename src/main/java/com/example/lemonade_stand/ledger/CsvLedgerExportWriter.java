@@ -0,0 +1,59 @@
+package com.example.lemonade_stand.ledger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Ledger export as RFC 4180 CSV with a header line. Every value is a date, a
+ * number, a UUID, an outcome name or a timestamp, so nothing needs quoting.
+ */
+public class CsvLedgerExportWriter implements LedgerExportWriter {
+
+	private static final int BUFFER_CHARS = 64 * 1024;
+
+	private BufferedWriter writer;
+
+	@Override
+	public String getContentType() {
+		return "text/csv";
+	}
+
+	@Override
+	public String getFileExtension() {
+		return "csv";
+	}
+
+	@Override
+	public void begin(OutputStream out) throws IOException {
+		writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+		writer.write(String.join(",", LedgerExporter.COLUMNS));
+		writer.write("\r\n");
+	}
+
+	@Override
+	public void write(ResultSet row) throws SQLException, IOException {
+		writer.write(row.getObject(1, LocalDate.class).toString());
+		writer.write(',');
+		writer.write(row.getString(2));
+		for (int column = 3; column <= 7; column++) {
+			writer.write(',');
+			writer.write(Integer.toString(row.getInt(column)));
+		}
+		writer.write(',');
+		writer.write(row.getString(8));
+		writer.write(',');
+		writer.write(row.getTimestamp(9).toInstant().toString());
+		writer.write("\r\n");
+	}
+
+	@Override
+	public void end() throws IOException {
+		writer.flush();
+	}
+}
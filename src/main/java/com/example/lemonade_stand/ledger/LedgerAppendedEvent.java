@@ -0,0 +1,28 @@
+package com.example.lemonade_stand.ledger;
+
+import java.util.List;
+
+import com.example.lemonade_stand.order.BatchProcessedEvent;
+
+/**
+ * Published by the {@link OrderLedgerWriter} after processed batches were
+ * written to the {@code order_ledger} table, on the thread that wrote them and
+ * before any later batch is written. Listeners see the ledger grow in order,
+ * one group of batches at a time.
+ */
+public class LedgerAppendedEvent {
+
+	private final List<BatchProcessedEvent> batches; // Batches just written, in ledger order
+
+	public LedgerAppendedEvent(List<BatchProcessedEvent> batches) {
+		this.batches = batches;
+	}
+
+	/**
+	 * @return The batches just written. The list is reused by the writer once the
+	 *         event was handled, so it must not be kept.
+	 */
+	public List<BatchProcessedEvent> getBatches() {
+		return batches;
+	}
+}
@@ -0,0 +1,44 @@
+package com.example.lemonade_stand.ledger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes exported ledger rows to a stream in one file format. Rows are handed
+ * over one at a time, straight from the JDBC result set, and a writer buffers
+ * at most a bounded number of them.
+ */
+public interface LedgerExportWriter {
+
+	/**
+	 * @return The content type of the format.
+	 */
+	String getContentType();
+
+	/**
+	 * @return The file extension of the format, without the dot.
+	 */
+	String getFileExtension();
+
+	/**
+	 * Starts the file.
+	 *
+	 * @param out The stream to write to.
+	 */
+	void begin(OutputStream out) throws IOException;
+
+	/**
+	 * Writes the current row of the result set; its columns are those of
+	 * {@link LedgerExporter#COLUMNS}, in that order.
+	 *
+	 * @param row The result set, positioned on the row.
+	 */
+	void write(ResultSet row) throws SQLException, IOException;
+
+	/**
+	 * Writes whatever is buffered and ends the file. Does not close the stream.
+	 */
+	void end() throws IOException;
+}
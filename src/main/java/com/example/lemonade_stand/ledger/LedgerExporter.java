@@ -0,0 +1,119 @@
+package com.example.lemonade_stand.ledger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.order.OrderOutcome;
+
+/**
+ * Streams the {@code order_ledger} rows of a date range to an export writer.
+ * Rows are read in pages with keyset pagination on (business date, id), which
+ * the {@code idx_order_ledger_day_id} index serves without sorting, and each
+ * row goes from the result set straight to the writer. Memory use is one page
+ * of the JDBC driver plus the writer's buffer, however many rows are exported.
+ */
+@Component
+public class LedgerExporter {
+
+	/** Exported columns, in order. */
+	public static final String[] COLUMNS = { "business_date", "batch_id", "position_in_batch", "position_in_line",
+			"bill_value", "requested_lemonades", "change_given", "outcome", "processed_at" };
+
+	private static final String SELECT_SQL = "SELECT " + String.join(", ", COLUMNS) + ", id FROM order_ledger"
+			+ " WHERE business_date BETWEEN ? AND ?";
+	private static final String OUTCOME_SQL = " AND outcome = ?";
+	private static final String AFTER_SQL = " AND (business_date > ? OR (business_date = ? AND id > ?))";
+	private static final String ORDER_SQL = " ORDER BY business_date, id LIMIT ?";
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Value("${lemonade.export.page-size:10000}")
+	private int pageSize; // Rows read per query and fetched per round trip
+
+	private JdbcTemplate jdbcTemplate; // Own template, so the fetch size does not leak into other queries
+
+	@PostConstruct
+	public void init() {
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.setFetchSize(pageSize);
+	}
+
+	/**
+	 * Writes every ledger row of the date range, ordered by business date and
+	 * insertion order.
+	 *
+	 * @param from    First business date, inclusive.
+	 * @param to      Last business date, inclusive.
+	 * @param outcome Only rows with this outcome, or null for all.
+	 * @param writer  Export format.
+	 * @param out     Stream to write to; flushed but not closed.
+	 * @return The number of rows written.
+	 */
+	public long export(LocalDate from, LocalDate to, OrderOutcome outcome, LedgerExportWriter writer,
+			OutputStream out) throws IOException {
+		writer.begin(out);
+		Page page = new Page();
+		try {
+			do {
+				page.rows = 0;
+				jdbcTemplate.query(pageSql(outcome, page.lastDate != null), (ResultSet row) -> {
+					try {
+						writer.write(row);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+					page.lastDate = row.getObject(1, LocalDate.class);
+					page.lastId = row.getLong(10);
+					page.rows++;
+				}, pageArgs(from, to, outcome, page));
+				page.total += page.rows;
+			} while (page.rows == pageSize);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		writer.end();
+		return page.total;
+	}
+
+	private static String pageSql(OrderOutcome outcome, boolean after) {
+		return SELECT_SQL + (outcome != null ? OUTCOME_SQL : "") + (after ? AFTER_SQL : "") + ORDER_SQL;
+	}
+
+	private Object[] pageArgs(LocalDate from, LocalDate to, OrderOutcome outcome, Page page) {
+		List<Object> args = new ArrayList<>();
+		args.add(from);
+		args.add(to);
+		if (outcome != null) {
+			args.add(outcome.name());
+		}
+		if (page.lastDate != null) {
+			args.add(page.lastDate);
+			args.add(page.lastDate);
+			args.add(page.lastId);
+		}
+		args.add(pageSize);
+		return args.toArray();
+	}
+
+	// Keyset position after the last row written, and row counts
+	private static final class Page {
+		LocalDate lastDate;
+		long lastId;
+		int rows;
+		long total;
+	}
+}
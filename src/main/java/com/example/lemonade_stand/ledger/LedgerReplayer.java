@@ -0,0 +1,126 @@
+package com.example.lemonade_stand.ledger;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.order.BatchProcessedEvent;
+import com.example.lemonade_stand.order.BillTally;
+import com.example.lemonade_stand.order.OrderBatch;
+import com.example.lemonade_stand.order.OrderOutcome;
+
+/**
+ * Reads the {@code order_ledger} table back as the batch events it was written
+ * from, in insertion order. Rows are read in pages with keyset pagination on
+ * the id, and the rows of one batch, which the writer keeps contiguous, become
+ * one event.
+ * <p>
+ * The ledger does not record which bills were handed back as change, so a
+ * replayed event has an empty {@link BatchProcessedEvent#getChangePaid()}; the
+ * change amount of each order is kept.
+ */
+@Component
+public class LedgerReplayer {
+
+	private static final String SELECT_SQL = "SELECT id, batch_id, position_in_line, bill_value,"
+			+ " requested_lemonades, change_given, outcome, processed_at FROM order_ledger"
+			+ " WHERE id > ? ORDER BY id LIMIT ?";
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Value("${lemonade.export.page-size:10000}")
+	private int pageSize; // Rows read per query and fetched per round trip
+
+	private JdbcTemplate jdbcTemplate; // Own template, so the fetch size does not leak into other queries
+
+	@PostConstruct
+	public void init() {
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.setFetchSize(pageSize);
+	}
+
+	/**
+	 * Passes every batch in the ledger to the consumer, oldest first.
+	 *
+	 * @param consumer Receives each replayed batch.
+	 * @return The number of batches replayed.
+	 */
+	public long replay(Consumer<BatchProcessedEvent> consumer) {
+		BatchRows current = new BatchRows();
+		do {
+			current.pageRows = 0;
+			jdbcTemplate.query(SELECT_SQL, (ResultSet row) -> {
+				String batchId = row.getString(2);
+				if (current.batchId != null && !current.batchId.equals(batchId)) {
+					consumer.accept(current.toEvent());
+				}
+				current.add(batchId, row);
+			}, current.lastId, pageSize);
+		} while (current.pageRows == pageSize);
+		if (current.batchId != null) {
+			consumer.accept(current.toEvent());
+		}
+		return current.replayed;
+	}
+
+	// Rows of the batch being read, the keyset position and the batches passed on
+	private static final class BatchRows {
+		String batchId;
+		final List<int[]> orders = new ArrayList<>(); // Line position, bill, lemonades and change of each order
+		final List<OrderOutcome> outcomes = new ArrayList<>();
+		Instant processedAt;
+		long lastId;
+		int pageRows;
+		long replayed;
+
+		void add(String batchId, ResultSet row) throws SQLException {
+			this.batchId = batchId;
+			lastId = row.getLong(1);
+			pageRows++;
+			orders.add(new int[] { row.getInt(3), row.getInt(4), row.getInt(5), row.getInt(6) });
+			outcomes.add(OrderOutcome.valueOf(row.getString(7)));
+			processedAt = row.getTimestamp(8).toInstant();
+		}
+
+		BatchProcessedEvent toEvent() {
+			int size = orders.size();
+			OrderBatch batch = new OrderBatch(size);
+			int[] changeGiven = new int[size];
+			boolean committed = true;
+			int lemonadesSold = 0;
+			BillTally billsCollected = new BillTally();
+			for (int i = 0; i < size; i++) {
+				int[] order = orders.get(i);
+				batch.set(i, order[1], order[0], order[2]);
+				changeGiven[i] = order[3];
+				committed &= outcomes.get(i) == OrderOutcome.SOLD;
+			}
+			if (committed) {
+				for (int i = 0; i < size; i++) {
+					lemonadesSold += batch.getRequestedLemonades(i);
+					billsCollected.add(batch.getBillValue(i), 1);
+				}
+			}
+			replayed++;
+			BatchProcessedEvent event = new BatchProcessedEvent(batchId, batch, changeGiven,
+					outcomes.toArray(new OrderOutcome[size]), committed, lemonadesSold, billsCollected, new BillTally(),
+					processedAt);
+			orders.clear();
+			outcomes.clear();
+			batchId = null;
+			return event;
+		}
+	}
+}
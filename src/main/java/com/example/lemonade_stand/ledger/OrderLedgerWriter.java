@@ -0,0 +1,286 @@
+package com.example.lemonade_stand.ledger;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.lemonade_stand.order.BatchProcessedEvent;
+import com.example.lemonade_stand.order.OrderBatch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Writes every processed order to the {@code order_ledger} table off the
+ * request path. Request threads only enqueue the batch event; a single writer
+ * thread drains the queue and inserts all orders of the drained batches with
+ * one JDBC batch insert. After each successful insert a
+ * {@link LedgerAppendedEvent} announces the batches now in the ledger.
+ * <p>
+ * Each group is inserted in one transaction, so a failed insert leaves no rows
+ * behind and is retried with a doubling backoff. Batches are dropped and
+ * counted by {@code lemonade.ledger.dropped} if every attempt fails, or if the
+ * queue is full when they arrive.
+ */
+@Component
+public class OrderLedgerWriter {
+
+	private static final Logger log = LoggerFactory.getLogger(OrderLedgerWriter.class);
+
+	private static final String INSERT_SQL = "INSERT INTO order_ledger (business_date, batch_id, position_in_batch,"
+			+ " position_in_line, bill_value, requested_lemonades, change_given, outcome, processed_at)"
+			+ " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+	private static final String DROP_DAYS_SQL = "DELETE FROM order_ledger WHERE business_date < ?";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	@Autowired
+	private MeterRegistry meterRegistry;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${lemonade.ledger.queue-capacity:10000}")
+	private int queueCapacity; // Batches buffered before new ones are dropped
+	@Value("${lemonade.ledger.max-batches-per-write:500}")
+	private int maxBatchesPerWrite; // Batches combined into one JDBC batch insert
+	@Value("${lemonade.ledger.retention-days:0}")
+	private int retentionDays; // Days of ledger kept, 0 to keep everything
+	@Value("${lemonade.ledger.write-attempts:5}")
+	private int writeAttempts; // Inserts tried before a group of batches is dropped
+	@Value("${lemonade.ledger.retry-backoff-millis:50}")
+	private long retryBackoffMillis; // Wait before the first retry, doubled for each later one
+
+	private final ZoneId zone = ZoneId.systemDefault(); // Zone defining the business date
+	private final AtomicLong enqueuedBatches = new AtomicLong();
+	private final AtomicLong writtenBatches = new AtomicLong();
+	private final Object writeLock = new Object(); // Held while writing and announcing a group of batches
+	private BlockingQueue<BatchProcessedEvent> queue;
+	private Thread writerThread;
+	private volatile boolean running;
+	private volatile boolean queueFull; // Set once a batch is dropped, so a full queue logs once
+	private Counter droppedBatches;
+	private TransactionTemplate transactionTemplate;
+
+	@PostConstruct
+	public void start() {
+		droppedBatches = Counter.builder("lemonade.ledger.dropped").description("Batches never written to the ledger")
+				.register(meterRegistry);
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		queue = new ArrayBlockingQueue<>(queueCapacity);
+		running = true;
+		writerThread = new Thread(this::drainQueue, "order-ledger-writer");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/**
+	 * Queues a processed batch for the ledger. The calling thread never writes or
+	 * waits: if the queue is full the batch is dropped and counted instead.
+	 *
+	 * @param event The processed batch.
+	 */
+	@EventListener
+	public void onBatchProcessed(BatchProcessedEvent event) {
+		if (queue.offer(event)) {
+			enqueuedBatches.incrementAndGet();
+			queueFull = false;
+		} else {
+			droppedBatches.increment();
+			if (!queueFull) {
+				queueFull = true;
+				log.warn("Order ledger queue is full, dropping batches until the writer catches up");
+			}
+		}
+	}
+
+	/**
+	 * Waits until every batch queued so far has been written.
+	 *
+	 * @param timeoutMillis Maximum time to wait.
+	 * @return True if the ledger caught up within the timeout.
+	 */
+	public boolean flush(long timeoutMillis) throws InterruptedException {
+		long target = enqueuedBatches.get();
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		while (writtenBatches.get() < target) {
+			if (System.nanoTime() > deadline) {
+				return false;
+			}
+			Thread.sleep(1);
+		}
+		return true;
+	}
+
+	/**
+	 * Runs an action while no batch is being written, e.g. to read the ledger and
+	 * know that every batch written later is announced afterwards.
+	 *
+	 * @param action The action to run.
+	 * @return The result of the action.
+	 */
+	public <T> T whileWritesPaused(Supplier<T> action) {
+		synchronized (writeLock) {
+			return action.get();
+		}
+	}
+
+	/**
+	 * Drops every ledger day strictly before the given date.
+	 *
+	 * @param firstKeptDay The oldest business date to keep.
+	 * @return The number of rows removed.
+	 */
+	public int dropDaysBefore(LocalDate firstKeptDay) {
+		return jdbcTemplate.update(DROP_DAYS_SQL, firstKeptDay);
+	}
+
+	/**
+	 * Applies the configured retention shortly after midnight.
+	 */
+	@Scheduled(cron = "${lemonade.ledger.retention-cron:0 5 0 * * *}")
+	public void applyRetention() {
+		if (retentionDays > 0) {
+			int removed = dropDaysBefore(LocalDate.now(zone).minusDays(retentionDays));
+			log.info("Dropped {} order ledger rows older than {} days", removed, retentionDays);
+		}
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		writerThread.join(TimeUnit.SECONDS.toMillis(10));
+	}
+
+	// Writer thread loop: block for the first batch, then take whatever else is queued
+	private void drainQueue() {
+		List<BatchProcessedEvent> pending = new ArrayList<>();
+		while (running || !queue.isEmpty()) {
+			try {
+				BatchProcessedEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				pending.add(first);
+				queue.drainTo(pending, maxBatchesPerWrite - 1);
+				write(pending);
+				pending.clear();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	// Writes the given batches, retrying a failed insert with a doubling backoff
+	// that is waited out without holding the write lock
+	private void write(List<BatchProcessedEvent> events) {
+		try {
+			long backoffMillis = retryBackoffMillis;
+			for (int attempt = 1;; attempt++) {
+				if (insertAndAnnounce(events)) {
+					return;
+				}
+				if (attempt >= writeAttempts) {
+					break;
+				}
+				try {
+					Thread.sleep(backoffMillis);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+				backoffMillis *= 2;
+			}
+			droppedBatches.increment(events.size());
+			log.error("Dropped {} order batches after failed ledger writes", events.size());
+		} finally {
+			writtenBatches.addAndGet(events.size());
+		}
+	}
+
+	// Inserts every order of the given batches with a single JDBC batch, then
+	// announces them; writes are serialised, so a batch's rows are contiguous
+	private boolean insertAndAnnounce(List<BatchProcessedEvent> events) {
+		synchronized (writeLock) {
+			if (!insert(events)) {
+				return false;
+			}
+			eventPublisher.publishEvent(new LedgerAppendedEvent(events));
+			return true;
+		}
+	}
+
+	// Inserts in one transaction; returns false if the insert failed and
+	// nothing was written
+	private boolean insert(List<BatchProcessedEvent> events) {
+		int totalRows = 0;
+		for (BatchProcessedEvent event : events) {
+			totalRows += event.getBatch().size();
+		}
+		int rows = totalRows;
+
+		try {
+			transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+				private int eventIndex; // Event holding the next row
+				private int orderIndex; // Order of that event for the next row
+
+				@Override
+				public void setValues(PreparedStatement ps, int i) throws SQLException {
+					BatchProcessedEvent event = events.get(eventIndex);
+					while (orderIndex >= event.getBatch().size()) {
+						event = events.get(++eventIndex);
+						orderIndex = 0;
+					}
+					OrderBatch batch = event.getBatch();
+					ps.setObject(1, LocalDate.ofInstant(event.getProcessedAt(), zone));
+					ps.setString(2, event.getBatchId());
+					ps.setInt(3, orderIndex);
+					ps.setInt(4, batch.getPositionInLine(orderIndex));
+					ps.setInt(5, batch.getBillValue(orderIndex));
+					ps.setInt(6, batch.getRequestedLemonades(orderIndex));
+					ps.setInt(7, event.getChangeGiven(orderIndex));
+					ps.setString(8, event.getOutcome(orderIndex).name());
+					ps.setTimestamp(9, Timestamp.from(event.getProcessedAt()));
+					orderIndex++;
+				}
+
+				@Override
+				public int getBatchSize() {
+					return rows;
+				}
+			}));
+		} catch (DataAccessException e) {
+			log.warn("Failed to write {} order batches to the ledger", events.size(), e);
+			return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,33 @@
+package com.example.lemonade_stand.order;
+
+/**
+ * The in-memory side of committing a batch, settled with the database
+ * transaction that writes it. {@link #prepare} runs inside the transaction and
+ * holds everything the batch needs; exactly one of {@link #committed} or
+ * {@link #rolledBack} follows once the transaction has completed, so memory
+ * only changes for a batch the database has kept.
+ */
+@FunctionalInterface
+public interface BatchCommit {
+
+	/**
+	 * Checks the batch may commit and holds what it commits, so nothing can take
+	 * it away before the transaction completes.
+	 *
+	 * @return False if the batch cannot commit; nothing is held then.
+	 */
+	boolean prepare();
+
+	/**
+	 * Applies the prepared batch once the transaction has committed.
+	 */
+	default void committed() {
+	}
+
+	/**
+	 * Gives back what the prepared batch held once the transaction has rolled
+	 * back.
+	 */
+	default void rolledBack() {
+	}
+}
@@ -0,0 +1,71 @@
+package com.example.lemonade_stand.order;
+
+import java.time.Instant;
+
+/**
+ * Published once for every processed order batch, whether it was committed or
+ * failed. Per-order details are indexed by the order's position in the
+ * request, like {@link OrderBatch}.
+ */
+public class BatchProcessedEvent {
+
+	private final String batchId; // Unique identifier of the batch
+	private final OrderBatch batch; // The orders as received
+	private final int[] changeGiven; // Change handed back for each order
+	private final OrderOutcome[] outcomes; // Outcome of each order
+	private final boolean committed; // Whether the batch was committed
+	private final int lemonadesSold; // Lemonades sold by the batch, 0 if it failed
+	private final BillTally billsCollected; // Bills taken from customers by committed orders
+	private final BillTally changePaid; // Bills handed back as change by committed orders
+	private final Instant processedAt; // When processing finished
+
+	public BatchProcessedEvent(String batchId, OrderBatch batch, int[] changeGiven, OrderOutcome[] outcomes,
+			boolean committed, int lemonadesSold, BillTally billsCollected, BillTally changePaid,
+			Instant processedAt) {
+		this.batchId = batchId;
+		this.batch = batch;
+		this.changeGiven = changeGiven;
+		this.outcomes = outcomes;
+		this.committed = committed;
+		this.lemonadesSold = lemonadesSold;
+		this.billsCollected = billsCollected;
+		this.changePaid = changePaid;
+		this.processedAt = processedAt;
+	}
+
+	public String getBatchId() {
+		return batchId;
+	}
+
+	public OrderBatch getBatch() {
+		return batch;
+	}
+
+	public int getChangeGiven(int index) {
+		return changeGiven[index];
+	}
+
+	public OrderOutcome getOutcome(int index) {
+		return outcomes[index];
+	}
+
+	public boolean isCommitted() {
+		return committed;
+	}
+
+	public int getLemonadesSold() {
+		return lemonadesSold;
+	}
+
+	public BillTally getBillsCollected() {
+		return billsCollected;
+	}
+
+	public BillTally getChangePaid() {
+		return changePaid;
+	}
+
+	public Instant getProcessedAt() {
+		return processedAt;
+	}
+}
@@ -0,0 +1,116 @@
+package com.example.lemonade_stand.order;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import com.example.lemonade_stand.util.AppConstants;
+
+/**
+ * Count of bills per denomination left over from an order batch. Large batches
+ * leave tens of thousands of bills, so the tally is rendered straight to an
+ * output stream, either in the legacy expanded form ({@code [5, 5, 20]}) or as
+ * counts ({@code {"5":2,"10":0,"20":1}}), without building an intermediate
+ * list.
+ */
+public final class BillTally {
+
+	// Denominations in the order the expanded form has always listed them, which
+	// is the iteration order of the HashMap the response used to be built from
+	private static final int[] EXPANDED_ORDER = { 20, 5, 10 };
+	private static final int CHUNK_SIZE = 8192; // Bytes buffered per write to the stream
+
+	private final int[] counts = new int[AppConstants.BILL_DENOMINATIONS.size()];
+
+	/**
+	 * Adds bills of the given denomination to the tally.
+	 *
+	 * @param denomination The bill denomination.
+	 * @param count        The number of bills to add.
+	 */
+	public void add(int denomination, int count) {
+		counts[AppConstants.BILL_DENOMINATIONS.indexOf(denomination)] += count;
+	}
+
+	/**
+	 * @param denomination The bill denomination.
+	 * @return The number of bills of that denomination.
+	 */
+	public int getCount(int denomination) {
+		return counts[AppConstants.BILL_DENOMINATIONS.indexOf(denomination)];
+	}
+
+	/**
+	 * @return The total number of bills in the tally.
+	 */
+	public long totalBills() {
+		long total = 0;
+		for (int count : counts) {
+			total += count;
+		}
+		return total;
+	}
+
+	/**
+	 * Writes the legacy expanded form, one entry per bill, e.g. {@code [20, 5, 5]}.
+	 *
+	 * @param out The stream to write to.
+	 * @throws IOException If writing to the stream fails.
+	 */
+	public void writeExpanded(OutputStream out) throws IOException {
+		byte[] chunk = new byte[CHUNK_SIZE];
+		int length = 0;
+		boolean first = true;
+		chunk[length++] = '[';
+
+		for (int denomination : EXPANDED_ORDER) {
+			byte[] token = Integer.toString(denomination).getBytes(StandardCharsets.US_ASCII);
+			for (int i = getCount(denomination); i > 0; i--) {
+				if (length + token.length + 3 > CHUNK_SIZE) {
+					out.write(chunk, 0, length);
+					length = 0;
+				}
+				if (!first) {
+					chunk[length++] = ',';
+					chunk[length++] = ' ';
+				}
+				System.arraycopy(token, 0, chunk, length, token.length);
+				length += token.length;
+				first = false;
+			}
+		}
+
+		chunk[length++] = ']';
+		out.write(chunk, 0, length);
+	}
+
+	/**
+	 * Writes the count form as a JSON object keyed by denomination, e.g.
+	 * {@code {"5":2,"10":0,"20":1}}.
+	 *
+	 * @param out The stream to write to.
+	 * @throws IOException If writing to the stream fails.
+	 */
+	public void writeCounts(OutputStream out) throws IOException {
+		StringBuilder json = new StringBuilder("{");
+		for (int i = 0; i < counts.length; i++) {
+			json.append(i == 0 ? "\"" : ",\"").append(AppConstants.BILL_DENOMINATIONS.get(i)).append("\":")
+					.append(counts[i]);
+		}
+		out.write(json.append('}').toString().getBytes(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * @return The legacy expanded form, e.g. {@code [20, 5, 5]}.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("[");
+		for (int denomination : EXPANDED_ORDER) {
+			for (int i = getCount(denomination); i > 0; i--) {
+				result.append(result.length() == 1 ? "" : ", ").append(denomination);
+			}
+		}
+		return result.append(']').toString();
+	}
+}
@@ -0,0 +1,78 @@
+package com.example.lemonade_stand.order;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.example.lemonade_stand.exception_handler.InvalidOrderException;
+
+/**
+ * Compact binary wire format for order batches, accepted on
+ * {@code /api/orders/process} alongside JSON.
+ * <p>
+ * All values are little-endian 32-bit integers. A payload starts with an
+ * 8-byte header (format version, record count) followed by one fixed-width
+ * 12-byte record per order: bill value, position in line, requested
+ * lemonades.
+ */
+public final class BinaryOrderCodec {
+
+	// Prevent instantiation
+	private BinaryOrderCodec() {
+		throw new UnsupportedOperationException("Cannot instantiate a codec utility class.");
+	}
+
+	public static final String CONTENT_TYPE = "application/x-lemonade-orders";
+	public static final int FORMAT_VERSION = 1;
+	public static final int HEADER_BYTES = 8;
+	public static final int RECORD_BYTES = 12;
+
+	/**
+	 * Decodes a binary payload straight into a primitive-array batch. Field values
+	 * are not validated here; see {@link OrderBatchValidator}.
+	 *
+	 * @param payload The request body.
+	 * @return The decoded batch.
+	 * @throws InvalidOrderException If the payload is not a well-formed batch.
+	 */
+	public static OrderBatch decode(ByteBuffer payload) {
+		ByteBuffer buffer = payload.order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.remaining() < HEADER_BYTES) {
+			throw new InvalidOrderException("Invalid binary batch: payload shorter than header.");
+		}
+
+		int version = buffer.getInt();
+		int count = buffer.getInt();
+		if (version != FORMAT_VERSION) {
+			throw new InvalidOrderException("Invalid binary batch: unsupported format version " + version + ".");
+		}
+		if (count < 0 || (long) count * RECORD_BYTES != buffer.remaining()) {
+			throw new InvalidOrderException(
+					"Invalid binary batch: expected " + count + " records but got " + buffer.remaining() + " bytes.");
+		}
+
+		OrderBatch batch = new OrderBatch(count);
+		for (int i = 0; i < count; i++) {
+			batch.set(i, buffer.getInt(), buffer.getInt(), buffer.getInt());
+		}
+		return batch;
+	}
+
+	/**
+	 * Encodes a batch into the binary wire format.
+	 *
+	 * @param batch The batch to encode.
+	 * @return The encoded payload.
+	 */
+	public static byte[] encode(OrderBatch batch) {
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + batch.size() * RECORD_BYTES)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(FORMAT_VERSION);
+		buffer.putInt(batch.size());
+		for (int i = 0; i < batch.size(); i++) {
+			buffer.putInt(batch.getBillValue(i));
+			buffer.putInt(batch.getPositionInLine(i));
+			buffer.putInt(batch.getRequestedLemonades(i));
+		}
+		return buffer.array();
+	}
+}
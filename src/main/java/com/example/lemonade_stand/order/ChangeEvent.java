@@ -0,0 +1,27 @@
+package com.example.lemonade_stand.order;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for working out the change of one order.
+ */
+@Name(ChangeEvent.NAME)
+@Label("Change Computation")
+@Category({ "Lemonade Stand", "Orders" })
+@Description("Handing back the change of one order, from bills of the batch or the drawer")
+@StackTrace(false)
+public final class ChangeEvent extends jdk.jfr.Event {
+
+	public static final String NAME = "lemonade.Change";
+
+	@Label("Bill Value")
+	int billValue;
+	@Label("Change Required")
+	int changeRequired;
+	@Label("Succeeded")
+	boolean succeeded;
+}
@@ -1,6 +1,6 @@
 package com.example.lemonade_stand.order;
 
-import com.example.lemonade_stand.exception_handler.InvalidOrderException;
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 public class CustomerOrder {
@@ -9,34 +9,22 @@ public class CustomerOrder {
 	private final int billValue; // The value of the bill used to pay for the order
 	private final int positionInLine; // The customer's position in line
 	private final int requestedLemonades; // The number of lemonades requested
+	private final String orderId; // Optional client id of the order, used to reject replays
 
-	// Allowed bill values
-	private static final int[] VALID_BILLS = { 5, 10, 20 };
+	// Constructor to initialize a CustomerOrder object. Bill values are not
+	// checked here; OrderBatchValidator validates the whole batch in one pass.
+	public CustomerOrder(int billValue, int positionInLine, int requestedLemonades) {
+		this(billValue, positionInLine, requestedLemonades, null);
+	}
 
-	// Constructor to initialize a CustomerOrder object
+	@JsonCreator
 	public CustomerOrder(@JsonProperty("bill_value") int billValue,
 			@JsonProperty("position_in_line") int positionInLine,
-			@JsonProperty("requested_lemonades") int requestedLemonades) {
-
-		// Validate the bill value; throw an exception if invalid
-		if (!isValidBill(billValue)) {
-			throw new InvalidOrderException("Invalid bill value: " + billValue + ". Accepted values are 5, 10, or 20.");
-		}
-
+			@JsonProperty("requested_lemonades") int requestedLemonades, @JsonProperty("order_id") String orderId) {
 		this.billValue = billValue;
 		this.positionInLine = positionInLine;
 		this.requestedLemonades = requestedLemonades;
-	}
-
-	// Method to check if the provided bill value is valid
-	private boolean isValidBill(int billValue) {
-		// Iterate through the valid bills to check if the provided bill is valid
-		for (int validBill : VALID_BILLS) {
-			if (validBill == billValue) {
-				return true; // Return true if a valid bill is found
-			}
-		}
-		return false; // Return false if no valid bill is found
+		this.orderId = orderId;
 	}
 
 	// Getters to access private variables
@@ -52,6 +40,10 @@ public class CustomerOrder {
 		return requestedLemonades;
 	}
 
+	public String getOrderId() {
+		return orderId;
+	}
+
 	// Override the toString method for easy logging and debugging
 	@Override
 	public String toString() {
@@ -0,0 +1,129 @@
+package com.example.lemonade_stand.order;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Column-oriented view of an order batch. Order fields are kept in primitive
+ * arrays indexed by the order's position in the request, so large batches can
+ * be decoded and processed without creating one object per order.
+ */
+public final class OrderBatch {
+
+	private final int size; // Number of orders in the batch
+	private final int[] billValues; // Bill handed over by each customer
+	private final int[] positionsInLine; // Each customer's position in line
+	private final int[] requestedLemonades; // Lemonades requested by each customer
+	private String[] orderIds; // Client order ids, allocated when the first one is set
+
+	/**
+	 * Creates an empty batch with room for the given number of orders.
+	 *
+	 * @param size The number of orders in the batch.
+	 */
+	public OrderBatch(int size) {
+		this.size = size;
+		this.billValues = new int[size];
+		this.positionsInLine = new int[size];
+		this.requestedLemonades = new int[size];
+	}
+
+	/**
+	 * Copies a list of customer orders into a batch, keeping request order.
+	 *
+	 * @param orders List of customer orders, must not contain null entries.
+	 * @return The batch holding the same orders.
+	 */
+	public static OrderBatch fromOrders(List<CustomerOrder> orders) {
+		OrderBatch batch = new OrderBatch(orders.size());
+		for (int i = 0; i < batch.size; i++) {
+			CustomerOrder order = orders.get(i);
+			batch.set(i, order.getBillValue(), order.getPositionInLine(), order.getRequestedLemonades());
+			if (order.getOrderId() != null) {
+				batch.setOrderId(i, order.getOrderId());
+			}
+		}
+		return batch;
+	}
+
+	/**
+	 * Stores the fields of a single order.
+	 *
+	 * @param index              Position of the order within the request.
+	 * @param billValue          The value of the bill used to pay.
+	 * @param positionInLine     The customer's position in line.
+	 * @param requestedLemonades The number of lemonades requested.
+	 */
+	public void set(int index, int billValue, int positionInLine, int requestedLemonades) {
+		billValues[index] = billValue;
+		positionsInLine[index] = positionInLine;
+		this.requestedLemonades[index] = requestedLemonades;
+	}
+
+	/**
+	 * Stores the client's id of a single order, used to detect replays.
+	 *
+	 * @param index   Position of the order within the request.
+	 * @param orderId The client's order id.
+	 */
+	public void setOrderId(int index, String orderId) {
+		if (orderIds == null) {
+			orderIds = new String[size];
+		}
+		orderIds[index] = orderId;
+	}
+
+	/**
+	 * Returns the request indexes sorted by position in line. Orders sharing a
+	 * position keep their request order, matching a stable sort of the original
+	 * list.
+	 *
+	 * @return Request indexes in the order customers should be served.
+	 */
+	public int[] indexesInLineOrder() {
+		// Pack position (high bits) and request index (low bits) so a single
+		// primitive sort yields a stable ordering
+		long[] keys = new long[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = ((long) positionsInLine[i] << 32) | i;
+		}
+		Arrays.sort(keys);
+
+		int[] indexes = new int[size];
+		for (int i = 0; i < size; i++) {
+			indexes[i] = (int) keys[i];
+		}
+		return indexes;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getBillValue(int index) {
+		return billValues[index];
+	}
+
+	public int getPositionInLine(int index) {
+		return positionsInLine[index];
+	}
+
+	public int getRequestedLemonades(int index) {
+		return requestedLemonades[index];
+	}
+
+	/**
+	 * @return True if any order of the batch carries an order id.
+	 */
+	public boolean hasOrderIds() {
+		return orderIds != null;
+	}
+
+	/**
+	 * @param index Position of the order within the request.
+	 * @return The client's order id, or null if none was given.
+	 */
+	public String getOrderId(int index) {
+		return orderIds != null ? orderIds[index] : null;
+	}
+}
@@ -0,0 +1,29 @@
+package com.example.lemonade_stand.order;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one order batch, from admission to commit or failure.
+ */
+@Name(OrderBatchEvent.NAME)
+@Label("Order Batch")
+@Category({ "Lemonade Stand", "Orders" })
+@Description("Processing of one order batch")
+@StackTrace(false)
+public final class OrderBatchEvent extends jdk.jfr.Event {
+
+	public static final String NAME = "lemonade.OrderBatch";
+
+	@Label("Batch Id")
+	String batchId;
+	@Label("Orders")
+	int orders;
+	@Label("Lane")
+	String lane;
+	@Label("Committed")
+	boolean committed;
+}
@@ -0,0 +1,65 @@
+package com.example.lemonade_stand.order;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.exception_handler.OrderViolation;
+
+/**
+ * Validates the bills and requested lemonades of a whole order batch in a
+ * single pass. Every invalid order is collected together with its index in the
+ * request, so a rejected batch costs one structured response instead of one
+ * exception per order.
+ */
+@Component
+public class OrderBatchValidator {
+
+	// Allowed bill values
+	private static final int[] VALID_BILLS = { 5, 10, 20 };
+
+	/**
+	 * Validates every order of the batch.
+	 *
+	 * @param batch The batch to validate.
+	 * @return The violations found, empty if the batch is valid.
+	 */
+	public List<OrderViolation> validate(OrderBatch batch) {
+		List<OrderViolation> violations = null; // Allocated only once a violation is found
+
+		for (int i = 0; i < batch.size(); i++) {
+			int billValue = batch.getBillValue(i);
+			if (!isValidBill(billValue)) {
+				violations = add(violations, new OrderViolation(i, "bill_value", billValue,
+						"Invalid bill value: " + billValue + ". Accepted values are 5, 10, or 20."));
+			}
+			int requestedLemonades = batch.getRequestedLemonades(i);
+			if (requestedLemonades < 0) {
+				violations = add(violations, new OrderViolation(i, "requested_lemonades", requestedLemonades,
+						"Invalid requested lemonades: " + requestedLemonades + ". It must not be negative."));
+			}
+		}
+		return violations != null ? violations : Collections.emptyList();
+	}
+
+	private static List<OrderViolation> add(List<OrderViolation> violations, OrderViolation violation) {
+		if (violations == null) {
+			violations = new ArrayList<>();
+		}
+		violations.add(violation);
+		return violations;
+	}
+
+	// Method to check if the provided bill value is valid
+	static boolean isValidBill(int billValue) {
+		// Iterate through the valid bills to check if the provided bill is valid
+		for (int validBill : VALID_BILLS) {
+			if (validBill == billValue) {
+				return true; // Return true if a valid bill is found
+			}
+		}
+		return false; // Return false if no valid bill is found
+	}
+}
@@ -0,0 +1,186 @@
+package com.example.lemonade_stand.order;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.exception_handler.OrderViolation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Rejects duplicate orders without a database lookup:
+ * <ul>
+ * <li>within a batch, two orders may not share a position in line, checked
+ * with a bit set over the range of positions;</li>
+ * <li>across batches, an order id may not be committed twice, checked against
+ * a {@link RotatingBloomFilter} of the ids of recently committed orders.</li>
+ * </ul>
+ * Ids are looked up when the batch is validated, so a replayed batch is turned
+ * away before it touches the drawer, and claimed as the batch commits, so two
+ * copies racing through validation cannot both commit. Claimed ids are only
+ * remembered once the batch's transaction has committed; ids of a batch that
+ * fails or rolls back are not remembered and the batch may be retried.
+ */
+@Component
+public class OrderDeduplicator {
+
+	// Positions spanning more than this many slots per order use a sort instead
+	// of a bit set
+	private static final int MAX_SLOTS_PER_ORDER = 64;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${lemonade.dedup.recent-orders:1000000}")
+	private int recentOrders; // Order ids per filter generation
+	@Value("${lemonade.dedup.false-positive-rate:0.001}")
+	private double falsePositiveRate; // Chance a new order id is taken for a replay
+
+	private RotatingBloomFilter committedIds;
+	private final Set<String> claimedIds = new HashSet<>(); // Ids of batches committing now
+
+	@PostConstruct
+	public void init() {
+		committedIds = new RotatingBloomFilter(recentOrders, falsePositiveRate);
+		Gauge.builder("lemonade.dedup.filter.bytes", committedIds, RotatingBloomFilter::sizeInBytes)
+				.register(meterRegistry);
+		Gauge.builder("lemonade.dedup.filter.rotations", this, OrderDeduplicator::getRotations)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Finds orders repeating a position in line or an order id of the same batch,
+	 * or an order id already committed. The first order holding a position or id
+	 * is kept; each later one is reported.
+	 *
+	 * @param batch The batch to check.
+	 * @return The duplicates found, empty if there are none.
+	 */
+	public List<OrderViolation> findDuplicates(OrderBatch batch) {
+		List<OrderViolation> violations = new ArrayList<>();
+		findDuplicatePositions(batch, violations);
+		if (batch.hasOrderIds()) {
+			Set<String> seen = new HashSet<>();
+			for (int i = 0; i < batch.size(); i++) {
+				String orderId = batch.getOrderId(i);
+				if (orderId == null) {
+					continue;
+				}
+				if (!seen.add(orderId)) {
+					violations.add(new OrderViolation(i, "order_id", orderId,
+							"Duplicate order id: " + orderId + " appears earlier in the batch."));
+				} else if (wasCommitted(orderId)) {
+					violations.add(new OrderViolation(i, "order_id", orderId,
+							"Duplicate order id: " + orderId + " was already processed."));
+				}
+			}
+		}
+		return violations.isEmpty() ? Collections.emptyList() : violations;
+	}
+
+	/**
+	 * Claims the order ids of a committing batch, unless one was committed
+	 * already or is claimed by another batch committing now. A claim is settled
+	 * with {@link #settle} once the batch's transaction has completed.
+	 *
+	 * @param batch The committing batch.
+	 * @return False if an order id was already committed or claimed; nothing is
+	 *         claimed then.
+	 */
+	public boolean claim(OrderBatch batch) {
+		if (!batch.hasOrderIds()) {
+			return true;
+		}
+		synchronized (this) {
+			for (int i = 0; i < batch.size(); i++) {
+				String orderId = batch.getOrderId(i);
+				if (orderId != null && (committedIds.mightContain(orderId) || claimedIds.contains(orderId))) {
+					return false;
+				}
+			}
+			for (int i = 0; i < batch.size(); i++) {
+				String orderId = batch.getOrderId(i);
+				if (orderId != null) {
+					claimedIds.add(orderId);
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Settles a claim made by {@link #claim}: remembers the ids if the batch
+	 * committed, or frees them for a retry if it did not.
+	 *
+	 * @param batch     The batch whose ids were claimed.
+	 * @param committed True if the batch's transaction committed.
+	 */
+	public void settle(OrderBatch batch, boolean committed) {
+		if (!batch.hasOrderIds()) {
+			return;
+		}
+		synchronized (this) {
+			for (int i = 0; i < batch.size(); i++) {
+				String orderId = batch.getOrderId(i);
+				if (orderId != null && claimedIds.remove(orderId) && committed) {
+					committedIds.add(orderId);
+				}
+			}
+		}
+	}
+
+	private synchronized boolean wasCommitted(String orderId) {
+		return committedIds.mightContain(orderId);
+	}
+
+	private synchronized long getRotations() {
+		return committedIds.getRotations();
+	}
+
+	// Marks each position in a bit set offset by the smallest position; sparse
+	// positions fall back to checking neighbours in line order
+	private static void findDuplicatePositions(OrderBatch batch, List<OrderViolation> violations) {
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		for (int i = 0; i < batch.size(); i++) {
+			min = Math.min(min, batch.getPositionInLine(i));
+			max = Math.max(max, batch.getPositionInLine(i));
+		}
+		long range = (long) max - min + 1;
+		if (range <= (long) batch.size() * MAX_SLOTS_PER_ORDER) {
+			BitSet taken = new BitSet((int) range);
+			for (int i = 0; i < batch.size(); i++) {
+				int slot = batch.getPositionInLine(i) - min;
+				if (taken.get(slot)) {
+					violations.add(duplicatePosition(i, batch.getPositionInLine(i)));
+				}
+				taken.set(slot);
+			}
+			return;
+		}
+		int[] lineOrder = batch.indexesInLineOrder(); // Stable, so the later order follows
+		for (int i = 1; i < lineOrder.length; i++) {
+			int position = batch.getPositionInLine(lineOrder[i]);
+			if (position == batch.getPositionInLine(lineOrder[i - 1])) {
+				violations.add(duplicatePosition(lineOrder[i], position));
+			}
+		}
+		violations.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+	}
+
+	private static OrderViolation duplicatePosition(int index, int position) {
+		return new OrderViolation(index, "position_in_line", position,
+				"Duplicate position in line: " + position + " is taken by an earlier order.");
+	}
+}
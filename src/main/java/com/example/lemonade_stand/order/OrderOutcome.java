@@ -0,0 +1,11 @@
+package com.example.lemonade_stand.order;
+
+/**
+ * What happened to a single order of a processed batch.
+ */
+public enum OrderOutcome {
+	SOLD, // Served and paid, the batch was committed
+	REJECTED, // The order that could not be served, failing the batch
+	ROLLED_BACK, // Served before the batch failed, then undone
+	NOT_PROCESSED // Behind the rejected order in line, never served
+}
@@ -1,20 +1,30 @@
 package com.example.lemonade_stand.order;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.UUID;
 
 import javax.annotation.PostConstruct;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 
-import com.example.lemonade_stand.database.SalesRecord;
-import com.example.lemonade_stand.database.SalesRepository;
-import com.example.lemonade_stand.exception_handler.InvalidOrderException;
+import com.example.lemonade_stand.change.ChangeDrawer;
+import com.example.lemonade_stand.change.ChangePolicy;
+import com.example.lemonade_stand.change.UpcomingOrders;
+import com.example.lemonade_stand.drawer.CashDrawer;
+import com.example.lemonade_stand.drawer.Reservation;
+import com.example.lemonade_stand.inventory.Inventory;
+import com.example.lemonade_stand.inventory.StockReservation;
+import com.example.lemonade_stand.lane.Lane;
+import com.example.lemonade_stand.lane.OrderLanes;
+import com.example.lemonade_stand.shutdown.DrainCoordinator;
+import com.example.lemonade_stand.shutdown.InFlightBatch;
+import com.example.lemonade_stand.tracing.Span;
+import com.example.lemonade_stand.tracing.Tracer;
 import com.example.lemonade_stand.util.AppConstants;
 
 /**
@@ -28,10 +38,25 @@ public class OrderProcessor {
 	@Autowired
 	private OrderRepositoryService orderRepositoryService;
 	@Autowired
-	private SalesRepository salesRepository; // Repository to manage bills in the database
-	private Map<Integer, Integer> billsFromThisOrder = new HashMap<>(); // Using map to track bills for this order batch
-	private int lemonadesSold;
-	private boolean isSaleComplete = true;
+	private ApplicationEventPublisher eventPublisher; // Publishes every processed batch, e.g. to the order ledger
+	@Autowired
+	private CashDrawer cashDrawer; // In-memory bills available for change
+	@Autowired
+	private Tracer tracer; // Times each stage of a sampled batch
+	@Autowired
+	private Inventory inventory; // In-memory stock the lemonades are made from
+	@Autowired
+	private DrainCoordinator drainCoordinator; // Admits batches and drains them on shutdown
+	@Autowired
+	private OrderDeduplicator orderDeduplicator; // Rejects order ids committed before
+	@Autowired
+	private ServingScheduler servingScheduler; // Takes turns serving between large and small batches
+	@Autowired
+	private OrderLanes orderLanes; // Assigns batches to execution lanes
+	@Autowired
+	private ChangePolicy changePolicy; // Chooses the bills handed back as change
+	@Autowired
+	private OrderBatchValidator orderBatchValidator; // Rejects bills the drawer has no slot for
 
 	/**
 	 * Initialize bill counters for 5, 10, and 20 denominations after the bean is
@@ -43,20 +68,13 @@ public class OrderProcessor {
 			orderRepositoryService.initializeBill(denomination);
 		}
 		orderRepositoryService.initializeSalesFigures();
-	}
 
-	/**
-	 * /** Resets the current order cache by clearing the bill counter and resetting
-	 * the count of lemonades sold during the current order. This ensures that each
-	 * new order batch starts with a clean slate.
-	 */
-	private void resetCurrentOrder() {
-		// Clear the map tracking bills collected in the current order
-		billsFromThisOrder.clear();
-
-		// Reset the count of lemonades sold in the current order to 0
-		lemonadesSold = 0;
-		isSaleComplete = true;
+		// Load the drawer from the database, unless a shared drawer is ahead of it
+		int[] counts = new int[AppConstants.BILL_DENOMINATIONS.size()];
+		for (int index = 0; index < counts.length; index++) {
+			counts[index] = orderRepositoryService.getBillCountInDatabase(AppConstants.BILL_DENOMINATIONS.get(index));
+		}
+		cashDrawer.restore(counts, orderRepositoryService.getLemonadesSold());
 	}
 
 	/**
@@ -71,28 +89,172 @@ public class OrderProcessor {
 		if (orders == null || orders.isEmpty() || orders.contains(null)) {
 			return "null"; // Return "null" if the order list is empty
 		}
-		resetCurrentOrder();
+		BillTally billsRemaining = processBatch(OrderBatch.fromOrders(orders));
+		return billsRemaining != null ? billsRemaining.toString() : "null";
+	}
 
-		// Sort the orders based on the customers' position in line.
-		orders.sort(Comparator.comparingInt(CustomerOrder::getPositionInLine));
+	/**
+	 * Processes a batch of customer orders held in primitive arrays. Orders are
+	 * served by position in line, without materializing per-order objects.
+	 *
+	 * @param batch The batch of orders to process.
+	 * @return The bills collected during the current order minus the bills
+	 *         consumed for change, or null if the batch could not be processed.
+	 */
+	public BillTally processBatch(OrderBatch batch) {
+		return processBatch(batch, batch != null ? orderLanes.assign(null, batch.size()) : Lane.INTERACTIVE);
+	}
 
-		// Process each order in sequence
-		for (CustomerOrder order : orders) {
-			if (processSingleOrder(order.getBillValue(), order.getRequestedLemonades(), billsFromThisOrder) == -1) {
-				isSaleComplete = false;
-				return "null"; // Order processing failed
+	/**
+	 * Processes a batch of customer orders on the calling thread, taking serving
+	 * turns in the given lane.
+	 *
+	 * @param batch The batch of orders to process.
+	 * @param lane  The lane the batch was assigned to.
+	 * @return The bills collected during the current order minus the bills
+	 *         consumed for change, or null if the batch could not be processed.
+	 */
+	public BillTally processBatch(OrderBatch batch, Lane lane) {
+		if (batch == null || batch.size() == 0) {
+			return null; // Nothing to process for an empty batch
+		}
+		if (!orderBatchValidator.validate(batch).isEmpty()) {
+			return null; // A bill that is not accepted; callers that report why validate first
+		}
+		InFlightBatch inFlight = drainCoordinator.admit(UUID.randomUUID().toString());
+		if (inFlight == null) {
+			return null; // Draining for shutdown
+		}
+		Span span = tracer.startSpan("order.process").setAttribute("order.count", batch.size())
+				.setAttribute("order.lane", lane.tag());
+		OrderBatchEvent event = new OrderBatchEvent();
+		event.begin();
+		StockReservation stock = inventory.reserve(); // Stock taken for this batch
+		try {
+			BillTally billsRemaining = serveBatch(batch, lane, stock, inFlight);
+			span.setAttribute("batch.outcome", billsRemaining != null ? "committed" : "rejected");
+			event.committed = billsRemaining != null;
+			return billsRemaining;
+		} finally {
+			stock.release(); // Puts the stock back unless the batch committed
+			drainCoordinator.complete(inFlight);
+			span.end();
+			if (event.shouldCommit()) {
+				event.batchId = inFlight.getBatchId();
+				event.orders = batch.size();
+				event.lane = lane.tag();
+				event.commit();
 			}
 		}
+	}
 
-		// update lemonades sold count only if order sale is successful
-		if (isSaleComplete) {
-			updateSaleInDatabase(lemonadesSold);
+	/**
+	 * Serves every order of a non-empty batch and commits the result. Each order
+	 * needs both its change and its stock; the batch commits both or neither.
+	 *
+	 * @param batch    The batch of orders to process.
+	 * @param lane     The lane the batch takes serving turns in.
+	 * @param stock    The stock held for the batch.
+	 * @param inFlight The batch as admitted by the drain coordinator.
+	 * @return The bills left from the batch, or null if it could not be processed.
+	 */
+	private BillTally serveBatch(OrderBatch batch, Lane lane, StockReservation stock, InFlightBatch inFlight) {
+		String batchId = inFlight.getBatchId();
+		int[] changeGiven = new int[batch.size()];
+		OrderOutcome[] outcomes = new OrderOutcome[batch.size()];
+		Arrays.fill(outcomes, OrderOutcome.NOT_PROCESSED);
+		BillTally billsFromThisOrder = new BillTally(); // Bills collected and not yet handed back in this batch
+		BillTally billsCollected = new BillTally(); // Every bill collected in this batch
+		BillTally changePaid = new BillTally(); // Every bill handed back as change in this batch
+		Reservation reservation = cashDrawer.reserve(); // Change bills taken from the drawer for this batch
+		int lemonadesSold = 0;
+
+		// Process each order in sequence, sorted by the customers' position in line
+		Span sortSpan = tracer.startSpan("order.sort");
+		int[] servingOrder = batch.indexesInLineOrder();
+		sortSpan.end();
+		ChangeDrawer changeDrawer = new BatchChangeDrawer(billsFromThisOrder, changePaid, reservation);
+		UpcomingOrders upcoming = new UpcomingOrders(batch, servingOrder); // Orders the change policy may look ahead to
+		// Large batches are served in chunks, letting waiting batches take a turn
+		// in between
+		Span serveSpan = tracer.startSpan("order.serve");
+		try (ServingTurn turn = servingScheduler.start(lane)) {
+			for (int served = 0; served < servingOrder.length; served++) {
+				int index = servingOrder[served];
+				int billValue = batch.getBillValue(index);
+				int requestedLemonades = batch.getRequestedLemonades(index);
+				upcoming.advanceTo(served + 1);
+				if (processSingleOrder(billValue, requestedLemonades, billsFromThisOrder, changeDrawer,
+						upcoming) == -1 || !stock.take(requestedLemonades)) {
+					reservation.release(); // Put back every change bill taken so far
+					serveSpan.setAttribute("order.rejected_index", index).end();
+					outcomes[index] = OrderOutcome.REJECTED;
+					markRolledBack(servingOrder, served, outcomes);
+					eventPublisher.publishEvent(
+							new BatchProcessedEvent(batchId, batch, changeGiven, outcomes, false, 0, new BillTally(),
+							new BillTally(), Instant.now()));
+					return null; // Order processing failed
+				}
+				outcomes[index] = OrderOutcome.SOLD;
+				changeGiven[index] = billValue - requestedLemonades * AppConstants.LEMONADE_COST;
+				lemonadesSold += requestedLemonades;
+				billsCollected.add(billValue, 1);
+				turn.served();
+			}
+			if (turn.getYields() > 0) {
+				serveSpan.setAttribute("order.yields", turn.getYields());
+			}
+		}
+		serveSpan.end();
+
+		// One transaction locks the changed denomination rows, prepares the batch in
+		// memory and writes it, and the drawer and order ids follow only once it
+		// has committed; a shared drawer is checkpointed instead. The lease may have
+		// been reclaimed if processing stalled, in which case the change bills may
+		// already have gone to another batch, and a batch abandoned by a shutdown
+		// drain or replaying an order id already committed does not commit either.
+		Span commitSpan = tracer.startSpan("order.commit");
+		BatchCommit inMemory = new PreparedBatch(batch, inFlight, reservation, billsFromThisOrder);
+		boolean committed;
+		if (cashDrawer.isShared()) {
+			committed = inMemory.prepare();
+			if (committed) {
+				inMemory.committed();
+			}
 		} else {
-			orderRepositoryService.restoreBillsConsumedWhenOrderFailed();
+			committed = orderRepositoryService.commitBatch(billDeltas(billsCollected, changePaid), lemonadesSold,
+					inMemory);
 		}
+		commitSpan.end();
+		if (!committed) {
+			reservation.release();
+			markRolledBack(servingOrder, servingOrder.length, outcomes);
+			eventPublisher.publishEvent(
+					new BatchProcessedEvent(batchId, batch, changeGiven, outcomes, false, 0, new BillTally(),
+						new BillTally(), Instant.now()));
+			return null;
+		}
+		stock.commit();
+		cashDrawer.recordSale(lemonadesSold);
+		eventPublisher.publishEvent(
+				new BatchProcessedEvent(batchId, batch, changeGiven, outcomes, true, lemonadesSold,
+				billsCollected, changePaid, Instant.now()));
 
 		// Return the list of bills collected only during the current order
-		return getBillsRemainingCurrentOrder();
+		return billsFromThisOrder;
+	}
+
+	/**
+	 * Marks the orders served before a failure as rolled back.
+	 *
+	 * @param servingOrder Order indexes in the order they were served.
+	 * @param served       Number of orders served before the failure.
+	 * @param outcomes     Outcome of each order, by index.
+	 */
+	private void markRolledBack(int[] servingOrder, int served, OrderOutcome[] outcomes) {
+		for (int i = 0; i < served; i++) {
+			outcomes[servingOrder[i]] = OrderOutcome.ROLLED_BACK;
+		}
 	}
 
 	/**
@@ -100,12 +262,15 @@ public class OrderProcessor {
 	 *
 	 * @param billValue          The value of the bill provided by the customer.
 	 * @param requestedLemonades The number of lemonades requested.
-	 * @param billCounter        The map of bills collected and consumed during this
-	 *                           order batch.
+	 * @param billCounter        The bills collected and consumed during this order
+	 *                           batch.
+	 * @param changeDrawer       The bills the batch can hand back as change.
+	 * @param upcoming           The orders of the batch behind this one.
 	 * @return 0 if successfully processed, -1 otherwise.
 	 */
-	private int processSingleOrder(int billValue, int requestedLemonades, Map<Integer, Integer> billCounter) {
-		if (requestedLemonades == 0) {
+	private int processSingleOrder(int billValue, int requestedLemonades, BillTally billCounter,
+			ChangeDrawer changeDrawer, UpcomingOrders upcoming) {
+		if (requestedLemonades <= 0) {
 			return -1; // Invalid order if no lemonades requested
 		}
 
@@ -118,117 +283,116 @@ public class OrderProcessor {
 		int changeRequired = billValue - lemonadeCost;
 
 		// Track the bill collected from the customer
-		billCounter.put(billValue, billCounter.getOrDefault(billValue, 0) + 1);
+		billCounter.add(billValue, 1);
 
 		// Process the required change if needed
-		if (changeRequired > 0 && processChange(changeRequired, billCounter) == -1) {
-			return -1; // Return error if change can't be provided
+		if (changeRequired > 0) {
+			ChangeEvent event = new ChangeEvent();
+			event.begin();
+			boolean succeeded = changePolicy.giveChange(changeRequired, changeDrawer, upcoming);
+			if (event.shouldCommit()) {
+				event.billValue = billValue;
+				event.changeRequired = changeRequired;
+				event.succeeded = succeeded;
+				event.commit();
+			}
+			if (!succeeded) {
+				return -1; // Return error if change can't be provided
+			}
 		}
-		lemonadesSold += requestedLemonades;
 		return 0;
 	}
 
 	/**
-	 * Processes the required change by checking available bills in the system and
-	 * consuming bills to match the change required.
-	 * 
-	 * @param changeRequired The amount of change that needs to be provided.
-	 * @param billCounter    The map tracking bills collected and consumed in the
-	 *                       current order.
-	 * @return 0 if the change was successfully provided, -1 otherwise.
+	 * The change bills of one batch: bills it collected itself first, then bills
+	 * from the drawer under its reservation. Records every bill handed back.
 	 */
-	private int processChange(int changeRequired, Map<Integer, Integer> billCounter) {
-		Map<Integer, Integer> availableBillsFromDB = fetchAvailableBillsFromDB();
-		// Special check for $15 change: ensure a $5 bill is available
-		if (changeRequired == 15 && !(availableBillsFromDB.getOrDefault(5, 0) > 0)) {
-			return -1; // Cannot provide change, sale fails
-		}
-
-		// Provide $10 bills if possible
-		while (changeRequired >= 10 && availableBillsFromDB.getOrDefault(10, 0) > 0) {
-			if (billCounter.getOrDefault(10, 0) > 0) {
-				billCounter.put(10, billCounter.getOrDefault(10, 0) - 1); // Track $10 bill consumption
-				changeRequired -= 10;
-			} else {
-				orderRepositoryService.removeBillFromDatabase(10);
-				changeRequired -= 10;
-			}
+	private final class BatchChangeDrawer implements ChangeDrawer {
+		private final BillTally billCounter; // Bills collected and not yet handed back
+		private final BillTally changePaid; // Bills handed back as change
+		private final Reservation reservation; // Change bills held from the drawer
+
+		BatchChangeDrawer(BillTally billCounter, BillTally changePaid, Reservation reservation) {
+			this.billCounter = billCounter;
+			this.changePaid = changePaid;
+			this.reservation = reservation;
 		}
 
-		// Provide $5 bills if possible
-		while (changeRequired >= 5 && availableBillsFromDB.getOrDefault(5, 0) > 0) {
-			if (billCounter.getOrDefault(5, 0) > 0) {
-				billCounter.put(5, billCounter.getOrDefault(5, 0) - 1); // Track $5 bill consumption
-				changeRequired -= 5;
-			} else {
-				orderRepositoryService.removeBillFromDatabase(5);
-				changeRequired -= 5;
-			}
+		@Override
+		public int available(int denomination) {
+			return billCounter.getCount(denomination) + cashDrawer.getAvailable(denomination);
 		}
 
-		// Return success if exact change was provided, otherwise fail
-		return changeRequired == 0 ? 0 : -1;
-	}
-
-	private Map<Integer, Integer> fetchAvailableBillsFromDB() {
-		// Fetch all available bills and return as a map for quick lookup
-		Map<Integer, Integer> availableBills = new HashMap<>();
-		availableBills.put(5, orderRepositoryService.getBillCountInDatabase(5));
-		availableBills.put(10, orderRepositoryService.getBillCountInDatabase(10));
-		return availableBills;
+		@Override
+		public boolean take(int denomination) {
+			if (billCounter.getCount(denomination) > 0) {
+				billCounter.add(denomination, -1);
+			} else if (!reservation.take(denomination)) {
+				return false;
+			}
+			changePaid.add(denomination, 1);
+			return true;
+		}
 	}
 
 	/**
-	 * Updates the sales record by adding the number of lemonades sold in the
-	 * current order batch to the total lemonades sold in the system. Also adds the
-	 * remaining bills from the current order batch to the database.
-	 * 
-	 * @param lemonadesSold The number of lemonades sold in the current order.
+	 * The in-memory side of committing one batch. Preparing claims the batch's
+	 * order ids and stops its lease from expiring, as one step a shutdown drain
+	 * cannot split; the bills go into the drawer and the ids are remembered only
+	 * once the transaction has committed.
 	 */
-	private void updateSaleInDatabase(int lemonadesSold) {
-		// Increment the total lemonades sold by the current order's sales
-		SalesRecord salesRecord = salesRepository.findFirstByOrderByIdDesc();
-		if (salesRecord != null) {
-			salesRecord.setTotalLemonadesSold(salesRecord.getTotalLemonadesSold() + lemonadesSold);
-			salesRepository.save(salesRecord); // Persist the updated sales record
-		}
-
-		// Add the remaining bills from the current order to the database
-		for (Map.Entry<Integer, Integer> entry : billsFromThisOrder.entrySet()) {
-			int denomination = entry.getKey();
-			int count = entry.getValue();
-
-			// For each collected bill, add it to the database
-			for (int i = 0; i < count; i++) {
-				orderRepositoryService.addBillToDatabase(denomination); // Persist bill into the database
-			}
+	private final class PreparedBatch implements BatchCommit {
+		private final OrderBatch batch; // The committing batch
+		private final InFlightBatch inFlight; // The batch as admitted by the drain coordinator
+		private final Reservation reservation; // Change bills held from the drawer
+		private final BillTally deposits; // Bills the batch leaves in the drawer
+
+		PreparedBatch(OrderBatch batch, InFlightBatch inFlight, Reservation reservation, BillTally deposits) {
+			this.batch = batch;
+			this.inFlight = inFlight;
+			this.reservation = reservation;
+			this.deposits = deposits;
+		}
+
+		@Override
+		public boolean prepare() {
+			return inFlight.commit(() -> {
+				if (!orderDeduplicator.claim(batch)) {
+					return false;
+				}
+				if (!reservation.prepare()) {
+					orderDeduplicator.settle(batch, false);
+					return false;
+				}
+				return true;
+			});
+		}
+
+		@Override
+		public void committed() {
+			reservation.commit(deposits);
+			orderDeduplicator.settle(batch, true);
+		}
+
+		@Override
+		public void rolledBack() {
+			reservation.release();
+			orderDeduplicator.settle(batch, false);
 		}
 	}
 
 	/**
-	 * Generates a string representation of the remaining bills in the current
-	 * order. This method converts the bill counter map to a list format for
-	 * display.
-	 * 
-	 * @return A formatted string containing the remaining bills in the current
-	 *         order.
+	 * @param billsCollected Every bill collected in the batch.
+	 * @param changePaid     Every bill handed back as change in the batch.
+	 * @return Net bills the drawer gains per denomination index.
 	 */
-	private String getBillsRemainingCurrentOrder() {
-		// Convert the billCounter map to a list of remaining bills
-		List<Integer> result = new ArrayList<>();
-
-		// Loop through each denomination and count in the billCounter
-		for (Map.Entry<Integer, Integer> entry : billsFromThisOrder.entrySet()) {
-			int denomination = entry.getKey();
-			int count = entry.getValue();
-
-			// Add each bill to the result list
-			for (int i = 0; i < count; i++) {
-				result.add(denomination);
-			}
+	private static int[] billDeltas(BillTally billsCollected, BillTally changePaid) {
+		int[] billDeltas = new int[AppConstants.BILL_DENOMINATIONS.size()];
+		for (int index = 0; index < billDeltas.length; index++) {
+			int denomination = AppConstants.BILL_DENOMINATIONS.get(index);
+			billDeltas[index] = billsCollected.getCount(denomination) - changePaid.getCount(denomination);
 		}
-
-		return result.toString(); // Return the formatted list as a string
+		return billDeltas;
 	}
 
 }
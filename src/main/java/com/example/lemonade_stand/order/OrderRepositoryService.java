@@ -1,15 +1,20 @@
 package com.example.lemonade_stand.order;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.example.lemonade_stand.database.BillCounterRecord;
 import com.example.lemonade_stand.database.BillCounterRepository;
 import com.example.lemonade_stand.database.SalesRecord;
 import com.example.lemonade_stand.database.SalesRepository;
+import com.example.lemonade_stand.util.AppConstants;
 
 @Service
 public class OrderRepositoryService {
@@ -20,7 +25,8 @@ public class OrderRepositoryService {
 	@Autowired
 	private SalesRepository salesRepository;
 
-	private Map<Integer, Integer> billsConsumedFromDB = new HashMap<>(); // map to keep track of bills consumed from db
+	@Autowired
+	private SalesStateVersion stateVersion; // Bumped after each committed write
 
 	/**
 	 * Initializes a bill record in the database if it doesn't already exist.
@@ -28,8 +34,14 @@ public class OrderRepositoryService {
 	 * @param denomination The bill denomination to initialize.
 	 */
 	public void initializeBill(int denomination) {
-		if (billCounterRepository.findByBillDenomination(denomination) == null) {
-			billCounterRepository.save(new BillCounterRecord(denomination, 0));
+		RepositoryCallEvent event = RepositoryCallEvent.begin("initializeBill");
+		try {
+			if (billCounterRepository.findByBillDenomination(denomination) == null) {
+				billCounterRepository.save(new BillCounterRecord(denomination, 0));
+				stateVersion.changed();
+			}
+		} finally {
+			event.commit();
 		}
 	}
 
@@ -39,8 +51,14 @@ public class OrderRepositoryService {
 	 * @param denomination The bill denomination to initialize.
 	 */
 	public void initializeSalesFigures() {
-		if (salesRepository.findFirstByOrderByIdDesc() == null) {
-			salesRepository.save(new SalesRecord());
+		RepositoryCallEvent event = RepositoryCallEvent.begin("initializeSalesFigures");
+		try {
+			if (salesRepository.findFirstByOrderByIdDesc() == null) {
+				salesRepository.save(new SalesRecord());
+				stateVersion.changed();
+			}
+		} finally {
+			event.commit();
 		}
 	}
 
@@ -52,56 +70,171 @@ public class OrderRepositoryService {
 	 * @return The number of bills available for the specified denomination.
 	 */
 	public int getBillCountInDatabase(int denomination) {
-		BillCounterRecord lemonadeStandRecord = billCounterRepository.findByBillDenomination(denomination);
-		return lemonadeStandRecord != null ? lemonadeStandRecord.getCount() : 0;
+		RepositoryCallEvent event = RepositoryCallEvent.begin("getBillCountInDatabase");
+		try {
+			Integer count = billCounterRepository.findCountByDenomination(denomination);
+			return count != null ? count : 0;
+		} finally {
+			event.commit();
+		}
 	}
 
 	/**
-	 * Adds a bill of the given denomination to the database.
+	 * Adds a (possibly negative) number of bills of the given denomination to the
+	 * database in a single atomic update.
 	 *
-	 * @param billValue The denomination of the bill to be added.
+	 * @param billValue The denomination of the bills.
+	 * @param delta     The number of bills to add, negative to remove.
 	 */
-	public void addBillToDatabase(int billValue) {
-		BillCounterRecord record = billCounterRepository.findByBillDenomination(billValue);
-		if (record != null) {
-			record.setCount(record.getCount() + 1);
-			billCounterRepository.save(record);
+	public void applyBillDelta(int billValue, int delta) {
+		RepositoryCallEvent event = RepositoryCallEvent.begin("applyBillDelta");
+		try {
+			billCounterRepository.addToCount(billValue, delta);
+			stateVersion.changed();
+		} finally {
+			event.commit();
 		}
 	}
 
 	/**
-	 * Removes a bill of the given denomination from the database.
+	 * Commits one order batch as a single transaction. The rows of the
+	 * denominations that change are locked first, then the batch is prepared in
+	 * memory, then every count and the sales total are updated; a batch that
+	 * cannot be prepared writes nothing, and a failed write rolls back them all.
+	 * The batch is applied in memory only once the transaction has committed, and
+	 * given back if it rolls back.
 	 *
-	 * @param billValue The denomination of the bill to be removed.
+	 * @param billDeltas    Bills to add per denomination index, negative to
+	 *                      remove.
+	 * @param lemonadesSold Lemonades to add to the sales total.
+	 * @param inMemory      The in-memory side of the batch.
+	 * @return The result of {@link BatchCommit#prepare}.
 	 */
-	public void removeBillFromDatabase(int billValue) {
-		BillCounterRecord record = billCounterRepository.findByBillDenomination(billValue);
-		if (record != null && record.getCount() > 0) {
-			record.setCount(record.getCount() - 1);
-			billCounterRepository.save(record);
-			// Track bills consumed from the database during the current order
-			billsConsumedFromDB.put(billValue, billsConsumedFromDB.getOrDefault(billValue, 0) + 1);
+	@Transactional(isolation = Isolation.READ_COMMITTED)
+	public boolean commitBatch(int[] billDeltas, int lemonadesSold, BatchCommit inMemory) {
+		RepositoryCallEvent event = RepositoryCallEvent.begin("commitBatch");
+		try {
+			List<Integer> changed = new ArrayList<>();
+			for (int index = 0; index < billDeltas.length; index++) {
+				if (billDeltas[index] != 0) {
+					changed.add(AppConstants.BILL_DENOMINATIONS.get(index));
+				}
+			}
+			if (!changed.isEmpty()) {
+				billCounterRepository.lockDenominations(changed);
+			}
+			if (!inMemory.prepare()) {
+				return false; // Nothing written yet; the locks go with the transaction
+			}
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status == STATUS_COMMITTED) {
+						inMemory.committed();
+					} else {
+						inMemory.rolledBack();
+					}
+				}
+			});
+			salesRepository.addToTotal(lemonadesSold);
+			for (int index = 0; index < billDeltas.length; index++) {
+				if (billDeltas[index] != 0) {
+					billCounterRepository.addToCount(AppConstants.BILL_DENOMINATIONS.get(index), billDeltas[index]);
+				}
+			}
+			stateVersion.changed();
+			return true;
+		} finally {
+			event.commit();
 		}
 	}
 
-	public BillCounterRecord getLastRecord() {
-		return billCounterRepository.findFirstByOrderByIdDesc();
+	/**
+	 * Overwrites the number of bills of the given denomination, e.g. with a drawer
+	 * checkpoint.
+	 *
+	 * @param billValue The denomination of the bills.
+	 * @param count     The number of bills.
+	 */
+	public void setBillCount(int billValue, int count) {
+		RepositoryCallEvent event = RepositoryCallEvent.begin("setBillCount");
+		try {
+			billCounterRepository.setCount(billValue, count);
+			stateVersion.changed();
+		} finally {
+			event.commit();
+		}
+	}
+
+	/**
+	 * Retrieves the total number of lemonades sold.
+	 *
+	 * @return The total, or 0 if no sales record exists.
+	 */
+	public int getLemonadesSold() {
+		RepositoryCallEvent event = RepositoryCallEvent.begin("getLemonadesSold");
+		try {
+			Integer lemonadesSold = salesRepository.findLatestLemonadesSold();
+			return lemonadesSold != null ? lemonadesSold : 0;
+		} finally {
+			event.commit();
+		}
 	}
 
 	/**
-	 * Restores bills that were consumed from the database during a failed order.
-	 * The consumed bills are added back to the database to undo the transaction.
+	 * Overwrites the total number of lemonades sold, e.g. with a drawer
+	 * checkpoint.
+	 *
+	 * @param lemonadesSold The total number of lemonades sold.
+	 */
+	public void setLemonadesSold(long lemonadesSold) {
+		RepositoryCallEvent event = RepositoryCallEvent.begin("setLemonadesSold");
+		try {
+			SalesRecord salesRecord = salesRepository.findFirstByOrderByIdDesc();
+			if (salesRecord != null) {
+				salesRecord.setTotalLemonadesSold(Math.toIntExact(lemonadesSold));
+				salesRepository.save(salesRecord);
+				stateVersion.changed();
+			}
+		} finally {
+			event.commit();
+		}
+	}
+
+	/**
+	 * Overwrites every bill count and the total number of lemonades sold in one
+	 * transaction, e.g. with a replicated drawer, so a report never shows part of
+	 * the new state.
+	 *
+	 * @param counts        The number of bills per denomination, in the order of
+	 *                      {@link AppConstants#BILL_DENOMINATIONS}.
+	 * @param lemonadesSold The total number of lemonades sold.
+	 * @throws ArithmeticException If the total does not fit the sales record.
 	 */
-	void restoreBillsConsumedWhenOrderFailed() {
-		// Loop through each consumed bill and restore it to the database
-		for (Map.Entry<Integer, Integer> entry : billsConsumedFromDB.entrySet()) {
-			int denomination = entry.getKey();
-			int count = entry.getValue();
-
-			// Add back each consumed bill to the database
-			for (int i = 0; i < count; i++) {
-				addBillToDatabase(denomination);
+	@Transactional
+	public void replaceState(int[] counts, long lemonadesSold) {
+		RepositoryCallEvent event = RepositoryCallEvent.begin("replaceState");
+		try {
+			for (int index = 0; index < counts.length; index++) {
+				billCounterRepository.setCount(AppConstants.BILL_DENOMINATIONS.get(index), counts[index]);
 			}
+			SalesRecord salesRecord = salesRepository.findFirstByOrderByIdDesc();
+			if (salesRecord != null) {
+				salesRecord.setTotalLemonadesSold(Math.toIntExact(lemonadesSold));
+				salesRepository.save(salesRecord);
+			}
+			stateVersion.changed();
+		} finally {
+			event.commit();
+		}
+	}
+
+	public BillCounterRecord getLastRecord() {
+		RepositoryCallEvent event = RepositoryCallEvent.begin("getLastRecord");
+		try {
+			return billCounterRepository.findFirstByOrderByIdDesc();
+		} finally {
+			event.commit();
 		}
 	}
 
@@ -109,13 +242,20 @@ public class OrderRepositoryService {
 	 * Clears all records in the LemonadeStandRecord table.
 	 */
 	public void clearAllRecords() {
-		// Check if records are present before deleting
-		if (billCounterRepository.count() > 0) {
-			billCounterRepository.deleteAll();
-		}
-		// Check if records are present before deleting
-		if (salesRepository.count() > 0) {
-			salesRepository.deleteAll();
+		RepositoryCallEvent event = RepositoryCallEvent.begin("clearAllRecords");
+		try {
+			// Check if records are present before deleting
+			if (billCounterRepository.count() > 0) {
+				billCounterRepository.deleteAll();
+			}
+			// Check if records are present before deleting
+			if (salesRepository.count() > 0) {
+				salesRepository.deleteAll();
+			}
+			stateVersion.changed();
+		} finally {
+			event.commit();
 		}
 	}
+
 }
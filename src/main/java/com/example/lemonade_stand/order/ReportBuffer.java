@@ -0,0 +1,74 @@
+package com.example.lemonade_stand.order;
+
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer for rendering ASCII reports without intermediate
+ * strings. Numbers are written digit by digit, so appending allocates nothing
+ * once the buffer has grown to the report size. Meant to be reused by one
+ * thread.
+ */
+final class ReportBuffer {
+
+	private byte[] bytes = new byte[256];
+	private int length;
+
+	ReportBuffer reset() {
+		length = 0;
+		return this;
+	}
+
+	/**
+	 * @param ascii Text made of ASCII characters only.
+	 * @return This buffer.
+	 */
+	ReportBuffer append(String ascii) {
+		ensureCapacity(ascii.length());
+		for (int i = 0; i < ascii.length(); i++) {
+			bytes[length++] = (byte) ascii.charAt(i);
+		}
+		return this;
+	}
+
+	ReportBuffer append(char ascii) {
+		ensureCapacity(1);
+		bytes[length++] = (byte) ascii;
+		return this;
+	}
+
+	ReportBuffer append(long value) {
+		if (value == Long.MIN_VALUE) {
+			return append(Long.toString(value));
+		}
+		ensureCapacity(20);
+		if (value < 0) {
+			bytes[length++] = '-';
+			value = -value;
+		}
+		int start = length;
+		do {
+			bytes[length++] = (byte) ('0' + value % 10);
+			value /= 10;
+		} while (value > 0);
+		// Digits were written least significant first
+		for (int i = start, j = length - 1; i < j; i++, j--) {
+			byte digit = bytes[i];
+			bytes[i] = bytes[j];
+			bytes[j] = digit;
+		}
+		return this;
+	}
+
+	/**
+	 * @return A copy of the rendered bytes.
+	 */
+	byte[] toByteArray() {
+		return Arrays.copyOf(bytes, length);
+	}
+
+	private void ensureCapacity(int extra) {
+		if (length + extra > bytes.length) {
+			bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+		}
+	}
+}
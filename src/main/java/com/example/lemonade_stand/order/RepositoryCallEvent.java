@@ -0,0 +1,35 @@
+package com.example.lemonade_stand.order;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for one call of {@link OrderRepositoryService} that reaches the
+ * database. Carries a stack trace so slow calls can be traced to their caller.
+ */
+@Name(RepositoryCallEvent.NAME)
+@Label("Repository Call")
+@Category({ "Lemonade Stand", "Database" })
+@Description("A read or write of the bill counts or the sales total")
+public final class RepositoryCallEvent extends jdk.jfr.Event {
+
+	public static final String NAME = "lemonade.RepositoryCall";
+
+	@Label("Operation")
+	String operation;
+
+	/**
+	 * Starts timing a call.
+	 *
+	 * @param operation The service method called.
+	 * @return The started event, to be committed when the call returns.
+	 */
+	static RepositoryCallEvent begin(String operation) {
+		RepositoryCallEvent event = new RepositoryCallEvent();
+		event.operation = operation;
+		event.begin();
+		return event;
+	}
+}
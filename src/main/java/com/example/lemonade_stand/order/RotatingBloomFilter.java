@@ -0,0 +1,119 @@
+package com.example.lemonade_stand.order;
+
+import java.util.Arrays;
+
+/**
+ * Bloom filter over the most recent keys, in two generations of fixed size.
+ * Keys are added to the current generation; once it holds its capacity, it
+ * becomes the previous generation and the old previous one is cleared and
+ * reused. A key is remembered for at least {@code capacity} and at most twice
+ * {@code capacity} further insertions, and memory never grows.
+ * <p>
+ * A lookup can answer true for a key never added, with at most about twice the
+ * configured false positive rate, but never false for a remembered key. Not
+ * thread-safe.
+ */
+final class RotatingBloomFilter {
+
+	private final int capacity; // Keys added to a generation before it rotates
+	private final int hashes; // Bits set per key
+	private final long mask; // Bits per generation minus one, a power of two
+	private long[] current;
+	private long[] previous;
+	private int currentCount; // Keys added to the current generation
+	private long rotations;
+
+	/**
+	 * @param capacity          Keys per generation.
+	 * @param falsePositiveRate Target false positive rate of one full generation.
+	 */
+	RotatingBloomFilter(int capacity, double falsePositiveRate) {
+		double ln2 = Math.log(2);
+		long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+		long bits = Math.max(64, Long.highestOneBit(optimalBits - 1) << 1);
+		this.capacity = capacity;
+		this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * ln2));
+		this.mask = bits - 1;
+		this.current = new long[(int) (bits >>> 6)];
+		this.previous = new long[current.length];
+	}
+
+	/**
+	 * @param key The key to look up.
+	 * @return False if the key was not added recently, true if it probably was.
+	 */
+	boolean mightContain(String key) {
+		long hash = hash(key);
+		return contains(current, hash) || contains(previous, hash);
+	}
+
+	/**
+	 * Adds a key to the current generation, rotating first if it is full.
+	 *
+	 * @param key The key to add.
+	 */
+	void add(String key) {
+		if (currentCount == capacity) {
+			long[] cleared = previous;
+			Arrays.fill(cleared, 0L);
+			previous = current;
+			current = cleared;
+			currentCount = 0;
+			rotations++;
+		}
+		long hash = hash(key);
+		long h1 = hash;
+		long h2 = mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+		for (int i = 0; i < hashes; i++) {
+			long bit = (h1 + i * h2) & mask;
+			current[(int) (bit >>> 6)] |= 1L << bit;
+		}
+		currentCount++;
+	}
+
+	/**
+	 * @return Bytes held by both generations.
+	 */
+	long sizeInBytes() {
+		return (long) (current.length + previous.length) * Long.BYTES;
+	}
+
+	/**
+	 * @return Generations retired so far.
+	 */
+	long getRotations() {
+		return rotations;
+	}
+
+	private boolean contains(long[] generation, long hash) {
+		long h1 = hash;
+		long h2 = mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+		for (int i = 0; i < hashes; i++) {
+			long bit = (h1 + i * h2) & mask;
+			if ((generation[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// 64-bit FNV-1a over the characters, finished with a mixer so every bit of
+	// the result depends on every character
+	private static long hash(String key) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			h = (h ^ key.charAt(i)) * 0x100000001b3L;
+		}
+		return mix(h);
+	}
+
+	// MurmurHash3 fmix64 finalizer
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
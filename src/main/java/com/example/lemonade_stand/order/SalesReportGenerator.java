@@ -1,27 +1,46 @@
 package com.example.lemonade_stand.order;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.example.lemonade_stand.database.BillCounterRecord;
+import com.example.lemonade_stand.database.BillCount;
 import com.example.lemonade_stand.database.BillCounterRepository;
-import com.example.lemonade_stand.database.SalesRecord;
 import com.example.lemonade_stand.database.SalesRepository;
 import com.example.lemonade_stand.util.AppConstants;
 
 /**
  * Service responsible for generating sales and bill reports for the lemonade
  * stand.
+ * <p>
+ * Reports are rendered once per {@link SalesStateVersion} and kept as bytes,
+ * so polling an unchanged stand reads nothing from the database and allocates
+ * nothing; the bytes are written to the response as they are.
  */
 @Service
 public class SalesReportGenerator {
 
+	/** Renderings of the report. */
+	public enum Format {
+		TEXT, // Lines of "label - value"
+		JSON // {"lemonades_sold":..,"profit":..,"bills_remaining":{"5":..}}
+	}
+
+	// Per-thread buffer the report is rendered into before it is copied out
+	private static final ThreadLocal<ReportBuffer> BUFFERS = ThreadLocal.withInitial(ReportBuffer::new);
+
 	@Autowired
 	private SalesRepository salesRepository;
 	@Autowired
 	private BillCounterRepository billCounterRepository;
+	@Autowired
+	private SalesStateVersion stateVersion;
+
+	private volatile RenderedReport rendered = new RenderedReport(-1, null, null); // Latest rendering
 
 	/**
 	 * Generates a sales report detailing total lemonades sold, total profit made,
@@ -30,17 +49,76 @@ public class SalesReportGenerator {
 	 * @return A formatted string report with sales and bill information.
 	 */
 	public String getCompleteSalesReport() {
-		SalesRecord salesRecord = salesRepository.findFirstByOrderByIdDesc();
-		List<BillCounterRecord> bills = billCounterRepository.findAll();
-		StringBuilder billsRemaining = new StringBuilder();
+		return new String(getReport(Format.TEXT), StandardCharsets.UTF_8);
+	}
 
-		for (BillCounterRecord bill : bills) {
-			billsRemaining.append(
-					String.format("Total %d Bills Remaining - %d\n", bill.getBillDenomination(), bill.getCount()));
+	/**
+	 * Returns the report for the current state, rendering it only if the state
+	 * changed since the last call.
+	 *
+	 * @param format The rendering.
+	 * @return The report bytes, UTF-8; shared, must not be modified.
+	 */
+	public byte[] getReport(Format format) {
+		RenderedReport report = rendered;
+		long version = stateVersion.get();
+		if (report.version != version) {
+			report = render(version);
 		}
+		return format == Format.JSON ? report.json : report.text;
+	}
 
-		return String.format("Total Lemonades sold so far - %d\nTotal Profit Made - %d\n%s",
-				salesRecord.getTotalLemonadesSold(), salesRecord.getTotalLemonadesSold() * AppConstants.LEMONADE_COST,
-				billsRemaining.toString());
+	/**
+	 * Writes the report for the current state.
+	 *
+	 * @param format The rendering.
+	 * @param out    The stream to write to.
+	 */
+	public void writeReport(Format format, OutputStream out) throws IOException {
+		out.write(getReport(format));
+	}
+
+	// Reads the state and renders both formats. The version is read before the
+	// state, so a write racing the render only makes the next call render again.
+	private RenderedReport render(long version) {
+		Integer totalSold = salesRepository.findLatestLemonadesSold();
+		List<BillCount> bills = billCounterRepository.findAllCounts();
+		long lemonadesSold = totalSold != null ? totalSold : 0;
+		long profit = lemonadesSold * AppConstants.LEMONADE_COST;
+
+		ReportBuffer buffer = BUFFERS.get().reset();
+		buffer.append("Total Lemonades sold so far - ").append(lemonadesSold).append('\n');
+		buffer.append("Total Profit Made - ").append(profit).append('\n');
+		for (BillCount bill : bills) {
+			buffer.append("Total ").append(bill.getBillDenomination()).append(" Bills Remaining - ")
+					.append(bill.getCount()).append('\n');
+		}
+		byte[] text = buffer.toByteArray();
+
+		buffer.reset().append("{\"lemonades_sold\":").append(lemonadesSold).append(",\"profit\":").append(profit)
+				.append(",\"bills_remaining\":{");
+		for (int i = 0; i < bills.size(); i++) {
+			buffer.append(i == 0 ? "\"" : ",\"").append(bills.get(i).getBillDenomination()).append("\":")
+					.append(bills.get(i).getCount());
+		}
+		byte[] json = buffer.append("}}").toByteArray();
+
+		RenderedReport report = new RenderedReport(version, text, json);
+		if (version > rendered.version) {
+			rendered = report;
+		}
+		return report;
+	}
+
+	private static final class RenderedReport {
+		final long version; // State version the report shows
+		final byte[] text;
+		final byte[] json;
+
+		RenderedReport(long version, byte[] text, byte[] json) {
+			this.version = version;
+			this.text = text;
+			this.json = json;
+		}
 	}
 }
@@ -0,0 +1,44 @@
+package com.example.lemonade_stand.order;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Version of the bill counts and the sales total in the database, bumped by
+ * {@link OrderRepositoryService} once each write is committed. Kept apart from
+ * the transactional service so reading it is a plain field read rather than a
+ * call through a proxy.
+ */
+@Component
+public class SalesStateVersion {
+
+	private final AtomicLong version = new AtomicLong();
+
+	/**
+	 * @return A number that changes whenever a write to the bill counts or the
+	 *         sales total has been committed.
+	 */
+	public long get() {
+		return version.get();
+	}
+
+	/**
+	 * Bumps the version once the current transaction, if any, completes, so a
+	 * reader never sees the new version before the new state.
+	 */
+	void changed() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			version.incrementAndGet();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCompletion(int status) {
+				version.incrementAndGet();
+			}
+		});
+	}
+}
@@ -0,0 +1,206 @@
+package com.example.lemonade_stand.order;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.lane.Lane;
+import com.example.lemonade_stand.lane.LaneProperties;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Shares the CPU time spent serving orders between batches and lanes. Serving
+ * is pure in-memory work, so at most {@code lemonade.batch.serving-slots}
+ * batches serve at once, by default one per processor. A batch holds a slot
+ * for at most {@code lemonade.batch.max-chunk-size} orders, then hands it to a
+ * waiting batch and queues for it again. A small batch therefore waits for one
+ * chunk of a large batch rather than for all of it.
+ * <p>
+ * Waiting batches queue by {@link Lane}, in arrival order within a lane. A
+ * free slot goes to the lanes in proportion to their
+ * {@code lemonade.lanes.*.weight}, by smooth weighted round robin, so
+ * checkouts get most turns while imports are running but imports still make
+ * progress.
+ * <p>
+ * Chunks only take turns; the batch still holds one reservation and commits or
+ * fails as a whole, so its result is the same as if it had been served in one
+ * go.
+ */
+@Component
+public class ServingScheduler {
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+	@Autowired
+	private LaneProperties laneProperties;
+
+	@Value("${lemonade.batch.max-chunk-size:1000}")
+	private int maxChunkSize; // Orders served per turn, 0 to serve without taking turns
+	@Value("${lemonade.batch.serving-slots:0}")
+	private int servingSlots; // Batches serving at once, 0 for one per processor
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final ArrayDeque<Waiter>[] waiting = newQueues(); // Batches waiting for a slot, by lane
+	private final int[] weights = new int[Lane.values().length]; // Share of turns of each lane
+	private final int[] credits = new int[Lane.values().length]; // Round robin credit of each lane
+	private int freeSlots; // Slots no batch holds; only non-zero while nobody waits
+	private final LongAdder yields = new LongAdder(); // Turns handed over mid-batch
+
+	@PostConstruct
+	public void init() {
+		freeSlots = servingSlots > 0 ? servingSlots : Runtime.getRuntime().availableProcessors();
+		for (Lane lane : Lane.values()) {
+			weights[lane.ordinal()] = Math.max(1, laneProperties.get(lane).getWeight());
+			Gauge.builder("lemonade.batch.serving.waiting", this, s -> s.getWaiting(lane))
+					.tags(Tags.of("lane", lane.tag())).description("Batches waiting for a serving turn")
+					.register(meterRegistry);
+		}
+		FunctionCounter.builder("lemonade.batch.serving.yields", yields, LongAdder::sum)
+				.description("Serving turns handed over between chunks").register(meterRegistry);
+	}
+
+	/**
+	 * Waits for a serving slot.
+	 *
+	 * @param lane The lane of the batch.
+	 * @return The turn, to be told of every order served and closed when the
+	 *         batch has been served.
+	 */
+	public ServingTurn start(Lane lane) {
+		if (maxChunkSize <= 0) {
+			return ServingTurn.UNSCHEDULED;
+		}
+		lock.lock();
+		try {
+			if (freeSlots > 0) {
+				freeSlots--;
+			} else {
+				awaitTurn(lane);
+			}
+		} finally {
+			lock.unlock();
+		}
+		return new ServingTurn(this, maxChunkSize, lane);
+	}
+
+	/**
+	 * @return Batches waiting for a serving slot, in every lane.
+	 */
+	public int getWaiting() {
+		int total = 0;
+		for (Lane lane : Lane.values()) {
+			total += getWaiting(lane);
+		}
+		return total;
+	}
+
+	/**
+	 * @param lane An execution lane.
+	 * @return Batches of that lane waiting for a serving slot.
+	 */
+	public int getWaiting(Lane lane) {
+		lock.lock();
+		try {
+			return waiting[lane.ordinal()].size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Hands the slot to the next waiting batch, if any, and queues behind it
+	boolean yieldTurn(Lane lane) {
+		lock.lock();
+		try {
+			Waiter next = next();
+			if (next == null) {
+				return false;
+			}
+			next.grant();
+			awaitTurn(lane);
+		} finally {
+			lock.unlock();
+		}
+		yields.increment();
+		return true;
+	}
+
+	void end() {
+		lock.lock();
+		try {
+			Waiter next = next();
+			if (next != null) {
+				next.grant();
+			} else {
+				freeSlots++;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Queues in the lane and waits until a slot is handed over; lock held
+	private void awaitTurn(Lane lane) {
+		Waiter waiter = new Waiter(lock.newCondition());
+		waiting[lane.ordinal()].add(waiter);
+		while (!waiter.granted) {
+			waiter.turn.awaitUninterruptibly();
+		}
+	}
+
+	// Smooth weighted round robin over the lanes with waiting batches; lock held
+	private Waiter next() {
+		int best = -1;
+		int total = 0;
+		for (int i = 0; i < waiting.length; i++) {
+			if (waiting[i].isEmpty()) {
+				credits[i] = 0; // An idle lane neither saves up nor owes turns
+				continue;
+			}
+			credits[i] += weights[i];
+			total += weights[i];
+			if (best < 0 || credits[i] > credits[best]) {
+				best = i;
+			}
+		}
+		if (best < 0) {
+			return null;
+		}
+		credits[best] -= total;
+		return waiting[best].poll();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ArrayDeque<Waiter>[] newQueues() {
+		ArrayDeque<Waiter>[] queues = new ArrayDeque[Lane.values().length];
+		for (int i = 0; i < queues.length; i++) {
+			queues[i] = new ArrayDeque<>();
+		}
+		return queues;
+	}
+
+	// A batch waiting for a slot; granted once a slot was handed to it
+	private static final class Waiter {
+		final Condition turn;
+		boolean granted;
+
+		Waiter(Condition turn) {
+			this.turn = turn;
+		}
+
+		void grant() {
+			granted = true;
+			turn.signal();
+		}
+	}
+}
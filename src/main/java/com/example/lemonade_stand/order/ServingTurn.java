@@ -0,0 +1,55 @@
+package com.example.lemonade_stand.order;
+
+import com.example.lemonade_stand.lane.Lane;
+
+/**
+ * A batch's hold on a serving slot, handed over after every chunk of orders.
+ * Used by the thread serving the batch only.
+ */
+public final class ServingTurn implements AutoCloseable {
+
+	/** Turn of a batch served without taking turns. */
+	static final ServingTurn UNSCHEDULED = new ServingTurn(null, Integer.MAX_VALUE, null);
+
+	private final ServingScheduler scheduler;
+	private final int chunkSize; // Orders served before the turn is handed over
+	private final Lane lane; // Lane the batch queues in for its next turn
+	private int servedInChunk;
+	private int yields;
+
+	ServingTurn(ServingScheduler scheduler, int chunkSize, Lane lane) {
+		this.scheduler = scheduler;
+		this.chunkSize = chunkSize;
+		this.lane = lane;
+	}
+
+	/**
+	 * Counts one order served, handing the slot over if the chunk is complete and
+	 * another batch is waiting.
+	 */
+	public void served() {
+		if (scheduler != null && ++servedInChunk == chunkSize) {
+			servedInChunk = 0;
+			if (scheduler.yieldTurn(lane)) {
+				yields++;
+			}
+		}
+	}
+
+	/**
+	 * @return Times this batch handed its slot over.
+	 */
+	public int getYields() {
+		return yields;
+	}
+
+	/**
+	 * Gives the slot back.
+	 */
+	@Override
+	public void close() {
+		if (scheduler != null) {
+			scheduler.end();
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.example.lemonade_stand.profiling;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.time.Duration;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.example.lemonade_stand.order.ChangeEvent;
+import com.example.lemonade_stand.order.OrderBatchEvent;
+import com.example.lemonade_stand.order.RepositoryCallEvent;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Runs one JDK Flight Recorder recording at a time on demand. A recording uses
+ * the JDK's "profile" settings plus the order processing events, and is bounded
+ * in duration, age and size so a forgotten one cannot fill the disk. The last
+ * recording is kept for download until the next one starts.
+ */
+@Service
+@ConditionalOnProperty(name = "lemonade.profiling.enabled", havingValue = "true")
+public class ProfilingService {
+
+	@Value("${lemonade.profiling.max-duration-seconds:900}")
+	private long maxDurationSeconds; // Longest a recording runs before stopping itself
+	@Value("${lemonade.profiling.max-age-seconds:600}")
+	private long maxAgeSeconds; // Oldest data kept on disk while recording
+	@Value("${lemonade.profiling.max-size-mb:64}")
+	private long maxSizeMb; // Most data kept on disk while recording
+
+	private Recording recording; // The running or last finished recording, if any
+
+	/**
+	 * Starts a new recording, discarding the last one.
+	 *
+	 * @param durationSeconds Time until the recording stops itself, capped at the
+	 *                        configured maximum; 0 for the maximum.
+	 * @return The status of the new recording, or null if one is already running.
+	 * @throws IOException    If the recording settings cannot be read.
+	 * @throws ParseException If the recording settings cannot be parsed.
+	 */
+	public synchronized ProfilingStatus start(long durationSeconds) throws IOException, ParseException {
+		if (isRunning()) {
+			return null;
+		}
+		if (recording != null) {
+			recording.close();
+		}
+		long seconds = durationSeconds > 0 ? Math.min(durationSeconds, maxDurationSeconds) : maxDurationSeconds;
+		Recording started = new Recording(Configuration.getConfiguration("profile"));
+		started.setName("lemonade-profiling");
+		started.enable(OrderBatchEvent.NAME);
+		started.enable(ChangeEvent.NAME);
+		started.enable(RepositoryCallEvent.NAME).withStackTrace();
+		started.setToDisk(true);
+		started.setDuration(Duration.ofSeconds(seconds));
+		started.setMaxAge(Duration.ofSeconds(maxAgeSeconds));
+		started.setMaxSize(maxSizeMb * 1024 * 1024);
+		started.start();
+		recording = started;
+		return getStatus();
+	}
+
+	/**
+	 * Stops the running recording and keeps it for download.
+	 *
+	 * @return The status of the stopped recording, or null if none was running.
+	 */
+	public synchronized ProfilingStatus stop() {
+		if (!isRunning()) {
+			return null;
+		}
+		recording.stop();
+		return getStatus();
+	}
+
+	/**
+	 * @return The status of the running or last recording.
+	 */
+	public synchronized ProfilingStatus getStatus() {
+		if (recording == null) {
+			return new ProfilingStatus(0, "NONE", null, null, 0);
+		}
+		return new ProfilingStatus(recording.getId(), recording.getState().name(), recording.getStartTime(),
+				recording.getStopTime(), recording.getSize());
+	}
+
+	/**
+	 * Opens the data of the last recording once it has stopped.
+	 *
+	 * @return A stream of the recording file, or null if there is no stopped
+	 *         recording.
+	 * @throws IOException If the recording data cannot be read.
+	 */
+	public synchronized InputStream openRecording() throws IOException {
+		if (recording == null || recording.getState() != RecordingState.STOPPED) {
+			return null;
+		}
+		return recording.getStream(null, null);
+	}
+
+	/**
+	 * @return True if a recording is running or about to start.
+	 */
+	public synchronized boolean isRunning() {
+		return recording != null && (recording.getState() == RecordingState.RUNNING
+				|| recording.getState() == RecordingState.DELAYED);
+	}
+
+	@PreDestroy
+	public synchronized void close() {
+		if (recording != null) {
+			recording.close();
+			recording = null;
+		}
+	}
+}
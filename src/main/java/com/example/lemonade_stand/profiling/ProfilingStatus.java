@@ -0,0 +1,48 @@
+package com.example.lemonade_stand.profiling;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * State of the running or last profiling recording.
+ */
+public class ProfilingStatus {
+
+	private final long id; // Recording id, 0 if none was made yet
+	private final String state; // NONE, RUNNING, STOPPED or CLOSED
+	private final Instant startTime; // Null until the recording starts
+	private final Instant stopTime; // Null while the recording runs
+	private final long sizeBytes; // Recorded data on disk so far
+
+	public ProfilingStatus(long id, String state, Instant startTime, Instant stopTime, long sizeBytes) {
+		this.id = id;
+		this.state = state;
+		this.startTime = startTime;
+		this.stopTime = stopTime;
+		this.sizeBytes = sizeBytes;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getState() {
+		return state;
+	}
+
+	@JsonProperty("start_time")
+	public Instant getStartTime() {
+		return startTime;
+	}
+
+	@JsonProperty("stop_time")
+	public Instant getStopTime() {
+		return stopTime;
+	}
+
+	@JsonProperty("size_bytes")
+	public long getSizeBytes() {
+		return sizeBytes;
+	}
+}
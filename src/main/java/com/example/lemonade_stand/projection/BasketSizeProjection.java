@@ -0,0 +1,78 @@
+package com.example.lemonade_stand.projection;
+
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.order.BatchProcessedEvent;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Average number of lemonades per order and orders per batch, over committed
+ * batches.
+ */
+@Component
+public class BasketSizeProjection implements SalesProjection {
+
+	private long batches; // Committed batches
+	private long orders; // Orders of committed batches
+	private long lemonades; // Lemonades sold
+
+	@Override
+	public String getName() {
+		return "basket-size";
+	}
+
+	@Override
+	public synchronized void apply(BatchProcessedEvent event) {
+		if (event.isCommitted()) {
+			batches++;
+			orders += event.getBatch().size();
+			lemonades += event.getLemonadesSold();
+		}
+	}
+
+	@Override
+	public synchronized void reset() {
+		batches = 0;
+		orders = 0;
+		lemonades = 0;
+	}
+
+	@Override
+	public synchronized BasketSize query() {
+		return new BasketSize(batches, orders, lemonades);
+	}
+
+	public static class BasketSize {
+		private final long batches; // Committed batches
+		private final long orders; // Orders of committed batches
+		private final long lemonades; // Lemonades sold
+
+		public BasketSize(long batches, long orders, long lemonades) {
+			this.batches = batches;
+			this.orders = orders;
+			this.lemonades = lemonades;
+		}
+
+		public long getBatches() {
+			return batches;
+		}
+
+		public long getOrders() {
+			return orders;
+		}
+
+		public long getLemonades() {
+			return lemonades;
+		}
+
+		@JsonProperty("lemonades_per_order")
+		public double getLemonadesPerOrder() {
+			return orders > 0 ? (double) lemonades / orders : 0;
+		}
+
+		@JsonProperty("orders_per_batch")
+		public double getOrdersPerBatch() {
+			return batches > 0 ? (double) orders / batches : 0;
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.example.lemonade_stand.projection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.order.BatchProcessedEvent;
+import com.example.lemonade_stand.order.OrderBatch;
+import com.example.lemonade_stand.util.AppConstants;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Turnover by the denomination customers paid with: bills collected, the
+ * revenue of the orders paid with them and the change handed back on those
+ * orders, over committed batches.
+ */
+@Component
+public class DenominationTurnoverProjection implements SalesProjection {
+
+	private final long[] billsCollected = new long[AppConstants.BILL_DENOMINATIONS.size()];
+	private final long[] lemonades = new long[AppConstants.BILL_DENOMINATIONS.size()];
+	private final long[] changeGiven = new long[AppConstants.BILL_DENOMINATIONS.size()];
+
+	@Override
+	public String getName() {
+		return "denomination-turnover";
+	}
+
+	@Override
+	public synchronized void apply(BatchProcessedEvent event) {
+		if (!event.isCommitted()) {
+			return;
+		}
+		OrderBatch batch = event.getBatch();
+		for (int i = 0; i < batch.size(); i++) {
+			int index = AppConstants.BILL_DENOMINATIONS.indexOf(batch.getBillValue(i));
+			billsCollected[index]++;
+			lemonades[index] += batch.getRequestedLemonades(i);
+			changeGiven[index] += event.getChangeGiven(i);
+		}
+	}
+
+	@Override
+	public synchronized void reset() {
+		for (int i = 0; i < billsCollected.length; i++) {
+			billsCollected[i] = 0;
+			lemonades[i] = 0;
+			changeGiven[i] = 0;
+		}
+	}
+
+	@Override
+	public synchronized List<DenominationTurnover> query() {
+		List<DenominationTurnover> turnover = new ArrayList<>(billsCollected.length);
+		for (int i = 0; i < billsCollected.length; i++) {
+			turnover.add(new DenominationTurnover(AppConstants.BILL_DENOMINATIONS.get(i), billsCollected[i],
+					lemonades[i] * AppConstants.LEMONADE_COST, changeGiven[i]));
+		}
+		return turnover;
+	}
+
+	public static class DenominationTurnover {
+		private final int denomination; // The bill denomination
+		private final long billsCollected; // Bills of that denomination taken from customers
+		private final long revenue; // Dollars charged on the orders paid with them
+		private final long changeGiven; // Dollars handed back on those orders
+
+		public DenominationTurnover(int denomination, long billsCollected, long revenue, long changeGiven) {
+			this.denomination = denomination;
+			this.billsCollected = billsCollected;
+			this.revenue = revenue;
+			this.changeGiven = changeGiven;
+		}
+
+		public int getDenomination() {
+			return denomination;
+		}
+
+		@JsonProperty("bills_collected")
+		public long getBillsCollected() {
+			return billsCollected;
+		}
+
+		public long getRevenue() {
+			return revenue;
+		}
+
+		@JsonProperty("change_given")
+		public long getChangeGiven() {
+			return changeGiven;
+		}
+	}
+}
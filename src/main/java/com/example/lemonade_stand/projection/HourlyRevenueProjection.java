@@ -0,0 +1,90 @@
+package com.example.lemonade_stand.projection;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.order.BatchProcessedEvent;
+import com.example.lemonade_stand.util.AppConstants;
+
+/**
+ * Orders, lemonades and revenue per hour of processing, over committed
+ * batches. Only the hours within {@code lemonade.projection.hourly-retention-hours}
+ * of the latest batch are kept.
+ */
+@Component
+public class HourlyRevenueProjection implements SalesProjection {
+
+	private static final long HOUR_SECONDS = TimeUnit.HOURS.toSeconds(1);
+
+	@Value("${lemonade.projection.hourly-retention-hours:168}")
+	private int retentionHours; // Hours kept before the latest one
+
+	private final TreeMap<Long, long[]> hours = new TreeMap<>(); // Orders and lemonades by epoch hour
+
+	@Override
+	public String getName() {
+		return "hourly-revenue";
+	}
+
+	@Override
+	public synchronized void apply(BatchProcessedEvent event) {
+		if (!event.isCommitted()) {
+			return;
+		}
+		long hour = event.getProcessedAt().getEpochSecond() / HOUR_SECONDS;
+		long[] totals = hours.computeIfAbsent(hour, h -> new long[2]);
+		totals[0] += event.getBatch().size();
+		totals[1] += event.getLemonadesSold();
+		hours.headMap(hours.lastKey() - retentionHours).clear();
+	}
+
+	@Override
+	public synchronized void reset() {
+		hours.clear();
+	}
+
+	@Override
+	public synchronized List<HourlyRevenue> query() {
+		List<HourlyRevenue> revenue = new ArrayList<>(hours.size());
+		for (Map.Entry<Long, long[]> hour : hours.entrySet()) {
+			revenue.add(new HourlyRevenue(Instant.ofEpochSecond(hour.getKey() * HOUR_SECONDS), hour.getValue()[0],
+					hour.getValue()[1]));
+		}
+		return revenue;
+	}
+
+	public static class HourlyRevenue {
+		private final Instant hour; // Start of the hour
+		private final long orders; // Orders of committed batches processed in the hour
+		private final long lemonades; // Lemonades sold in the hour
+
+		public HourlyRevenue(Instant hour, long orders, long lemonades) {
+			this.hour = hour;
+			this.orders = orders;
+			this.lemonades = lemonades;
+		}
+
+		public Instant getHour() {
+			return hour;
+		}
+
+		public long getOrders() {
+			return orders;
+		}
+
+		public long getLemonades() {
+			return lemonades;
+		}
+
+		public long getRevenue() {
+			return lemonades * AppConstants.LEMONADE_COST;
+		}
+	}
+}
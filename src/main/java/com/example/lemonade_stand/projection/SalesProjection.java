@@ -0,0 +1,37 @@
+package com.example.lemonade_stand.projection;
+
+import com.example.lemonade_stand.order.BatchProcessedEvent;
+
+/**
+ * Read model kept in memory and updated incrementally from the batches in the
+ * order ledger. Implementations are Spring beans; {@link SalesProjections}
+ * finds them, feeds them every batch once it is in the ledger and rebuilds
+ * them by replaying the ledger.
+ * <p>
+ * {@link #apply} and {@link #reset} are never called concurrently with each
+ * other, but {@link #query} may be called at any time from request threads.
+ */
+public interface SalesProjection {
+
+	/**
+	 * @return Name the read model is queried by, e.g. "basket-size".
+	 */
+	String getName();
+
+	/**
+	 * Folds one batch into the read model, committed or not.
+	 *
+	 * @param event The batch, as processed or as replayed from the ledger.
+	 */
+	void apply(BatchProcessedEvent event);
+
+	/**
+	 * Empties the read model before a rebuild.
+	 */
+	void reset();
+
+	/**
+	 * @return The current read model, serialisable as JSON.
+	 */
+	Object query();
+}
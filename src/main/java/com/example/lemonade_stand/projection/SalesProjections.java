@@ -0,0 +1,91 @@
+package com.example.lemonade_stand.projection;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.ledger.LedgerAppendedEvent;
+import com.example.lemonade_stand.ledger.LedgerReplayer;
+import com.example.lemonade_stand.ledger.OrderLedgerWriter;
+import com.example.lemonade_stand.order.BatchProcessedEvent;
+
+/**
+ * Keeps every {@link SalesProjection} in step with the order ledger. Batches
+ * are applied on the ledger writer thread right after they are written, so
+ * request threads pay nothing beyond publishing the batch event they already
+ * publish, and a read model always reflects a prefix of the ledger. A rebuild
+ * pauses ledger writes, replays the whole ledger into emptied read models and
+ * lets writes resume, so no batch is applied twice or missed.
+ */
+@Component
+public class SalesProjections {
+
+	private static final Logger log = LoggerFactory.getLogger(SalesProjections.class);
+
+	@Autowired
+	private List<SalesProjection> projections;
+	@Autowired
+	private OrderLedgerWriter ledgerWriter;
+	@Autowired
+	private LedgerReplayer ledgerReplayer;
+
+	/**
+	 * Applies batches just written to the ledger.
+	 *
+	 * @param event The batches written.
+	 */
+	@EventListener
+	public void onLedgerAppended(LedgerAppendedEvent event) {
+		for (BatchProcessedEvent batch : event.getBatches()) {
+			apply(batch);
+		}
+	}
+
+	/**
+	 * Empties every read model and replays the ledger into them.
+	 *
+	 * @return The number of batches replayed.
+	 */
+	public long rebuild() {
+		long replayed = ledgerWriter.whileWritesPaused(() -> {
+			projections.forEach(SalesProjection::reset);
+			return ledgerReplayer.replay(this::apply);
+		});
+		log.info("Rebuilt {} sales projections from {} ledger batches", projections.size(), replayed);
+		return replayed;
+	}
+
+	/**
+	 * @param name Name of a read model.
+	 * @return Its current state, or empty if there is no read model of that name.
+	 */
+	public Optional<Object> query(String name) {
+		return projections.stream().filter(projection -> projection.getName().equals(name)).findFirst()
+				.map(SalesProjection::query);
+	}
+
+	/**
+	 * @return Names of every read model.
+	 */
+	public List<String> getNames() {
+		return projections.stream().map(SalesProjection::getName).sorted().collect(Collectors.toList());
+	}
+
+	// A failing read model must not stop the others or the ledger writer
+	private void apply(BatchProcessedEvent batch) {
+		for (SalesProjection projection : projections) {
+			try {
+				projection.apply(batch);
+			} catch (RuntimeException e) {
+				log.error("Sales projection {} failed on batch {}; rebuild to recover", projection.getName(),
+						batch.getBatchId(), e);
+			}
+		}
+	}
+}
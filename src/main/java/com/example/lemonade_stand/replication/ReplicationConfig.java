@@ -0,0 +1,34 @@
+package com.example.lemonade_stand.replication;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Registers write forwarding on followers. Order processing and the business
+ * days, which only the leader keeps, are sent to the leader; reports and
+ * forecasts are served from the local replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "lemonade.replication.role", havingValue = "follower")
+public class ReplicationConfig {
+
+	@Bean
+	public FilterRegistrationBean<WriteForwardingFilter> writeForwardingFilterRegistration(
+			@Value("${lemonade.replication.leader-url:http://localhost:8080}") String leaderUrl,
+			@Value("${lemonade.replication.forward-timeout-millis:5000}") long forwardTimeoutMillis,
+			ObjectMapper objectMapper) {
+		FilterRegistrationBean<WriteForwardingFilter> registration = new FilterRegistrationBean<>(
+				new WriteForwardingFilter(leaderUrl, Duration.ofMillis(forwardTimeoutMillis), objectMapper));
+		registration.addUrlPatterns("/api/orders/process", "/api/days", "/api/days/*");
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 90); // The leader applies admission control
+		return registration;
+	}
+}
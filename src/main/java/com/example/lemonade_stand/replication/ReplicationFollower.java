@@ -0,0 +1,176 @@
+package com.example.lemonade_stand.replication;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.drawer.CashDrawer;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+import com.example.lemonade_stand.util.AppConstants;
+
+/**
+ * Keeps a replica of the leader's drawer when
+ * {@code lemonade.replication.role=follower}. The replica is written to the
+ * local database and drawer, so reports and forecasts are served by the
+ * follower without touching the leader. Frames that arrive together are
+ * applied in memory and written once.
+ */
+@Component
+@ConditionalOnProperty(name = "lemonade.replication.role", havingValue = "follower")
+public class ReplicationFollower {
+
+	private static final Logger log = LoggerFactory.getLogger(ReplicationFollower.class);
+
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+	@Autowired
+	private CashDrawer cashDrawer;
+
+	@Value("${lemonade.replication.leader-host:localhost}")
+	private String leaderHost;
+	@Value("${lemonade.replication.leader-port:7070}")
+	private int leaderPort;
+	@Value("${lemonade.replication.heartbeat-millis:1000}")
+	private long heartbeatMillis; // The leader is presumed gone after three missed heartbeats
+	@Value("${lemonade.replication.retry-millis:1000}")
+	private long retryMillis; // Delay before reconnecting to the leader
+
+	// Replica state, only touched by the replication thread
+	private final int[] counts = new int[AppConstants.BILL_DENOMINATIONS.size()];
+	private long lemonadesSold;
+
+	private volatile long appliedSequence; // Last log entry written to the database
+	private volatile boolean connected;
+	private volatile boolean running;
+	private volatile Socket socket;
+	private Thread replicationThread;
+
+	/**
+	 * Starts following the leader once the local database is initialized.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		running = true;
+		replicationThread = new Thread(this::replicate, "replication-follower");
+		replicationThread.setDaemon(true);
+		replicationThread.start();
+	}
+
+	/**
+	 * @return The sequence number of the last leader log entry applied locally.
+	 */
+	public long getAppliedSequence() {
+		return appliedSequence;
+	}
+
+	/**
+	 * @return True while the leader's stream is connected.
+	 */
+	public boolean isConnected() {
+		return connected;
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		closeSocket();
+		if (replicationThread != null) {
+			replicationThread.interrupt();
+			replicationThread.join(retryMillis + 1000);
+		}
+	}
+
+	// Replication thread loop: follow the leader, reconnecting whenever the stream
+	// breaks; every connection starts from a snapshot
+	private void replicate() {
+		while (running) {
+			try (Socket leader = new Socket()) {
+				socket = leader;
+				leader.connect(new InetSocketAddress(leaderHost, leaderPort), (int) retryMillis);
+				leader.setSoTimeout((int) (3 * heartbeatMillis));
+				connected = true;
+				log.info("Following replication leader {}:{}", leaderHost, leaderPort);
+				follow(new DataInputStream(new BufferedInputStream(leader.getInputStream())));
+			} catch (IOException e) {
+				if (running && connected) {
+					log.warn("Lost replication leader {}:{}: {}", leaderHost, leaderPort, e.getMessage());
+				}
+			} finally {
+				connected = false;
+			}
+			sleepBeforeRetry();
+		}
+	}
+
+	private void follow(DataInputStream in) throws IOException {
+		long sequence = -1; // Unknown until the first snapshot
+		boolean dirty = false; // Frames applied in memory but not yet written
+		while (running) {
+			ReplicationFrame frame = ReplicationFrame.read(in);
+			if (frame.type == ReplicationFrame.SNAPSHOT) {
+				System.arraycopy(frame.bills, 0, counts, 0, counts.length);
+				lemonadesSold = frame.lemonades;
+				sequence = frame.sequence;
+				dirty = true;
+			} else if (frame.type == ReplicationFrame.DELTA) {
+				if (sequence < 0 || frame.sequence != sequence + 1) {
+					throw new IOException("Replication log gap after " + sequence + ", got " + frame.sequence);
+				}
+				for (int index = 0; index < counts.length; index++) {
+					counts[index] += frame.bills[index];
+				}
+				lemonadesSold += frame.lemonades;
+				sequence = frame.sequence;
+				dirty = true;
+			}
+
+			// Write once per burst of frames rather than once per frame
+			if (dirty && in.available() < ReplicationFrame.BYTES) {
+				persist();
+				appliedSequence = sequence;
+				dirty = false;
+			}
+		}
+	}
+
+	// Writes the burst in one transaction, then mirrors it in the local drawer
+	private void persist() {
+		orderRepositoryService.replaceState(counts, lemonadesSold);
+		for (int index = 0; index < counts.length; index++) {
+			cashDrawer.reset(AppConstants.BILL_DENOMINATIONS.get(index), counts[index]);
+		}
+	}
+
+	private void sleepBeforeRetry() {
+		try {
+			Thread.sleep(retryMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			running = false;
+		}
+	}
+
+	private void closeSocket() {
+		Socket current = socket;
+		if (current != null) {
+			try {
+				current.close();
+			} catch (IOException e) {
+				// Already closed
+			}
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.lemonade_stand.replication;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.example.lemonade_stand.util.AppConstants;
+
+/**
+ * One message of the replication stream. Every frame has the same fixed size:
+ * a type byte, the log sequence number, one int per denomination and a long.
+ * <ul>
+ * <li>{@link #SNAPSHOT}: the full drawer, bill counts and lemonades sold.</li>
+ * <li>{@link #DELTA}: one committed batch, net bills added per denomination and
+ * lemonades sold by it.</li>
+ * <li>{@link #HEARTBEAT}: nothing happened; keeps idle connections checked.</li>
+ * </ul>
+ */
+final class ReplicationFrame {
+
+	static final byte SNAPSHOT = 1;
+	static final byte DELTA = 2;
+	static final byte HEARTBEAT = 3;
+
+	static final int BYTES = 1 + Long.BYTES + Integer.BYTES * AppConstants.BILL_DENOMINATIONS.size() + Long.BYTES;
+
+	final byte type;
+	final long sequence; // Log position of the frame, 0 for a heartbeat
+	final int[] bills; // Counts for a snapshot, net deltas for a delta
+	final long lemonades; // Total sold for a snapshot, sold by the batch for a delta
+
+	ReplicationFrame(byte type, long sequence, int[] bills, long lemonades) {
+		this.type = type;
+		this.sequence = sequence;
+		this.bills = bills;
+		this.lemonades = lemonades;
+	}
+
+	/**
+	 * @return The frame in its wire form.
+	 */
+	byte[] encode() {
+		ByteBuffer buffer = ByteBuffer.allocate(BYTES);
+		buffer.put(type).putLong(sequence);
+		for (int bill : bills) {
+			buffer.putInt(bill);
+		}
+		return buffer.putLong(lemonades).array();
+	}
+
+	/**
+	 * Reads the next frame, blocking until it has fully arrived.
+	 *
+	 * @param in The replication stream.
+	 * @return The frame.
+	 * @throws IOException If the stream ends or holds an unknown frame type.
+	 */
+	static ReplicationFrame read(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		if (type != SNAPSHOT && type != DELTA && type != HEARTBEAT) {
+			throw new IOException("Unknown replication frame type " + type);
+		}
+		long sequence = in.readLong();
+		int[] bills = new int[AppConstants.BILL_DENOMINATIONS.size()];
+		for (int index = 0; index < bills.length; index++) {
+			bills[index] = in.readInt();
+		}
+		return new ReplicationFrame(type, sequence, bills, in.readLong());
+	}
+}
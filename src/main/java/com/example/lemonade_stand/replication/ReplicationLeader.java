@@ -0,0 +1,245 @@
+package com.example.lemonade_stand.replication;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.drawer.CashDrawer;
+import com.example.lemonade_stand.order.BatchProcessedEvent;
+import com.example.lemonade_stand.util.AppConstants;
+
+/**
+ * Owns the drawer when {@code lemonade.replication.role=leader}. Every committed
+ * batch becomes a numbered delta in the replication log and is streamed to the
+ * connected followers over TCP. A follower that connects, or falls too far
+ * behind and is dropped, starts again from a snapshot of the log's state.
+ */
+@Component
+@ConditionalOnProperty(name = "lemonade.replication.role", havingValue = "leader")
+public class ReplicationLeader {
+
+	private static final Logger log = LoggerFactory.getLogger(ReplicationLeader.class);
+
+	private static final byte[] HEARTBEAT_FRAME = new ReplicationFrame(ReplicationFrame.HEARTBEAT, 0,
+			new int[AppConstants.BILL_DENOMINATIONS.size()], 0).encode();
+
+	@Autowired
+	private CashDrawer cashDrawer;
+
+	@Value("${lemonade.replication.port:7070}")
+	private int port; // Port followers connect to, 0 for any free port
+	@Value("${lemonade.replication.follower-queue-capacity:10000}")
+	private int followerQueueCapacity; // Frames buffered per follower before it is dropped
+	@Value("${lemonade.replication.heartbeat-millis:1000}")
+	private long heartbeatMillis; // Idle time after which a heartbeat is sent
+
+	// State of the log, guarded by this
+	private final int[] counts = new int[AppConstants.BILL_DENOMINATIONS.size()];
+	private long lemonadesSold;
+	private long sequence;
+
+	private final List<FollowerSession> followers = new CopyOnWriteArrayList<>();
+	private ServerSocket serverSocket;
+	private volatile boolean running;
+
+	/**
+	 * Starts accepting followers once the drawer has been loaded.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() throws IOException {
+		resync();
+		serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		running = true;
+		Thread acceptor = new Thread(this::acceptFollowers, "replication-acceptor");
+		acceptor.setDaemon(true);
+		acceptor.start();
+		log.info("Replication leader listening on port {}", serverSocket.getLocalPort());
+	}
+
+	/**
+	 * Replaces the log state with the drawer as it is now and sends it to every
+	 * follower as a snapshot, e.g. after the drawer was reset outside of batch
+	 * processing. Must not be called while batches are in flight.
+	 */
+	public synchronized void resync() {
+		for (int index = 0; index < counts.length; index++) {
+			counts[index] = cashDrawer.getAvailable(AppConstants.BILL_DENOMINATIONS.get(index));
+		}
+		lemonadesSold = cashDrawer.getLemonadesSold();
+		sequence++;
+		byte[] snapshot = snapshotFrame();
+		for (FollowerSession follower : followers) {
+			follower.send(snapshot);
+		}
+	}
+
+	/**
+	 * Appends a committed batch to the log and streams it to the followers.
+	 *
+	 * @param event The processed batch.
+	 */
+	@EventListener
+	public void onBatchProcessed(BatchProcessedEvent event) {
+		if (!event.isCommitted()) {
+			return;
+		}
+		int[] deltas = new int[counts.length];
+		for (int index = 0; index < deltas.length; index++) {
+			int denomination = AppConstants.BILL_DENOMINATIONS.get(index);
+			deltas[index] = event.getBillsCollected().getCount(denomination)
+					- event.getChangePaid().getCount(denomination);
+		}
+		synchronized (this) {
+			for (int index = 0; index < deltas.length; index++) {
+				counts[index] += deltas[index];
+			}
+			lemonadesSold += event.getLemonadesSold();
+			byte[] delta = new ReplicationFrame(ReplicationFrame.DELTA, ++sequence, deltas, event.getLemonadesSold())
+					.encode();
+			for (FollowerSession follower : followers) {
+				follower.send(delta);
+			}
+		}
+	}
+
+	/**
+	 * @return The port followers connect to.
+	 */
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * @return The sequence number of the last log entry.
+	 */
+	public synchronized long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * @return The number of connected followers.
+	 */
+	public int getFollowerCount() {
+		return followers.size();
+	}
+
+	@PreDestroy
+	public void stop() throws IOException {
+		running = false;
+		if (serverSocket != null) {
+			serverSocket.close();
+		}
+		for (FollowerSession follower : followers) {
+			follower.close();
+		}
+	}
+
+	private byte[] snapshotFrame() {
+		return new ReplicationFrame(ReplicationFrame.SNAPSHOT, sequence, counts.clone(), lemonadesSold).encode();
+	}
+
+	// Acceptor thread loop: every follower starts from a snapshot queued before
+	// any later delta
+	private void acceptFollowers() {
+		while (running) {
+			try {
+				Socket socket = serverSocket.accept();
+				socket.setTcpNoDelay(true);
+				FollowerSession follower = new FollowerSession(socket);
+				synchronized (this) {
+					follower.send(snapshotFrame());
+					followers.add(follower);
+				}
+				follower.start();
+				log.info("Replication follower {} connected", socket.getRemoteSocketAddress());
+			} catch (SocketException e) {
+				// Server socket closed on shutdown
+			} catch (IOException e) {
+				log.warn("Failed to accept a replication follower", e);
+			}
+		}
+	}
+
+	/**
+	 * One connected follower with its own send queue and sender thread, so a slow
+	 * follower never delays batch processing or the other followers.
+	 */
+	private final class FollowerSession {
+
+		private final Socket socket;
+		private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(followerQueueCapacity);
+		private volatile boolean open = true;
+
+		FollowerSession(Socket socket) {
+			this.socket = socket;
+		}
+
+		void start() {
+			Thread sender = new Thread(this::sendFrames, "replication-sender-" + socket.getPort());
+			sender.setDaemon(true);
+			sender.start();
+		}
+
+		// A follower that cannot keep up is dropped and resyncs from a snapshot
+		void send(byte[] frame) {
+			if (open && !queue.offer(frame)) {
+				log.warn("Replication follower {} fell behind, disconnecting", socket.getRemoteSocketAddress());
+				close();
+			}
+		}
+
+		void close() {
+			open = false;
+			followers.remove(this);
+			try {
+				socket.close();
+			} catch (IOException e) {
+				// Already closed
+			}
+		}
+
+		private void sendFrames() {
+			try (OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+				while (open) {
+					byte[] frame = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+					if (frame == null) {
+						frame = HEARTBEAT_FRAME;
+					}
+					out.write(frame);
+					for (byte[] next = queue.poll(); next != null; next = queue.poll()) {
+						out.write(next);
+					}
+					out.flush();
+				}
+			} catch (IOException e) {
+				if (open) {
+					log.info("Replication follower {} disconnected", socket.getRemoteSocketAddress());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				close();
+			}
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.example.lemonade_stand.replication;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.lemonade_stand.admission.AdmissionFilter;
+import com.example.lemonade_stand.exception_handler.GlobalExceptionHandler.ErrorResponse;
+import com.example.lemonade_stand.lane.Lane;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Sends writes received by a follower to the leader, which owns the drawer, and
+ * relays the leader's answer. The client id is passed on so the leader's
+ * admission control still sees each client rather than the follower, and the
+ * requested lane so the leader runs the batch where the client asked.
+ */
+public class WriteForwardingFilter extends OncePerRequestFilter {
+
+	private static final List<String> FORWARDED_HEADERS = Arrays.asList(HttpHeaders.CONTENT_TYPE,
+			HttpHeaders.ACCEPT, Lane.HEADER, "traceparent");
+	private static final List<String> RELAYED_HEADERS = Arrays.asList(HttpHeaders.CONTENT_TYPE,
+			HttpHeaders.RETRY_AFTER);
+
+	private final String leaderUrl;
+	private final Duration timeout;
+	private final ObjectMapper objectMapper;
+	private final HttpClient httpClient;
+
+	public WriteForwardingFilter(String leaderUrl, Duration timeout, ObjectMapper objectMapper) {
+		this.leaderUrl = leaderUrl.endsWith("/") ? leaderUrl.substring(0, leaderUrl.length() - 1) : leaderUrl;
+		this.timeout = timeout;
+		this.objectMapper = objectMapper;
+		this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws IOException {
+		String query = request.getQueryString();
+		HttpRequest.Builder forwarded = HttpRequest
+				.newBuilder(URI.create(leaderUrl + request.getRequestURI() + (query != null ? "?" + query : "")))
+				.timeout(timeout)
+				.method(request.getMethod(), HttpRequest.BodyPublishers.ofByteArray(request.getInputStream().readAllBytes()));
+		for (String header : FORWARDED_HEADERS) {
+			String value = request.getHeader(header);
+			if (value != null) {
+				forwarded.header(header, value);
+			}
+		}
+		String clientId = request.getHeader(AdmissionFilter.CLIENT_ID_HEADER);
+		forwarded.header(AdmissionFilter.CLIENT_ID_HEADER,
+				clientId != null && !clientId.isEmpty() ? clientId : request.getRemoteAddr());
+
+		HttpResponse<byte[]> leaderResponse;
+		try {
+			leaderResponse = httpClient.send(forwarded.build(), HttpResponse.BodyHandlers.ofByteArray());
+		} catch (IOException e) {
+			unavailable(response, "Leader is unreachable.");
+			return;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			unavailable(response, "Interrupted while forwarding to the leader.");
+			return;
+		}
+
+		response.setStatus(leaderResponse.statusCode());
+		for (String header : RELAYED_HEADERS) {
+			leaderResponse.headers().firstValue(header).ifPresent(value -> response.setHeader(header, value));
+		}
+		response.getOutputStream().write(leaderResponse.body());
+	}
+
+	private void unavailable(HttpServletResponse response, String message) throws IOException {
+		response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(),
+				new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), message));
+	}
+}
@@ -0,0 +1,25 @@
+package com.example.lemonade_stand.shutdown;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Registers the drain filter on the order processing endpoint only.
+ */
+@Configuration
+public class DrainConfig {
+
+	@Bean
+	public FilterRegistrationBean<DrainFilter> drainFilterRegistration(DrainCoordinator drainCoordinator,
+			ObjectMapper objectMapper) {
+		FilterRegistrationBean<DrainFilter> registration = new FilterRegistrationBean<>(
+				new DrainFilter(drainCoordinator, objectMapper));
+		registration.addUrlPatterns("/api/orders/process");
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 80); // Before forwarding or admission control
+		return registration;
+	}
+}
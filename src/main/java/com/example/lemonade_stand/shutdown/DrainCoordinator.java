@@ -0,0 +1,129 @@
+package com.example.lemonade_stand.shutdown;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.example.lemonade_stand.database.IncompleteBatchRecord;
+import com.example.lemonade_stand.database.IncompleteBatchRepository;
+import com.example.lemonade_stand.drawer.DrawerCheckpointer;
+import com.example.lemonade_stand.inventory.Inventory;
+import com.example.lemonade_stand.ledger.OrderLedgerWriter;
+
+/**
+ * Drains order processing on shutdown. Stopping the coordinator stops admitting
+ * batches, waits up to {@code lemonade.shutdown.drain-millis} for the admitted
+ * ones to finish, records the ones that did not as incomplete batches, and then
+ * flushes every buffered write while the database is still open.
+ * <p>
+ * Stops in the first shutdown phase, before the web server and well before the
+ * data source is closed.
+ */
+@Component
+public class DrainCoordinator implements SmartLifecycle {
+
+	private static final Logger log = LoggerFactory.getLogger(DrainCoordinator.class);
+
+	@Autowired
+	private IncompleteBatchRepository incompleteBatchRepository;
+	@Autowired
+	private OrderLedgerWriter orderLedgerWriter;
+	@Autowired
+	private Inventory inventory;
+	@Autowired
+	private DrawerCheckpointer drawerCheckpointer;
+
+	@Value("${lemonade.shutdown.drain-millis:10000}")
+	private long drainMillis; // Time in-flight batches get to finish on shutdown
+
+	private final Map<String, InFlightBatch> inFlight = new ConcurrentHashMap<>();
+	private volatile boolean admitting;
+
+	/**
+	 * Admits a batch for processing.
+	 *
+	 * @param batchId Id of the batch.
+	 * @return The batch's handle, or null if the application is draining.
+	 */
+	public InFlightBatch admit(String batchId) {
+		InFlightBatch batch = new InFlightBatch(batchId);
+		inFlight.put(batchId, batch);
+		if (!admitting) {
+			inFlight.remove(batchId); // Re-checked after registering, so a drain never misses a batch
+			return null;
+		}
+		return batch;
+	}
+
+	/**
+	 * Marks an admitted batch as finished, whatever its outcome.
+	 *
+	 * @param batch The batch's handle.
+	 */
+	public void complete(InFlightBatch batch) {
+		inFlight.remove(batch.getBatchId());
+	}
+
+	/**
+	 * @return True while new batches are admitted.
+	 */
+	public boolean isAdmitting() {
+		return admitting;
+	}
+
+	@Override
+	public void start() {
+		admitting = true;
+	}
+
+	@Override
+	public void stop() {
+		admitting = false;
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainMillis);
+		while (!inFlight.isEmpty() && System.nanoTime() < deadline) {
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		for (InFlightBatch batch : inFlight.values()) {
+			batch.abandon();
+			incompleteBatchRepository
+					.save(new IncompleteBatchRecord(batch.getBatchId(), batch.getStage().name(), Instant.now()));
+			inFlight.remove(batch.getBatchId());
+		}
+		flushBufferedWrites();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return admitting;
+	}
+
+	@Override
+	public int getPhase() {
+		return Integer.MAX_VALUE; // Stop first
+	}
+
+	private void flushBufferedWrites() {
+		try {
+			if (!orderLedgerWriter.flush(drainMillis)) {
+				log.warn("Order ledger was not flushed within {} ms", drainMillis);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		inventory.flush();
+		drawerCheckpointer.checkpoint();
+	}
+}
@@ -0,0 +1,46 @@
+package com.example.lemonade_stand.shutdown;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.lemonade_stand.exception_handler.GlobalExceptionHandler.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Turns order batches away with 503 once the application is draining for
+ * shutdown, asking the client to retry on another instance.
+ */
+public class DrainFilter extends OncePerRequestFilter {
+
+	private final DrainCoordinator drainCoordinator;
+	private final ObjectMapper objectMapper;
+
+	public DrainFilter(DrainCoordinator drainCoordinator, ObjectMapper objectMapper) {
+		this.drainCoordinator = drainCoordinator;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		if (drainCoordinator.isAdmitting()) {
+			chain.doFilter(request, response);
+			return;
+		}
+		response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+		response.setHeader(HttpHeaders.CONNECTION, "close");
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(),
+				new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server is shutting down."));
+	}
+}
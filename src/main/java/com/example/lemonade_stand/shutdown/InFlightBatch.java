@@ -0,0 +1,55 @@
+package com.example.lemonade_stand.shutdown;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * One order batch admitted by the {@link DrainCoordinator}. A batch still
+ * serving when the drain deadline passes is abandoned and can no longer
+ * commit; a batch already committing finishes its transaction, which either
+ * writes the whole batch or nothing.
+ */
+public final class InFlightBatch {
+
+	enum Stage {
+		SERVING, COMMITTING
+	}
+
+	private final String batchId;
+	private Stage stage = Stage.SERVING;
+	private boolean abandoned;
+
+	InFlightBatch(String batchId) {
+		this.batchId = batchId;
+	}
+
+	/**
+	 * @return The batch id, shared with the order ledger.
+	 */
+	public String getBatchId() {
+		return batchId;
+	}
+
+	/**
+	 * Prepares the batch's commit in memory unless it was abandoned, as one step
+	 * that an abandoning drain cannot split.
+	 *
+	 * @param commitInMemory Prepares the batch's reservations; false if it could
+	 *                       not.
+	 * @return False if the batch was abandoned or could not commit.
+	 */
+	public synchronized boolean commit(BooleanSupplier commitInMemory) {
+		if (abandoned || !commitInMemory.getAsBoolean()) {
+			return false;
+		}
+		stage = Stage.COMMITTING;
+		return true;
+	}
+
+	synchronized void abandon() {
+		abandoned = true;
+	}
+
+	synchronized Stage getStage() {
+		return stage;
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.lemonade_stand.tracing;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+/**
+ * Times request body binding, which happens before the controller is called.
+ * If binding fails the span is closed together with the root span.
+ */
+@ControllerAdvice
+public class BindingSpanAdvice extends RequestBodyAdviceAdapter {
+
+	static final String SPAN_NAME = "order.bind";
+
+	@Autowired
+	private Tracer tracer;
+
+	@Override
+	public boolean supports(MethodParameter methodParameter, Type targetType,
+			Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+			Class<? extends HttpMessageConverter<?>> converterType) throws IOException {
+		tracer.startSpan(SPAN_NAME).setAttribute("converter", converterType.getSimpleName());
+		return inputMessage;
+	}
+
+	@Override
+	public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+			Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+		Span span = tracer.currentSpan();
+		if (SPAN_NAME.equals(span.getName())) {
+			if (body instanceof Collection) {
+				span.setAttribute("order.count", ((Collection<?>) body).size());
+			} else if (body instanceof byte[]) {
+				span.setAttribute("body.bytes", ((byte[]) body).length);
+			}
+			span.end();
+		}
+		return body;
+	}
+}
@@ -0,0 +1,126 @@
+package com.example.lemonade_stand.tracing;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Appends finished spans to a local file, one JSON object per line, using the
+ * field names of the OTLP JSON encoding so the file can be replayed into a
+ * collector. Traces are queued and written by a background thread; when the
+ * queue is full the trace is dropped and counted rather than slowing the
+ * request down.
+ */
+@Component
+public class JsonLinesSpanExporter implements SpanExporter {
+
+	private static final Logger log = LoggerFactory.getLogger(JsonLinesSpanExporter.class);
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${lemonade.tracing.export-file:}")
+	private String exportFile; // Where spans are appended, empty to disable
+	@Value("${lemonade.tracing.queue-capacity:1000}")
+	private int queueCapacity; // Traces buffered before new ones are dropped
+
+	private final AtomicLong droppedTraces = new AtomicLong();
+	private BlockingQueue<List<Span>> queue;
+	private Thread writerThread;
+	private volatile boolean running;
+
+	@PostConstruct
+	public void start() {
+		if (exportFile.isEmpty()) {
+			return;
+		}
+		queue = new ArrayBlockingQueue<>(queueCapacity);
+		running = true;
+		writerThread = new Thread(this::drainQueue, "span-exporter");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		if (writerThread != null) {
+			writerThread.join(TimeUnit.SECONDS.toMillis(5));
+		}
+	}
+
+	@Override
+	public void export(List<Span> spans) {
+		if (queue != null && !queue.offer(spans)) {
+			droppedTraces.incrementAndGet();
+		}
+	}
+
+	/**
+	 * @return The number of traces dropped because the queue was full.
+	 */
+	public long getDroppedTraces() {
+		return droppedTraces.get();
+	}
+
+	// Writer thread loop: append every queued trace, flushing when the queue runs dry
+	private void drainQueue() {
+		File file = new File(exportFile);
+		if (file.getParentFile() != null) {
+			file.getParentFile().mkdirs();
+		}
+		try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+			while (running || !queue.isEmpty()) {
+				List<Span> spans = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (spans == null) {
+					writer.flush();
+					continue;
+				}
+				for (Span span : spans) {
+					writer.write(objectMapper.writeValueAsString(toOtlp(span)));
+					writer.newLine();
+				}
+			}
+		} catch (IOException e) {
+			log.error("Span export to {} stopped", exportFile, e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static Map<String, Object> toOtlp(Span span) {
+		Map<String, Object> json = new LinkedHashMap<>();
+		json.put("traceId", span.getTraceId());
+		json.put("spanId", span.getSpanId());
+		if (span.getParentSpanId() != null) {
+			json.put("parentSpanId", span.getParentSpanId());
+		}
+		json.put("name", span.getName());
+		json.put("startTimeUnixNano", span.getStartEpochNanos());
+		json.put("endTimeUnixNano", span.getEndEpochNanos());
+		json.put("attributes", span.getAttributes());
+		return json;
+	}
+}
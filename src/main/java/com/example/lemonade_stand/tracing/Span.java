@@ -0,0 +1,111 @@
+package com.example.lemonade_stand.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One timed stage of a traced request, in the spirit of an OpenTelemetry span.
+ * Spans of unsampled requests are the shared {@link #NOOP} span, so
+ * instrumented code never needs to check whether tracing is on.
+ * <p>
+ * Spans are not thread-safe; a span is started, annotated and ended on the
+ * request thread.
+ */
+public final class Span implements AutoCloseable {
+
+	/** Span handed out when the request is not sampled; ignores everything. */
+	public static final Span NOOP = new Span(null, null, null, null, 0);
+
+	private final TraceContext trace; // Trace the span belongs to
+	private final String name; // Stage name, e.g. order.process
+	private final String spanId; // 16 hex digits
+	private final String parentSpanId; // Null for the root span
+	private final long startEpochNanos;
+	private long endEpochNanos;
+	private int dbStatements; // SQL statements issued while this span was current
+	private final Map<String, Object> attributes;
+
+	Span(TraceContext trace, String name, String spanId, String parentSpanId, long startEpochNanos) {
+		this.trace = trace;
+		this.name = name;
+		this.spanId = spanId;
+		this.parentSpanId = parentSpanId;
+		this.startEpochNanos = startEpochNanos;
+		this.attributes = trace != null ? new LinkedHashMap<>() : Collections.emptyMap();
+	}
+
+	/**
+	 * Adds an attribute to the span.
+	 *
+	 * @param key   Attribute name, e.g. order.count.
+	 * @param value Attribute value.
+	 * @return This span, for chaining.
+	 */
+	public Span setAttribute(String key, Object value) {
+		if (trace != null) {
+			attributes.put(key, value);
+		}
+		return this;
+	}
+
+	/**
+	 * @return True unless this is the no-op span of an unsampled request.
+	 */
+	public boolean isRecording() {
+		return trace != null;
+	}
+
+	/**
+	 * Ends the span. Ending the root span ends the trace and exports it.
+	 */
+	public void end() {
+		if (trace != null && endEpochNanos == 0) {
+			trace.end(this);
+		}
+	}
+
+	@Override
+	public void close() {
+		end();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getTraceId() {
+		return trace != null ? trace.getTraceId() : null;
+	}
+
+	public String getSpanId() {
+		return spanId;
+	}
+
+	public String getParentSpanId() {
+		return parentSpanId;
+	}
+
+	public long getStartEpochNanos() {
+		return startEpochNanos;
+	}
+
+	public long getEndEpochNanos() {
+		return endEpochNanos;
+	}
+
+	public Map<String, Object> getAttributes() {
+		return attributes;
+	}
+
+	void recordStatement() {
+		dbStatements++;
+	}
+
+	void finish(long endEpochNanos) {
+		this.endEpochNanos = endEpochNanos;
+		if (dbStatements > 0) {
+			attributes.put("db.statements", dbStatements);
+		}
+	}
+}
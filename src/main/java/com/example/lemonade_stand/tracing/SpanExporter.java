@@ -0,0 +1,15 @@
+package com.example.lemonade_stand.tracing;
+
+import java.util.List;
+
+/**
+ * Receives every finished trace. Called on the request thread, so
+ * implementations should hand the spans off rather than do I/O inline.
+ */
+public interface SpanExporter {
+
+	/**
+	 * @param spans Every span of one trace, root first.
+	 */
+	void export(List<Span> spans);
+}
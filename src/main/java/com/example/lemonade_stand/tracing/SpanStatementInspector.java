@@ -0,0 +1,19 @@
+package com.example.lemonade_stand.tracing;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares against the current span.
+ * Registered through
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SpanStatementInspector implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public String inspect(String sql) {
+		Tracer.recordStatement();
+		return sql;
+	}
+}
@@ -0,0 +1,72 @@
+package com.example.lemonade_stand.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spans of one sampled request, held by the request thread until the root span
+ * ends.
+ */
+final class TraceContext {
+
+	private final Tracer tracer;
+	private final String traceId; // 32 hex digits
+	private final String remoteParentSpanId; // Parent from an incoming traceparent header, if any
+	private final long epochOffsetNanos; // Epoch nanos minus System.nanoTime() at trace start
+	private final List<Span> spans = new ArrayList<>(8); // Every span, in start order
+	private final ArrayDeque<Span> open = new ArrayDeque<>(); // Spans started and not yet ended
+	private int dbStatements; // SQL statements issued during the whole trace
+
+	TraceContext(Tracer tracer, String traceId, String remoteParentSpanId) {
+		this.tracer = tracer;
+		this.traceId = traceId;
+		this.remoteParentSpanId = remoteParentSpanId;
+		this.epochOffsetNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
+	}
+
+	String getTraceId() {
+		return traceId;
+	}
+
+	Span start(String name) {
+		Span parent = open.peek();
+		Span span = new Span(this, name, tracer.newSpanId(), parent != null ? parent.getSpanId() : remoteParentSpanId,
+				now());
+		spans.add(span);
+		open.push(span);
+		return span;
+	}
+
+	Span current() {
+		return open.peek();
+	}
+
+	void recordStatement() {
+		dbStatements++;
+		Span current = open.peek();
+		if (current != null) {
+			current.recordStatement();
+		}
+	}
+
+	// Ends the span along with any child left open, e.g. by a failed body read
+	void end(Span span) {
+		long now = now();
+		Span ended;
+		do {
+			ended = open.pop();
+			ended.finish(now);
+		} while (ended != span && !open.isEmpty());
+
+		if (open.isEmpty()) {
+			spans.get(0).setAttribute("db.statements", dbStatements);
+			tracer.finished(spans);
+		}
+	}
+
+	private long now() {
+		return epochOffsetNanos + System.nanoTime();
+	}
+}
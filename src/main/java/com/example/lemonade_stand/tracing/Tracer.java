@@ -0,0 +1,132 @@
+package com.example.lemonade_stand.tracing;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts traces and spans for the order hot path. A trace is sampled when the
+ * caller's W3C {@code traceparent} header says so, or otherwise with
+ * probability {@code lemonade.tracing.sample-rate}. Unsampled requests only
+ * pay for a thread-local lookup per span and get {@link Span#NOOP} back.
+ */
+@Component
+public class Tracer {
+
+	private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>(); // Trace of the request thread
+
+	@Value("${lemonade.tracing.enabled:true}")
+	private boolean enabled; // Whether any request is traced
+	@Value("${lemonade.tracing.sample-rate:0.01}")
+	private double sampleRate; // Share of requests traced without a traceparent header
+
+	@Autowired(required = false)
+	private List<SpanExporter> exporters = Collections.emptyList();
+
+	/**
+	 * Starts the root span of a request, or a child span if the thread is already
+	 * tracing.
+	 *
+	 * @param name        Span name.
+	 * @param traceparent The incoming W3C traceparent header, may be null.
+	 * @return The root span, or {@link Span#NOOP} if the request is not sampled.
+	 */
+	public Span startTrace(String name, String traceparent) {
+		if (!enabled) {
+			return Span.NOOP;
+		}
+		if (CURRENT.get() != null) {
+			return startSpan(name);
+		}
+
+		// traceparent: version-traceid-parentid-flags, e.g. 00-<32 hex>-<16 hex>-01
+		String traceId = null;
+		String parentSpanId = null;
+		boolean sampled;
+		String[] parts = traceparent != null ? traceparent.split("-") : null;
+		if (parts != null && parts.length == 4 && parts[1].length() == 32 && parts[2].length() == 16) {
+			traceId = parts[1];
+			parentSpanId = parts[2];
+			sampled = parts[3].endsWith("1"); // Follow the caller's sampling decision
+		} else {
+			sampled = ThreadLocalRandom.current().nextDouble() < sampleRate;
+		}
+		if (!sampled) {
+			return Span.NOOP;
+		}
+
+		TraceContext trace = new TraceContext(this, traceId != null ? traceId : newSpanId() + newSpanId(),
+				parentSpanId);
+		CURRENT.set(trace);
+		return trace.start(name);
+	}
+
+	/**
+	 * @param name Span name.
+	 * @return A child of the current span, or {@link Span#NOOP} if the thread is
+	 *         not tracing.
+	 */
+	public Span startSpan(String name) {
+		TraceContext trace = CURRENT.get();
+		return trace != null ? trace.start(name) : Span.NOOP;
+	}
+
+	/**
+	 * @return The innermost open span of the thread, or {@link Span#NOOP}.
+	 */
+	public Span currentSpan() {
+		TraceContext trace = CURRENT.get();
+		Span current = trace != null ? trace.current() : null;
+		return current != null ? current : Span.NOOP;
+	}
+
+	/**
+	 * Carries the thread's trace over to the thread that runs a task, so spans the
+	 * task starts nest under the current span. The calling thread must wait for
+	 * the task, as the trace is not shared between running threads.
+	 *
+	 * @param task The task to run on another thread.
+	 * @return The task, running within the caller's trace.
+	 */
+	public <T> Supplier<T> propagate(Supplier<T> task) {
+		TraceContext trace = CURRENT.get();
+		if (trace == null) {
+			return task;
+		}
+		return () -> {
+			CURRENT.set(trace);
+			try {
+				return task.get();
+			} finally {
+				CURRENT.remove();
+			}
+		};
+	}
+
+	/**
+	 * Counts one SQL statement against the current span, if the thread is tracing.
+	 */
+	public static void recordStatement() {
+		TraceContext trace = CURRENT.get();
+		if (trace != null) {
+			trace.recordStatement();
+		}
+	}
+
+	String newSpanId() {
+		String hex = Long.toHexString(ThreadLocalRandom.current().nextLong());
+		return "0000000000000000".substring(hex.length()) + hex;
+	}
+
+	void finished(List<Span> spans) {
+		CURRENT.remove();
+		for (SpanExporter exporter : exporters) {
+			exporter.export(spans);
+		}
+	}
+}
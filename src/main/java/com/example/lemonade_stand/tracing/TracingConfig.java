@@ -0,0 +1,21 @@
+package com.example.lemonade_stand.tracing;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the tracing filter on the order processing endpoint only.
+ */
+@Configuration
+public class TracingConfig {
+
+	@Bean
+	public FilterRegistrationBean<TracingFilter> tracingFilterRegistration(Tracer tracer) {
+		FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+		registration.addUrlPatterns("/api/orders/process");
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 110); // Admitted requests only
+		return registration;
+	}
+}
@@ -0,0 +1,42 @@
+package com.example.lemonade_stand.tracing;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Opens the root span of every order request, so binding, processing and
+ * rendering all nest under it.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+	public static final String TRACEPARENT_HEADER = "traceparent";
+
+	private final Tracer tracer;
+
+	public TracingFilter(Tracer tracer) {
+		this.tracer = tracer;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		Span span = tracer.startTrace(request.getMethod() + " " + request.getRequestURI(),
+				request.getHeader(TRACEPARENT_HEADER));
+		try {
+			if (span.isRecording()) {
+				span.setAttribute("http.request_content_length", request.getContentLengthLong())
+						.setAttribute("http.request_content_type", request.getContentType());
+			}
+			chain.doFilter(request, response);
+		} finally {
+			span.setAttribute("http.status_code", response.getStatus());
+			span.end();
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.lemonade_stand.admission.AdaptiveConcurrencyLimit;
+import com.example.lemonade_stand.admission.AdmissionFilter;
+import com.example.lemonade_stand.admission.AdmissionProperties;
+import com.example.lemonade_stand.admission.TokenBucket;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(properties = { "lemonade.admission.client-rate=0.1", "lemonade.admission.client-burst=2" })
+@AutoConfigureMockMvc
+class AdmissionControlTests {
+	@Autowired
+	private MockMvc mockMvc;
+
+	/**
+	 * Validate a token bucket admits its burst, then asks the caller to wait for
+	 * the next token.
+	 */
+	@Test
+	void testTokenBucketAdmitsBurstThenRejects() {
+		long now = 0;
+		TokenBucket bucket = new TokenBucket(10, 3, now); // One token per 100ms
+
+		assertEquals(0, bucket.tryAcquire(now));
+		assertEquals(0, bucket.tryAcquire(now));
+		assertEquals(0, bucket.tryAcquire(now));
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.tryAcquire(now));
+
+		// A token is earned back after one emission interval
+		assertEquals(0, bucket.tryAcquire(now + TimeUnit.MILLISECONDS.toNanos(100)));
+	}
+
+	/**
+	 * Validate the concurrency limit rejects requests beyond the limit.
+	 */
+	@Test
+	void testConcurrencyLimitRejectsBeyondLimit() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, TimeUnit.MILLISECONDS.toNanos(50), 100);
+
+		assertTrue(limit.tryAcquire());
+		assertTrue(limit.tryAcquire());
+		assertFalse(limit.tryAcquire());
+
+		limit.release(TimeUnit.MILLISECONDS.toNanos(1));
+		assertTrue(limit.tryAcquire());
+	}
+
+	/**
+	 * Validate the limit grows additively while p99 is under target and is cut
+	 * multiplicatively once p99 exceeds it.
+	 */
+	@Test
+	void testConcurrencyLimitAdaptsToLatency() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 1, 100, TimeUnit.MILLISECONDS.toNanos(50),
+				10);
+
+		// Act: one window of fast requests
+		completeWindow(limit, TimeUnit.MILLISECONDS.toNanos(1));
+		assertEquals(21, limit.getLimit());
+
+		// Act: one window of slow requests
+		completeWindow(limit, TimeUnit.MILLISECONDS.toNanos(500));
+		assertEquals(18, limit.getLimit());
+	}
+
+	/**
+	 * Validate a client over its rate is rejected with 429 and Retry-After.
+	 */
+	@Test
+	void testClientOverRateRejected() throws Exception {
+		String body = "[{\"bill_value\": 5, \"position_in_line\": 1, \"requested_lemonades\": 1}]";
+
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(post("/api/orders/process").header(AdmissionFilter.CLIENT_ID_HEADER, "terminal-1")
+					.contentType(MediaType.APPLICATION_JSON).content(body)).andExpect(status().isOk());
+		}
+		mockMvc.perform(post("/api/orders/process").header(AdmissionFilter.CLIENT_ID_HEADER, "terminal-1")
+				.contentType(MediaType.APPLICATION_JSON).content(body)).andExpect(status().isTooManyRequests())
+				.andExpect(header().string("Retry-After", "10")).andExpect(jsonPath("$.status").value(429));
+
+		// Other clients keep their own budget
+		mockMvc.perform(post("/api/orders/process").header(AdmissionFilter.CLIENT_ID_HEADER, "terminal-2")
+				.contentType(MediaType.APPLICATION_JSON).content(body)).andExpect(status().isOk());
+	}
+
+	/**
+	 * Validate clients beyond the tracked maximum share one overflow bucket, so
+	 * new client ids cannot each claim a fresh burst.
+	 */
+	@Test
+	void testNewClientsBeyondMaximumShareOverflowBucket() throws Exception {
+		// Arrange: two tracked clients, one request each per 10 seconds
+		AdmissionProperties properties = new AdmissionProperties();
+		properties.setMaxClients(2);
+		properties.setClientRate(0.1);
+		properties.setClientBurst(1);
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		AdmissionFilter filter = new AdmissionFilter(properties, new ObjectMapper(), meterRegistry);
+
+		// Act
+		int[] statuses = new int[5];
+		for (int i = 0; i < statuses.length; i++) {
+			statuses[i] = admit(filter, "rotating-" + i);
+		}
+
+		// Assert: the first two are tracked, the rest share the overflow bucket
+		assertEquals(200, statuses[0]);
+		assertEquals(200, statuses[1]);
+		assertEquals(200, statuses[2]);
+		assertEquals(429, statuses[3]);
+		assertEquals(429, statuses[4]);
+		assertEquals(2, meterRegistry.get("lemonade.admission.clients").gauge().value());
+	}
+
+	private static int admit(AdmissionFilter filter, String clientId) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders/process");
+		request.addHeader(AdmissionFilter.CLIENT_ID_HEADER, clientId);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response.getStatus();
+	}
+
+	private void completeWindow(AdaptiveConcurrencyLimit limit, long latencyNanos) {
+		for (int i = 0; i < 10; i++) {
+			assertTrue(limit.tryAcquire());
+			limit.release(latencyNanos);
+		}
+	}
+}
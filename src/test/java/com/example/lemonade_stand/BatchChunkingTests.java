@@ -0,0 +1,93 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.lemonade_stand.lane.Lane;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+import com.example.lemonade_stand.order.ServingScheduler;
+import com.example.lemonade_stand.order.ServingTurn;
+
+@SpringBootTest(properties = { "lemonade.batch.max-chunk-size=2", "lemonade.batch.serving-slots=1" })
+class BatchChunkingTests {
+	@Autowired
+	private ServingScheduler servingScheduler;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+
+	@BeforeEach
+	void setUp() {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+	}
+
+	/**
+	 * Validate a batch spanning several chunks returns the same bills as one
+	 * served whole, and still fails as a whole when a late order fails.
+	 */
+	@Test
+	void testChunkedBatchKeepsItsResult() {
+		// Arrange: change for the last order comes from bills of earlier chunks
+		List<CustomerOrder> orders = Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(5, 2, 1),
+				new CustomerOrder(5, 3, 1), new CustomerOrder(10, 4, 1), new CustomerOrder(20, 5, 1));
+		List<CustomerOrder> failing = Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(5, 2, 1),
+				new CustomerOrder(5, 3, 1), new CustomerOrder(20, 4, 1), new CustomerOrder(20, 5, 1));
+
+		// Act
+		String result = orderProcessor.processOrders(orders);
+		String failed = orderProcessor.processOrders(failing);
+
+		// Assert
+		assertEquals("[20, 5]", result);
+		assertEquals("null", failed);
+		assertEquals(1, orderRepositoryService.getBillCountInDatabase(5));
+		assertEquals(0, orderRepositoryService.getBillCountInDatabase(10));
+		assertEquals(5, orderRepositoryService.getLemonadesSold());
+	}
+
+	/**
+	 * Validate a batch waiting for the slot is served before a large batch
+	 * continues with its next chunk.
+	 */
+	@Test
+	void testWaitingBatchGetsTurnBetweenChunks() throws Exception {
+		// Arrange: a large batch holds the only slot
+		List<String> servingOrder = Collections.synchronizedList(new ArrayList<>());
+		ServingTurn large = servingScheduler.start(Lane.BULK);
+		CompletableFuture<Void> small = CompletableFuture.runAsync(() -> {
+			try (ServingTurn turn = servingScheduler.start(Lane.BULK)) {
+				servingOrder.add("small");
+			}
+		});
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (servingScheduler.getWaiting() == 0 && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+
+		// Act: the large batch completes a chunk of two orders
+		large.served();
+		large.served();
+		servingOrder.add("large");
+		large.close();
+		small.get(5, TimeUnit.SECONDS);
+
+		// Assert
+		assertEquals(Arrays.asList("small", "large"), servingOrder);
+		assertEquals(1, large.getYields());
+	}
+}
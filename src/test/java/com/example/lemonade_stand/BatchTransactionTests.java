@@ -0,0 +1,158 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.lemonade_stand.drawer.CashDrawer;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderBatch;
+import com.example.lemonade_stand.order.OrderDeduplicator;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+
+@SpringBootTest
+class BatchTransactionTests {
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+	@Autowired
+	private CashDrawer cashDrawer;
+	@Autowired
+	private OrderDeduplicator orderDeduplicator;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+	}
+
+	/**
+	 * Validate a batch that cannot commit in memory writes nothing.
+	 */
+	@Test
+	void testBatchThatCannotCommitWritesNothing() {
+		// Act
+		boolean committed = orderRepositoryService.commitBatch(new int[] { 2, 1, 0 }, 3, () -> false);
+
+		// Assert
+		assertFalse(committed);
+		assertEquals(0, orderRepositoryService.getBillCountInDatabase(5));
+		assertEquals(0, orderRepositoryService.getBillCountInDatabase(10));
+		assertEquals(0, orderRepositoryService.getLemonadesSold());
+	}
+
+	/**
+	 * Validate a batch whose write fails leaves the drawer, the remembered order
+	 * ids and the database as they were, and can be retried.
+	 */
+	@Test
+	void testFailedWriteLeavesMemoryUnchanged() {
+		// Arrange: one $5 bill in the drawer, then the bill count update fails
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1)));
+		OrderBatch batch = new OrderBatch(1);
+		batch.set(0, 10, 1, 1); // $5 change
+		batch.setOrderId(0, "failed-write-1");
+		jdbcTemplate.execute("CREATE TRIGGER fail_bill_count_update BEFORE UPDATE ON bill_counter_record FOR EACH ROW CALL \""
+				+ FailingTrigger.class.getName() + "\"");
+
+		// Act
+		try {
+			assertThrows(DataAccessException.class, () -> orderProcessor.processBatch(batch));
+		} finally {
+			jdbcTemplate.execute("DROP TRIGGER fail_bill_count_update");
+		}
+
+		// Assert
+		assertEquals(1, cashDrawer.getAvailable(5));
+		assertEquals(0, cashDrawer.getAvailable(10));
+		assertEquals(1, orderRepositoryService.getBillCountInDatabase(5));
+		assertEquals(0, orderRepositoryService.getBillCountInDatabase(10));
+		assertEquals(1, orderRepositoryService.getLemonadesSold());
+		assertTrue(orderDeduplicator.findDuplicates(batch).isEmpty());
+
+		// Act: the retry commits once the database is back
+		assertNotNull(orderProcessor.processBatch(batch));
+
+		// Assert
+		assertEquals(0, cashDrawer.getAvailable(5));
+		assertEquals(1, cashDrawer.getAvailable(10));
+		assertEquals(1, orderRepositoryService.getBillCountInDatabase(10));
+		assertFalse(orderDeduplicator.findDuplicates(batch).isEmpty());
+	}
+
+	/**
+	 * Validate concurrent batches each commit their whole sale, with no lost
+	 * update of the shared counts.
+	 */
+	@Test
+	void testConcurrentBatchesKeepExactTotals() throws Exception {
+		// Arrange
+		int threads = 8;
+		int batchesPerThread = 50;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		// Act: every batch sells one lemonade for a $5 and one for a $10 with $5 change
+		List<Future<?>> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			workers.add(executor.submit(() -> {
+				for (int i = 0; i < batchesPerThread; i++) {
+					orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(10, 2, 1)));
+				}
+			}));
+		}
+		for (Future<?> worker : workers) {
+			worker.get(60, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		// Assert
+		int batches = threads * batchesPerThread;
+		assertEquals(2 * batches, orderRepositoryService.getLemonadesSold());
+		assertEquals(0, orderRepositoryService.getBillCountInDatabase(5));
+		assertEquals(batches, orderRepositoryService.getBillCountInDatabase(10));
+	}
+
+	// Fails every update of the row it is created on, as a lost database would
+	public static class FailingTrigger implements org.h2.api.Trigger {
+		@Override
+		public void init(Connection conn, String schemaName, String triggerName, String tableName, boolean before,
+				int type) {
+		}
+
+		@Override
+		public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+			throw new SQLException("Database unavailable");
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public void remove() {
+		}
+	}
+}
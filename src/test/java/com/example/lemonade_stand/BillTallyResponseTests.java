@@ -0,0 +1,105 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.lemonade_stand.order.BillTally;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+
+@SpringBootTest(properties = "lemonade.response.count-form-threshold=3")
+@AutoConfigureMockMvc
+class BillTallyResponseTests {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+
+	@BeforeEach
+	void setUp() {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+	}
+
+	/**
+	 * Validate results above the threshold default to the count form.
+	 */
+	@Test
+	void testLargeResultRenderedAsCounts() throws Exception {
+		mockMvc.perform(post("/api/orders/process").contentType(MediaType.APPLICATION_JSON).content(fiveDollarOrders(4)))
+				.andExpect(status().isOk()).andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+				.andExpect(content().string("{\"5\":4,\"10\":0,\"20\":0}"));
+	}
+
+	/**
+	 * Validate the expanded form can still be requested for large results.
+	 */
+	@Test
+	void testLargeResultRenderedExpandedOnRequest() throws Exception {
+		mockMvc.perform(post("/api/orders/process").param("format", "expanded")
+				.contentType(MediaType.APPLICATION_JSON).content(fiveDollarOrders(4))).andExpect(status().isOk())
+				.andExpect(content().string("[5, 5, 5, 5]"));
+	}
+
+	/**
+	 * Validate small results keep the legacy expanded form.
+	 */
+	@Test
+	void testSmallResultRenderedExpanded() throws Exception {
+		mockMvc.perform(post("/api/orders/process").contentType(MediaType.APPLICATION_JSON).content(fiveDollarOrders(2)))
+				.andExpect(status().isOk()).andExpect(content().string("[5, 5]"));
+	}
+
+	/**
+	 * Validate an unknown format is rejected before any order is processed.
+	 */
+	@Test
+	void testUnknownFormatRejected() throws Exception {
+		mockMvc.perform(post("/api/orders/process").param("format", "xml").contentType(MediaType.APPLICATION_JSON)
+				.content(fiveDollarOrders(1))).andExpect(status().isBadRequest());
+	}
+
+	/**
+	 * Validate the streamed expanded form matches the string form across write
+	 * chunk boundaries.
+	 */
+	@Test
+	void testStreamedExpandedFormMatchesString() throws Exception {
+		// Arrange: enough bills to span several 8KB chunks
+		BillTally tally = new BillTally();
+		tally.add(5, 3000);
+		tally.add(10, 2000);
+		tally.add(20, 1000);
+
+		// Act
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		tally.writeExpanded(out);
+
+		// Assert
+		assertEquals(tally.toString(), new String(out.toByteArray(), StandardCharsets.US_ASCII));
+	}
+
+	private String fiveDollarOrders(int count) {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 1; i <= count; i++) {
+			json.append(i == 1 ? "" : ",").append("{\"bill_value\": 5, \"position_in_line\": ").append(i)
+					.append(", \"requested_lemonades\": 1}");
+		}
+		return json.append(']').toString();
+	}
+}
@@ -0,0 +1,89 @@
+package com.example.lemonade_stand;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.lemonade_stand.order.BinaryOrderCodec;
+import com.example.lemonade_stand.order.OrderBatch;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BinaryOrderFormatTests {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+
+	@BeforeEach
+	void setUp() {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+	}
+
+	/**
+	 * Validate a binary batch is processed the same way as its JSON equivalent.
+	 */
+	@Test
+	void testBinaryBatchProcessed() throws Exception {
+		// Arrange: encode two orders, given out of line order
+		OrderBatch batch = new OrderBatch(2);
+		batch.set(0, 10, 2, 2); // Cost: 10
+		batch.set(1, 20, 1, 4); // Cost: 20
+
+		// Act & Assert: both bills remain after successful processing
+		mockMvc.perform(post("/api/orders/process").contentType(BinaryOrderCodec.CONTENT_TYPE)
+				.content(BinaryOrderCodec.encode(batch))).andExpect(status().isOk())
+				.andExpect(content().string("[20, 10]"));
+	}
+
+	/**
+	 * Validate every invalid bill is reported by its index in a single response.
+	 */
+	@Test
+	void testBinaryBatchViolationsReportedByIndex() throws Exception {
+		// Arrange: orders at index 1 and 2 carry invalid bills
+		OrderBatch batch = new OrderBatch(3);
+		batch.set(0, 5, 1, 1);
+		batch.set(1, 7, 2, 1);
+		batch.set(2, 0, 3, 1);
+
+		// Act & Assert
+		mockMvc.perform(post("/api/orders/process").contentType(BinaryOrderCodec.CONTENT_TYPE)
+				.content(BinaryOrderCodec.encode(batch))).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.violations.length()").value(2))
+				.andExpect(jsonPath("$.violations[0].index").value(1))
+				.andExpect(jsonPath("$.violations[0].rejected_value").value(7))
+				.andExpect(jsonPath("$.violations[1].index").value(2));
+	}
+
+	/**
+	 * Validate a payload whose length does not match its record count is
+	 * rejected.
+	 */
+	@Test
+	void testTruncatedBinaryBatchRejected() throws Exception {
+		// Arrange: drop the last byte of a valid payload
+		OrderBatch batch = new OrderBatch(1);
+		batch.set(0, 5, 1, 1);
+		byte[] payload = BinaryOrderCodec.encode(batch);
+		byte[] truncated = new byte[payload.length - 1];
+		System.arraycopy(payload, 0, truncated, 0, truncated.length);
+
+		// Act & Assert
+		mockMvc.perform(post("/api/orders/process").contentType(BinaryOrderCodec.CONTENT_TYPE).content(truncated))
+				.andExpect(status().isBadRequest());
+	}
+}
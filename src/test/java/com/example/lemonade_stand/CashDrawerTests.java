@@ -0,0 +1,120 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.lemonade_stand.drawer.CashDrawer;
+import com.example.lemonade_stand.drawer.Reservation;
+import com.example.lemonade_stand.order.BillTally;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+
+@SpringBootTest(properties = "lemonade.drawer.wheel-tick-millis=5")
+class CashDrawerTests {
+	@Autowired
+	private CashDrawer cashDrawer;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+
+	@BeforeEach
+	void setUp() {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+	}
+
+	/**
+	 * Validate a released reservation puts every held bill back in the drawer.
+	 */
+	@Test
+	void testReleaseReturnsHeldBills() {
+		// Arrange
+		cashDrawer.reset(5, 2);
+		Reservation reservation = cashDrawer.reserve();
+
+		// Act
+		boolean first = reservation.take(5);
+		boolean second = reservation.take(5);
+		boolean third = reservation.take(5);
+		int availableWhileHeld = cashDrawer.getAvailable(5);
+		reservation.release();
+
+		// Assert
+		assertTrue(first && second);
+		assertFalse(third);
+		assertEquals(0, availableWhileHeld);
+		assertEquals(2, cashDrawer.getAvailable(5));
+	}
+
+	/**
+	 * Validate an expired lease is reclaimed by the timer wheel and can no longer
+	 * be committed.
+	 */
+	@Test
+	void testExpiredLeaseIsReclaimed() throws InterruptedException {
+		// Arrange
+		cashDrawer.reset(10, 1);
+		Reservation reservation = cashDrawer.reserve(20);
+		reservation.take(10);
+
+		// Act: wait for the wheel to pass the deadline
+		long deadline = System.currentTimeMillis() + 2000;
+		while (!reservation.isSettled() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+
+		// Assert
+		assertTrue(reservation.isSettled());
+		assertEquals(1, cashDrawer.getAvailable(10));
+		assertFalse(reservation.commit(new BillTally()));
+	}
+
+	/**
+	 * Validate change can be given from bills collected earlier in the same batch
+	 * even when the drawer is empty.
+	 */
+	@Test
+	void testChangeFromBillsCollectedInSameBatch() {
+		// Arrange: the drawer starts empty
+		CustomerOrder order1 = new CustomerOrder(5, 1, 1); // Cost: 5, change 0
+		CustomerOrder order2 = new CustomerOrder(10, 2, 1); // Cost: 5, change 5
+
+		// Act
+		String result = orderProcessor.processOrders(Arrays.asList(order1, order2));
+
+		// Assert
+		assertEquals("[10]", result);
+		assertEquals(1, cashDrawer.getAvailable(10));
+		assertEquals(1, orderRepositoryService.getBillCountInDatabase(10));
+	}
+
+	/**
+	 * Validate a committed batch moves change bills out of the drawer and the
+	 * database with one net update per denomination.
+	 */
+	@Test
+	void testCommitAppliesNetChangeToDatabase() {
+		// Arrange: two 5 bills in the drawer from a previous batch
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(5, 2, 1)));
+
+		// Act: 15 change is paid with both drawer bills and the batch's own 5
+		String result = orderProcessor
+				.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(20, 2, 1)));
+
+		// Assert
+		assertEquals("[20]", result);
+		assertEquals(0, cashDrawer.getAvailable(5));
+		assertEquals(0, orderRepositoryService.getBillCountInDatabase(5));
+		assertEquals(1, orderRepositoryService.getBillCountInDatabase(20));
+	}
+}
@@ -0,0 +1,94 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.lemonade_stand.change.ChangeDrawer;
+import com.example.lemonade_stand.change.LookaheadChangePolicy;
+import com.example.lemonade_stand.change.UpcomingOrders;
+import com.example.lemonade_stand.drawer.CashDrawer;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderBatch;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+
+@SpringBootTest(properties = "lemonade.change.policy=lookahead")
+class ChangePolicyTests {
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+	@Autowired
+	private CashDrawer cashDrawer;
+
+	@BeforeEach
+	void setUp() {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+	}
+
+	/**
+	 * Validate the lookahead policy serves batches as the greedy one does, making
+	 * $15 from three $5 bills when no $10 bill is left.
+	 */
+	@Test
+	void testLookaheadPolicyServesBatches() {
+		// Arrange: three $5 bills in the drawer
+		orderProcessor.processOrders(
+				Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(5, 2, 1), new CustomerOrder(5, 3, 1)));
+
+		// Act
+		String result = orderProcessor.processOrders(Arrays.asList(new CustomerOrder(20, 1, 1)));
+		String noChange = orderProcessor.processOrders(Arrays.asList(new CustomerOrder(10, 1, 1)));
+
+		// Assert
+		assertEquals("[20]", result);
+		assertEquals("null", noChange);
+		assertEquals(0, cashDrawer.getAvailable(5));
+		assertEquals(1, cashDrawer.getAvailable(20));
+	}
+
+	/**
+	 * Validate change is still handed back when a planned bill was taken by
+	 * another batch in the meantime.
+	 */
+	@Test
+	void testLookaheadFallsBackWhenPlannedBillIsGone() {
+		// Arrange: the drawer counts a $10 bill that is gone when taken
+		List<Integer> taken = new ArrayList<>();
+		ChangeDrawer drawer = new ChangeDrawer() {
+			@Override
+			public int available(int denomination) {
+				return denomination == 5 ? 2 : denomination == 10 ? 1 : 0;
+			}
+
+			@Override
+			public boolean take(int denomination) {
+				if (denomination == 10) {
+					return false;
+				}
+				taken.add(denomination);
+				return true;
+			}
+		};
+		OrderBatch batch = new OrderBatch(1);
+		batch.set(0, 5, 1, 1);
+		UpcomingOrders upcoming = new UpcomingOrders(batch, batch.indexesInLineOrder());
+
+		// Act
+		boolean succeeded = new LookaheadChangePolicy(8).giveChange(10, drawer, upcoming);
+
+		// Assert
+		assertTrue(succeeded);
+		assertEquals(Arrays.asList(5, 5), taken);
+	}
+}
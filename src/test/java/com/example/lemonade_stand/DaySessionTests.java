@@ -0,0 +1,166 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.lemonade_stand.database.DaySummaryRecord;
+import com.example.lemonade_stand.day.DaySessionService;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class DaySessionTests {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private DaySessionService daySessionService;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+
+	@BeforeEach
+	void setUp() {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+		daySessionService.closeDay(); // start each test on a fresh day
+	}
+
+	/**
+	 * Validate closing a day stores its totals and the next day starts from zero.
+	 */
+	@Test
+	void testCloseDayStoresSummaryAndResetsCounters() {
+		// Arrange: a $10 order fails for lack of change, then two $5 orders are sold
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(10, 1, 1)));
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(5, 2, 1)));
+
+		// Act
+		DaySummaryRecord closed = daySessionService.closeDay();
+		DaySummaryRecord current = daySessionService.currentDay();
+
+		// Assert
+		assertNotNull(closed.getClosedAt());
+		assertEquals(2, closed.getLemonadesSold());
+		assertEquals(1, closed.getBatchesCommitted());
+		assertEquals(1, closed.getBatchesFailed());
+		assertEquals(2, closed.getCollected5());
+		assertEquals(0, closed.getCollected10());
+		assertEquals(2, closed.getClosing5());
+		assertEquals(closed.getDayId() + 1, current.getDayId());
+		assertNull(current.getClosedAt());
+		assertEquals(0, current.getLemonadesSold());
+		assertEquals(0, current.getBatchesCommitted());
+		assertEquals(2, current.getClosing5());
+	}
+
+	/**
+	 * Validate a restart resumes the open day from its checkpoint rather than
+	 * starting it from zero.
+	 */
+	@Test
+	void testRestartResumesOpenDayFromCheckpoint() {
+		// Arrange
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(10, 2, 1)));
+		DaySummaryRecord beforeRestart = daySessionService.currentDay();
+		daySessionService.checkpoint();
+
+		// Act: start over as a restarted process would
+		daySessionService.openFirstDay();
+		DaySummaryRecord afterRestart = daySessionService.currentDay();
+
+		// Assert
+		assertEquals(beforeRestart.getDayId(), afterRestart.getDayId());
+		assertEquals(beforeRestart.getOpenedAt(), afterRestart.getOpenedAt());
+		assertEquals(2, afterRestart.getLemonadesSold());
+		assertEquals(1, afterRestart.getBatchesCommitted());
+		assertEquals(1, afterRestart.getCollected10());
+		assertEquals(1, afterRestart.getChangePaid5());
+		assertNull(afterRestart.getClosedAt());
+	}
+
+	/**
+	 * Validate closed days can be read back by id and unknown days are not found.
+	 */
+	@Test
+	void testClosedDayIsQueryable() throws Exception {
+		// Arrange
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1)));
+
+		// Act
+		String closed = mockMvc.perform(post("/api/days/close")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.lemonades_sold").value(1)).andReturn().getResponse().getContentAsString();
+		long dayId = Long.parseLong(closed.replaceAll(".*\"day_id\":(\\d+).*", "$1"));
+
+		// Assert
+		mockMvc.perform(get("/api/days/" + dayId)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.lemonades_sold").value(1)).andExpect(jsonPath("$.collected_5").value(1));
+		mockMvc.perform(get("/api/days/current")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.day_id").value(dayId + 1)).andExpect(jsonPath("$.lemonades_sold").value(0));
+		mockMvc.perform(get("/api/days")).andExpect(status().isOk()).andExpect(jsonPath("$[0].day_id").value(dayId));
+		mockMvc.perform(get("/api/days/" + (dayId + 1))).andExpect(status().isNotFound());
+	}
+
+	/**
+	 * Validate closing days while batches are processed counts every batch in
+	 * exactly one day.
+	 */
+	@Test
+	void testCloseDuringProcessingLosesNoBatches() throws Exception {
+		// Arrange
+		long firstDayId = daySessionService.currentDay().getDayId();
+		int threads = 4;
+		int batchesPerThread = 50;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		// Act: close days while every thread sells one lemonade per batch
+		List<Future<?>> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int thread = t;
+			workers.add(executor.submit(() -> {
+				for (int i = 0; i < batchesPerThread; i++) {
+					orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, thread * batchesPerThread + i, 1)));
+				}
+			}));
+		}
+		for (int i = 0; i < 5; i++) {
+			daySessionService.closeDay();
+			Thread.sleep(5);
+		}
+		for (Future<?> worker : workers) {
+			worker.get(30, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		// Assert
+		long sold = daySessionService.currentDay().getLemonadesSold();
+		for (DaySummaryRecord day : daySessionService.closedDays()) {
+			if (day.getDayId() >= firstDayId) {
+				sold += day.getLemonadesSold();
+			}
+		}
+		assertEquals(threads * batchesPerThread, sold);
+	}
+}
@@ -0,0 +1,138 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.lemonade_stand.analytics.FloatForecast;
+import com.example.lemonade_stand.analytics.FloatForecaster;
+import com.example.lemonade_stand.day.DaySessionService;
+import com.example.lemonade_stand.drawer.CashDrawer;
+import com.example.lemonade_stand.order.BillTally;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+
+@SpringBootTest(properties = { "lemonade.forecast.half-life-seconds=60", "lemonade.forecast.alert-seconds=900" })
+@AutoConfigureMockMvc
+class FloatForecastTests {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private FloatForecaster floatForecaster;
+	@Autowired
+	private CashDrawer cashDrawer;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+	@Autowired
+	private DaySessionService daySessionService;
+
+	@BeforeEach
+	void setUp() {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+		floatForecaster.reset();
+	}
+
+	/**
+	 * Validate a float paid out faster than it is collected gets a time to empty
+	 * of available bills over the net outflow rate.
+	 */
+	@Test
+	void testShrinkingFloatPredictsTimeToEmpty() {
+		// Arrange: 12 $5 bills paid out and 2 collected in one burst
+		cashDrawer.reset(5, 50);
+		BillTally collected = new BillTally();
+		collected.add(5, 2);
+		BillTally changePaid = new BillTally();
+		changePaid.add(5, 12);
+		long now = System.nanoTime();
+
+		// Act
+		floatForecaster.record(now, collected, changePaid);
+		FloatForecast fives = floatForecaster.forecast(5, now);
+		FloatForecast tens = floatForecaster.forecast(10, now);
+
+		// Assert: rates are counts over the decay lifetime, 60s / ln 2
+		double tauMinutes = 1 / Math.log(2);
+		assertEquals(12 / tauMinutes, fives.getOutflowPerMinute(), 1e-6);
+		assertEquals(2 / tauMinutes, fives.getInflowPerMinute(), 1e-6);
+		assertEquals(50 / (10 / tauMinutes) * 60, fives.getSecondsToEmpty(), 1e-6);
+		assertTrue(fives.isLow());
+		assertNull(tens.getSecondsToEmpty());
+		assertFalse(tens.isLow());
+	}
+
+	/**
+	 * Validate rates halve after one half-life without activity.
+	 */
+	@Test
+	void testRatesDecayWithoutActivity() {
+		BillTally changePaid = new BillTally();
+		changePaid.add(10, 4);
+		long now = System.nanoTime();
+
+		floatForecaster.record(now, new BillTally(), changePaid);
+		double initial = floatForecaster.forecast(10, now).getOutflowPerMinute();
+		double later = floatForecaster.forecast(10, now + TimeUnit.SECONDS.toNanos(60)).getOutflowPerMinute();
+
+		assertEquals(initial / 2, later, 1e-9);
+	}
+
+	/**
+	 * Validate closing the business day starts the rates over, including bills
+	 * not yet folded into them.
+	 */
+	@Test
+	void testDayCloseResetsRates() {
+		// Arrange: a folded payout and a committed batch still pending
+		BillTally changePaid = new BillTally();
+		changePaid.add(5, 4);
+		floatForecaster.record(System.nanoTime(), new BillTally(), changePaid);
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1)));
+
+		// Act
+		daySessionService.closeDay();
+
+		// Assert
+		FloatForecast fives = floatForecaster.forecast(5);
+		assertEquals(0, fives.getOutflowPerMinute());
+		assertEquals(0, fives.getInflowPerMinute());
+	}
+
+	/**
+	 * Validate committed batches feed the forecast endpoint.
+	 */
+	@Test
+	void testForecastEndpointReflectsCommittedBatches() throws Exception {
+		// Arrange: the drawer has two $5 bills, a $10 order takes one as change
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(5, 2, 1)));
+		floatForecaster.reset();
+
+		// Act
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(10, 1, 1)));
+
+		// Assert
+		mockMvc.perform(get("/api/orders/forecast")).andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].denomination").value(5)).andExpect(jsonPath("$[0].available").value(1))
+				.andExpect(jsonPath("$[0].seconds_to_empty").isNumber())
+				.andExpect(jsonPath("$[1].denomination").value(10))
+				.andExpect(jsonPath("$[1].seconds_to_empty").isEmpty());
+	}
+}
@@ -0,0 +1,108 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.lemonade_stand.database.IncompleteBatchRecord;
+import com.example.lemonade_stand.database.IncompleteBatchRepository;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+import com.example.lemonade_stand.shutdown.DrainCoordinator;
+import com.example.lemonade_stand.shutdown.InFlightBatch;
+
+@SpringBootTest(properties = "lemonade.shutdown.drain-millis=200")
+@AutoConfigureMockMvc
+class GracefulShutdownTests {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private DrainCoordinator drainCoordinator;
+	@Autowired
+	private IncompleteBatchRepository incompleteBatchRepository;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+
+	@BeforeEach
+	void setUp() {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		incompleteBatchRepository.deleteAllInBatch();
+		orderProcessor.initializeDB();
+	}
+
+	@AfterEach
+	void tearDown() {
+		drainCoordinator.start(); // admit batches again for the other tests sharing this context
+	}
+
+	/**
+	 * Validate a drain waits for an in-flight batch and turns new batches away.
+	 */
+	@Test
+	void testDrainWaitsForInFlightBatch() throws Exception {
+		// Arrange
+		InFlightBatch inFlight = drainCoordinator.admit("in-flight");
+
+		// Act
+		CompletableFuture<Void> drain = CompletableFuture.runAsync(drainCoordinator::stop);
+		Thread.sleep(50);
+		boolean drainedEarly = drain.isDone();
+		String rejected = orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1)));
+		mockMvc.perform(post("/api/orders/process").contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"bill_value\":5,\"position_in_line\":1,\"requested_lemonades\":1}]"))
+				.andExpect(status().isServiceUnavailable()).andExpect(header().string("Retry-After", "1"));
+		drainCoordinator.complete(inFlight);
+		drain.get(1, TimeUnit.SECONDS);
+
+		// Assert
+		assertFalse(drainedEarly);
+		assertEquals("null", rejected);
+		assertEquals(0, incompleteBatchRepository.count());
+		assertEquals(0, orderRepositoryService.getLemonadesSold());
+	}
+
+	/**
+	 * Validate a batch still serving at the drain deadline is recorded as
+	 * incomplete and can no longer commit.
+	 */
+	@Test
+	void testAbandonedBatchIsRecordedAndCannotCommit() {
+		// Arrange
+		InFlightBatch inFlight = drainCoordinator.admit("abandoned");
+
+		// Act
+		drainCoordinator.stop();
+		AtomicBoolean committedInMemory = new AtomicBoolean();
+		boolean committed = inFlight.commit(() -> {
+			committedInMemory.set(true);
+			return true;
+		});
+
+		// Assert
+		assertFalse(committed);
+		assertFalse(committedInMemory.get());
+		IncompleteBatchRecord record = incompleteBatchRepository.findById("abandoned").orElse(null);
+		assertNotNull(record);
+		assertEquals("SERVING", record.getStage());
+	}
+}
@@ -0,0 +1,144 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.lemonade_stand.database.InventoryItemRepository;
+import com.example.lemonade_stand.drawer.CashDrawer;
+import com.example.lemonade_stand.inventory.Inventory;
+import com.example.lemonade_stand.order.BillTally;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderBatch;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+
+@SpringBootTest(properties = { "lemonade.inventory.enabled=true", "lemonade.inventory.recipe.ice=2" })
+@AutoConfigureMockMvc
+class InventoryTests {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private Inventory inventory;
+	@Autowired
+	private InventoryItemRepository inventoryItemRepository;
+	@Autowired
+	private CashDrawer cashDrawer;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+
+	@BeforeEach
+	void setUp() {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+		inventory.reset("lemonade", 10);
+		inventory.reset("cup", 10);
+		inventory.reset("ice", 20);
+	}
+
+	/**
+	 * Validate a committed batch uses the recipe's stock of every item and the
+	 * stock is written to the database on flush.
+	 */
+	@Test
+	void testCommittedBatchConsumesStock() {
+		// Act: three lemonades, paid with a $5 and a $10
+		BillTally billsRemaining = orderProcessor.processBatch(batch(new int[] { 5, 10 }, new int[] { 1, 2 }));
+		inventory.flush();
+
+		// Assert
+		assertEquals(2, billsRemaining.totalBills());
+		assertEquals(7, inventory.getStock().get("lemonade"));
+		assertEquals(7, inventory.getStock().get("cup"));
+		assertEquals(14, inventory.getStock().get("ice"));
+		assertEquals(7, inventoryItemRepository.findByItemName("cup").getStock());
+		assertEquals(14, inventoryItemRepository.findByItemName("ice").getStock());
+	}
+
+	/**
+	 * Validate a stock-out rejects the batch and leaves both the stock and the
+	 * drawer as they were.
+	 */
+	@Test
+	void testStockOutRollsBackBatch() {
+		// Arrange: change for the $10 is in the drawer, but one cup is short
+		cashDrawer.reset(5, 1);
+		inventory.reset("cup", 2);
+
+		// Act
+		BillTally billsRemaining = orderProcessor.processBatch(batch(new int[] { 10, 5 }, new int[] { 1, 2 }));
+
+		// Assert
+		assertNull(billsRemaining);
+		assertEquals(2, inventory.getStock().get("cup"));
+		assertEquals(10, inventory.getStock().get("lemonade"));
+		assertEquals(20, inventory.getStock().get("ice"));
+		assertEquals(1, cashDrawer.getAvailable(5));
+	}
+
+	/**
+	 * Validate a batch that cannot be given change puts its stock back.
+	 */
+	@Test
+	void testChangeFailureReturnsStock() {
+		// Act: the $5 order is served, then the $20 finds no change
+		BillTally billsRemaining = orderProcessor.processBatch(batch(new int[] { 5, 20 }, new int[] { 1, 1 }));
+
+		// Assert
+		assertNull(billsRemaining);
+		assertEquals(10, inventory.getStock().get("lemonade"));
+		assertEquals(10, inventory.getStock().get("cup"));
+		assertEquals(20, inventory.getStock().get("ice"));
+	}
+
+	/**
+	 * Validate an order for a negative number of lemonades is rejected without
+	 * adding stock or bills.
+	 */
+	@Test
+	void testNegativeLemonadesAddNoStock() {
+		// Act
+		BillTally billsRemaining = orderProcessor.processBatch(batch(new int[] { 5, 5 }, new int[] { 1, -3 }));
+
+		// Assert
+		assertNull(billsRemaining);
+		assertEquals(10, inventory.getStock().get("lemonade"));
+		assertEquals(10, inventory.getStock().get("cup"));
+		assertEquals(20, inventory.getStock().get("ice"));
+		assertEquals(0, cashDrawer.getAvailable(5));
+	}
+
+	/**
+	 * Validate the restock endpoint adds stock and rejects unknown items.
+	 */
+	@Test
+	void testRestockEndpoint() throws Exception {
+		mockMvc.perform(post("/api/inventory/cup/restock").param("quantity", "5")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.cup").value(15)).andExpect(jsonPath("$.lemonade").value(10));
+		mockMvc.perform(post("/api/inventory/straw/restock").param("quantity", "5"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/api/inventory/cup/restock").param("quantity", "0")).andExpect(status().isBadRequest());
+	}
+
+	private static OrderBatch batch(int[] bills, int[] lemonades) {
+		List<CustomerOrder> orders = new ArrayList<>();
+		for (int i = 0; i < bills.length; i++) {
+			orders.add(new CustomerOrder(bills[i], i + 1, lemonades[i]));
+		}
+		return OrderBatch.fromOrders(orders);
+	}
+}
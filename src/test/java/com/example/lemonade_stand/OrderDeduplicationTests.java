@@ -0,0 +1,130 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.lemonade_stand.exception_handler.OrderViolation;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderBatch;
+import com.example.lemonade_stand.order.OrderDeduplicator;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderDeduplicationTests {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private OrderDeduplicator orderDeduplicator;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+
+	@BeforeEach
+	void setUp() {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+	}
+
+	/**
+	 * Validate a repeated position in line is reported for the later order, for
+	 * dense and sparse positions alike.
+	 */
+	@Test
+	void testDuplicatePositionsAreReported() {
+		// Arrange
+		OrderBatch dense = OrderBatch.fromOrders(
+				Arrays.asList(new CustomerOrder(5, 2, 1), new CustomerOrder(5, 1, 1), new CustomerOrder(10, 2, 1)));
+		OrderBatch sparse = OrderBatch.fromOrders(Arrays.asList(new CustomerOrder(5, 1_000_000, 1),
+				new CustomerOrder(5, 1, 1), new CustomerOrder(10, 1_000_000, 1)));
+
+		// Act
+		List<OrderViolation> denseViolations = orderDeduplicator.findDuplicates(dense);
+		List<OrderViolation> sparseViolations = orderDeduplicator.findDuplicates(sparse);
+
+		// Assert
+		for (List<OrderViolation> violations : Arrays.asList(denseViolations, sparseViolations)) {
+			assertEquals(1, violations.size());
+			assertEquals(2, violations.get(0).getIndex());
+			assertEquals("position_in_line", violations.get(0).getField());
+		}
+	}
+
+	/**
+	 * Validate a replayed order id is rejected with a 400 and the drawer counts
+	 * it only once.
+	 */
+	@Test
+	void testReplayedOrderIdIsRejected() throws Exception {
+		// Arrange
+		String body = "[{\"bill_value\":5,\"position_in_line\":1,\"requested_lemonades\":1,\"order_id\":\""
+				+ UUID.randomUUID() + "\"}]";
+		mockMvc.perform(post("/api/orders/process").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk());
+
+		// Act & Assert
+		mockMvc.perform(post("/api/orders/process").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isBadRequest()).andExpect(jsonPath("$.violations[0].field").value("order_id"));
+		assertEquals(1, orderRepositoryService.getBillCountInDatabase(5));
+	}
+
+	/**
+	 * Validate copies of one order racing past validation commit only once, and
+	 * an order of a failed batch can be retried.
+	 */
+	@Test
+	void testConcurrentReplaysCommitOnce() throws Exception {
+		// Arrange
+		String orderId = UUID.randomUUID().toString();
+		List<CustomerOrder> replay = Arrays.asList(new CustomerOrder(5, 1, 1, orderId));
+		List<Callable<String>> tasks = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			tasks.add(() -> orderProcessor.processOrders(replay));
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+
+		// Act
+		int committed = 0;
+		try {
+			for (Future<String> result : executor.invokeAll(tasks)) {
+				if (!"null".equals(result.get())) {
+					committed++;
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+		int fives = orderRepositoryService.getBillCountInDatabase(5);
+		String failedId = UUID.randomUUID().toString();
+		String failed = orderProcessor.processOrders(Arrays.asList(new CustomerOrder(20, 1, 1, failedId)));
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 2, 1), new CustomerOrder(10, 3, 1)));
+		String retried = orderProcessor.processOrders(Arrays.asList(new CustomerOrder(20, 1, 1, failedId)));
+
+		// Assert
+		assertEquals(1, committed);
+		assertEquals(1, fives);
+		assertEquals("null", failed);
+		assertEquals("[20]", retried);
+	}
+}
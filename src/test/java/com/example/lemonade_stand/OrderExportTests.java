@@ -0,0 +1,159 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.lemonade_stand.database.OrderLedgerRepository;
+import com.example.lemonade_stand.ledger.ColumnarLedgerExportWriter;
+import com.example.lemonade_stand.ledger.OrderLedgerWriter;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderOutcome;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+
+@SpringBootTest(properties = "lemonade.export.page-size=2")
+@AutoConfigureMockMvc
+class OrderExportTests {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+	@Autowired
+	private OrderLedgerWriter orderLedgerWriter;
+	@Autowired
+	private OrderLedgerRepository orderLedgerRepository;
+
+	@BeforeEach
+	void setUp() throws InterruptedException {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+		assertTrue(orderLedgerWriter.flush(5000));
+		orderLedgerRepository.deleteAllInBatch();
+
+		// A sold batch of three orders, then a batch failing on its second order
+		orderProcessor.processOrders(
+				Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(5, 2, 1), new CustomerOrder(10, 3, 1)));
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(10, 1, 1), new CustomerOrder(10, 2, 1)));
+		assertTrue(orderLedgerWriter.flush(5000));
+	}
+
+	/**
+	 * Validate the CSV export holds a header and every row of the range across
+	 * several pages, in processing order, and can be filtered by outcome.
+	 */
+	@Test
+	void testCsvExportStreamsEveryRowInOrder() throws Exception {
+		// Act
+		String csv = mockMvc.perform(get("/api/orders/export").param("format", "csv"))
+				.andExpect(status().isOk()).andExpect(header().string("Content-Type", "text/csv"))
+				.andReturn().getResponse().getContentAsString();
+		String sold = mockMvc.perform(get("/api/orders/export").param("outcome", "sold"))
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+		// Assert
+		String[] lines = csv.split("\r\n");
+		assertEquals(6, lines.length);
+		assertEquals("business_date,batch_id,position_in_batch,position_in_line,bill_value,requested_lemonades,"
+				+ "change_given,outcome,processed_at", lines[0]);
+		String today = LocalDate.now().toString();
+		String[] expectedOutcomes = { "SOLD", "SOLD", "SOLD", "ROLLED_BACK", "REJECTED" };
+		for (int i = 1; i < lines.length; i++) {
+			String[] fields = lines[i].split(",");
+			assertEquals(today, fields[0]);
+			assertEquals(expectedOutcomes[i - 1], fields[7]);
+		}
+		assertTrue(lines[3].contains(",2,3,10,1,5,SOLD,"));
+		assertEquals(4, sold.split("\r\n").length);
+	}
+
+	/**
+	 * Validate the columnar export stores one batch id per batch and round trips
+	 * every column.
+	 */
+	@Test
+	void testColumnarExportRoundTrips() throws Exception {
+		// Act
+		byte[] file = mockMvc.perform(get("/api/orders/export").param("format", "columnar"))
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsByteArray();
+
+		// Assert
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(file));
+		byte[] magic = new byte[4];
+		in.readFully(magic);
+		assertArrayEquals(ColumnarLedgerExportWriter.MAGIC, magic);
+		int rows = in.readInt();
+		assertEquals(5, rows);
+		for (int i = 0; i < rows; i++) {
+			assertEquals(LocalDate.now().toEpochDay(), in.readInt());
+		}
+		assertEquals(2, in.readInt()); // batch id runs
+		in.skipBytes(16);
+		assertEquals(3, in.readInt());
+		in.skipBytes(16);
+		assertEquals(2, in.readInt());
+		int[] positionsInBatch = readInts(in, rows);
+		assertArrayEquals(new int[] { 0, 1, 2, 0, 1 }, positionsInBatch);
+		int[] positionsInLine = readInts(in, rows);
+		assertArrayEquals(new int[] { 1, 2, 3, 1, 2 }, positionsInLine);
+		byte[] billValues = new byte[rows];
+		in.readFully(billValues);
+		assertArrayEquals(new byte[] { 5, 5, 10, 10, 10 }, billValues);
+		readInts(in, rows); // requested lemonades
+		assertArrayEquals(new int[] { 0, 0, 5, 5, 0 }, readInts(in, rows));
+		byte[] outcomes = new byte[rows];
+		in.readFully(outcomes);
+		assertEquals(OrderOutcome.REJECTED.ordinal(), outcomes[4]);
+		for (int i = 0; i < rows; i++) {
+			assertTrue(in.readLong() > 0);
+		}
+		assertEquals(0, in.readInt());
+		assertEquals(5, in.readLong());
+		assertEquals(-1, in.read());
+	}
+
+	/**
+	 * Validate bad parameters get a 400 and a range without orders gets only the
+	 * header.
+	 */
+	@Test
+	void testExportParameters() throws Exception {
+		String tomorrow = LocalDate.now().plusDays(1).toString();
+
+		mockMvc.perform(get("/api/orders/export").param("format", "xml")).andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/orders/export").param("outcome", "lost")).andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/orders/export").param("from", tomorrow).param("to", LocalDate.now().toString()))
+				.andExpect(status().isBadRequest());
+		String csv = mockMvc.perform(get("/api/orders/export").param("from", tomorrow).param("to", tomorrow))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Content-Disposition",
+						"attachment; filename=\"orders-" + tomorrow + "-" + tomorrow + ".csv\""))
+				.andReturn().getResponse().getContentAsString();
+		assertEquals(1, csv.split("\r\n").length);
+	}
+
+	private static int[] readInts(DataInputStream in, int count) throws java.io.IOException {
+		int[] values = new int[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = in.readInt();
+		}
+		return values;
+	}
+}
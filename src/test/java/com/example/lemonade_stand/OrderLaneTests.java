@@ -0,0 +1,137 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.lemonade_stand.lane.Lane;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+import com.example.lemonade_stand.order.ServingScheduler;
+import com.example.lemonade_stand.order.ServingTurn;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = { "lemonade.batch.serving-slots=1", "lemonade.lanes.bulk.threads=1",
+		"lemonade.lanes.bulk.queue-capacity=1" })
+@AutoConfigureMockMvc
+class OrderLaneTests {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private ServingScheduler servingScheduler;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+	}
+
+	/**
+	 * Validate interactive batches that arrive after a waiting bulk batch are
+	 * served first, by the lanes' weights.
+	 */
+	@Test
+	void testInteractiveBatchesServedAheadOfWaitingBulkBatch() throws Exception {
+		// Arrange: a batch holds the only slot; bulk arrives before two checkouts
+		List<String> servingOrder = Collections.synchronizedList(new ArrayList<>());
+		ServingTurn held = servingScheduler.start(Lane.BULK);
+		CompletableFuture<Void> bulk = serveAsync(Lane.BULK, "bulk", servingOrder);
+		awaitTrue(() -> servingScheduler.getWaiting(Lane.BULK) == 1);
+		CompletableFuture<Void> first = serveAsync(Lane.INTERACTIVE, "interactive-1", servingOrder);
+		awaitTrue(() -> servingScheduler.getWaiting(Lane.INTERACTIVE) == 1);
+		CompletableFuture<Void> second = serveAsync(Lane.INTERACTIVE, "interactive-2", servingOrder);
+		awaitTrue(() -> servingScheduler.getWaiting(Lane.INTERACTIVE) == 2);
+
+		// Act
+		held.close();
+		CompletableFuture.allOf(bulk, first, second).get(5, TimeUnit.SECONDS);
+
+		// Assert
+		assertEquals(Arrays.asList("interactive-1", "interactive-2", "bulk"), servingOrder);
+	}
+
+	/**
+	 * Validate the lane header is honoured and checked, and a full bulk lane
+	 * rejects further bulk batches while checkouts still go through.
+	 */
+	@Test
+	void testFullBulkLaneRejectsBatches() throws Exception {
+		String body = "[{\"bill_value\":5,\"position_in_line\":1,\"requested_lemonades\":1}]";
+		mockMvc.perform(post("/api/orders/process").contentType(MediaType.APPLICATION_JSON).content(body)
+				.header(Lane.HEADER, "express")).andExpect(status().isBadRequest());
+
+		// Arrange: the only bulk thread waits for the held slot, one bulk batch is
+		// queued behind it
+		ServingTurn held = servingScheduler.start(Lane.INTERACTIVE);
+		List<CompletableFuture<Integer>> queued = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			queued.add(CompletableFuture.supplyAsync(() -> postStatus(body, "bulk")));
+		}
+		awaitTrue(() -> meterRegistry.get("lemonade.lane.queued").tag("lane", "bulk").gauge().value() == 1
+				&& servingScheduler.getWaiting(Lane.BULK) == 1);
+
+		// Act
+		mockMvc.perform(post("/api/orders/process").contentType(MediaType.APPLICATION_JSON).content(body)
+				.header(Lane.HEADER, "BULK")).andExpect(status().isTooManyRequests())
+				.andExpect(header().string("Retry-After", "1"));
+		held.close();
+
+		// Assert
+		mockMvc.perform(post("/api/orders/process").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk());
+		for (CompletableFuture<Integer> batch : queued) {
+			assertEquals(200, batch.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, meterRegistry.get("lemonade.lane.rejected").tag("lane", "bulk").counter().count());
+	}
+
+	private CompletableFuture<Void> serveAsync(Lane lane, String name, List<String> servingOrder) {
+		return CompletableFuture.runAsync(() -> {
+			try (ServingTurn turn = servingScheduler.start(lane)) {
+				servingOrder.add(name);
+			}
+		});
+	}
+
+	private int postStatus(String body, String lane) {
+		try {
+			return mockMvc.perform(post("/api/orders/process").contentType(MediaType.APPLICATION_JSON).content(body)
+					.header(Lane.HEADER, lane)).andReturn().getResponse().getStatus();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		assertTrue(condition.getAsBoolean());
+	}
+}
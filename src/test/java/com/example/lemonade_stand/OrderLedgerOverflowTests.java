@@ -0,0 +1,69 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.lemonade_stand.database.OrderLedgerRepository;
+import com.example.lemonade_stand.ledger.OrderLedgerWriter;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = "lemonade.ledger.queue-capacity=1")
+class OrderLedgerOverflowTests {
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+	@Autowired
+	private OrderLedgerWriter orderLedgerWriter;
+	@Autowired
+	private OrderLedgerRepository orderLedgerRepository;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() throws InterruptedException {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+		assertTrue(orderLedgerWriter.flush(5000));
+		orderLedgerRepository.deleteAllInBatch();
+	}
+
+	/**
+	 * Validate a batch arriving at a full ledger queue is dropped and counted
+	 * rather than written by the request thread.
+	 */
+	@Test
+	void testFullQueueDropsBatchWithoutWritingOnCaller() throws InterruptedException {
+		// Arrange
+		double dropped = droppedBatches();
+
+		// Act: the writer is paused, so at most one batch is taken and one queued
+		orderLedgerWriter.whileWritesPaused(() -> {
+			for (int i = 0; i < 5; i++) {
+				orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1)));
+			}
+			return null;
+		});
+		assertTrue(orderLedgerWriter.flush(5000));
+
+		// Assert
+		long written = orderLedgerRepository.count();
+		assertTrue(written <= 2, "written " + written);
+		assertEquals(5, written + (long) (droppedBatches() - dropped));
+	}
+
+	private double droppedBatches() {
+		return meterRegistry.get("lemonade.ledger.dropped").counter().count();
+	}
+}
@@ -0,0 +1,236 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.lemonade_stand.database.OrderLedgerRecord;
+import com.example.lemonade_stand.database.OrderLedgerRepository;
+import com.example.lemonade_stand.ledger.OrderLedgerWriter;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderOutcome;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+class OrderLedgerTests {
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+	@Autowired
+	private OrderLedgerWriter orderLedgerWriter;
+	@Autowired
+	private OrderLedgerRepository orderLedgerRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() throws InterruptedException {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+		assertTrue(orderLedgerWriter.flush(5000));
+		orderLedgerRepository.deleteAllInBatch();
+	}
+
+	/**
+	 * Validate every order of a completed batch is written with its change and a
+	 * SOLD outcome.
+	 */
+	@Test
+	void testCompletedBatchIsWrittenToLedger() throws InterruptedException {
+		// Arrange: a previous batch leaves a 5 bill in the drawer for change
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1)));
+		assertTrue(orderLedgerWriter.flush(5000));
+		orderLedgerRepository.deleteAllInBatch();
+		List<CustomerOrder> orders = Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(10, 2, 1));
+
+		// Act
+		orderProcessor.processOrders(orders);
+		assertTrue(orderLedgerWriter.flush(5000));
+
+		// Assert
+		List<OrderLedgerRecord> rows = ledgerRows();
+		assertEquals(2, rows.size());
+		assertEquals(rows.get(0).getBatchId(), rows.get(1).getBatchId());
+		assertEquals(LocalDate.now(), rows.get(0).getBusinessDate());
+		assertEquals(OrderOutcome.SOLD, rows.get(0).getOutcome());
+		assertEquals(0, rows.get(0).getChangeGiven());
+		assertEquals(OrderOutcome.SOLD, rows.get(1).getOutcome());
+		assertEquals(5, rows.get(1).getChangeGiven());
+	}
+
+	/**
+	 * Validate a failed batch records the rejected order, rolls back the orders
+	 * served before it and leaves later orders unprocessed.
+	 */
+	@Test
+	void testFailedBatchIsWrittenToLedger() throws InterruptedException {
+		// Arrange: the second customer cannot get change for a 20 bill
+		List<CustomerOrder> orders = Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(20, 2, 1),
+				new CustomerOrder(5, 3, 1));
+
+		// Act
+		orderProcessor.processOrders(orders);
+		assertTrue(orderLedgerWriter.flush(5000));
+
+		// Assert
+		List<OrderOutcome> outcomes = ledgerRows().stream().map(OrderLedgerRecord::getOutcome)
+				.collect(Collectors.toList());
+		assertEquals(Arrays.asList(OrderOutcome.ROLLED_BACK, OrderOutcome.REJECTED, OrderOutcome.NOT_PROCESSED),
+				outcomes);
+	}
+
+	/**
+	 * Validate dropping old days removes only rows before the given date.
+	 */
+	@Test
+	void testDropDaysBeforeKeepsLaterDays() throws InterruptedException {
+		// Arrange
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1)));
+		assertTrue(orderLedgerWriter.flush(5000));
+
+		// Act
+		int keptDayRemoved = orderLedgerWriter.dropDaysBefore(LocalDate.now());
+		int allRemoved = orderLedgerWriter.dropDaysBefore(LocalDate.now().plusDays(1));
+
+		// Assert
+		assertEquals(0, keptDayRemoved);
+		assertEquals(1, allRemoved);
+		assertEquals(0, orderLedgerRepository.count());
+	}
+
+	/**
+	 * Validate a batch whose first inserts fail is written once the database is
+	 * back, without being counted as dropped.
+	 */
+	@Test
+	void testFailedInsertIsRetried() throws InterruptedException {
+		// Arrange: the next two ledger inserts fail
+		double dropped = droppedBatches();
+		FailingInsertTrigger.failuresLeft.set(2);
+		createFailingInsertTrigger();
+
+		// Act
+		try {
+			orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1)));
+			assertTrue(orderLedgerWriter.flush(5000));
+		} finally {
+			jdbcTemplate.execute("DROP TRIGGER fail_ledger_insert");
+		}
+
+		// Assert
+		assertEquals(1, orderLedgerRepository.count());
+		assertEquals(dropped, droppedBatches());
+	}
+
+	/**
+	 * Validate a batch failing every insert attempt is dropped and counted.
+	 */
+	@Test
+	void testBatchFailingEveryInsertIsCountedAsDropped() throws InterruptedException {
+		// Arrange: every ledger insert fails
+		double dropped = droppedBatches();
+		FailingInsertTrigger.failuresLeft.set(Integer.MAX_VALUE);
+		createFailingInsertTrigger();
+
+		// Act
+		try {
+			orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1)));
+			assertTrue(orderLedgerWriter.flush(5000));
+		} finally {
+			jdbcTemplate.execute("DROP TRIGGER fail_ledger_insert");
+		}
+
+		// Assert
+		assertEquals(0, orderLedgerRepository.count());
+		assertEquals(dropped + 1, droppedBatches());
+	}
+
+	/**
+	 * Validate an insert failing partway through a batch leaves no rows behind,
+	 * so the retry writes every order exactly once.
+	 */
+	@Test
+	void testPartlyFailedInsertIsNotWrittenTwice() throws InterruptedException {
+		// Arrange: the first row of the next insert goes through, the second fails
+		FailingInsertTrigger.rowsToPass.set(1);
+		FailingInsertTrigger.failuresLeft.set(1);
+		createFailingInsertTrigger();
+
+		// Act
+		try {
+			orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(5, 2, 1)));
+			assertTrue(orderLedgerWriter.flush(5000));
+		} finally {
+			jdbcTemplate.execute("DROP TRIGGER fail_ledger_insert");
+		}
+
+		// Assert
+		List<OrderLedgerRecord> rows = ledgerRows();
+		assertEquals(2, rows.size());
+		assertEquals(0, rows.get(0).getPositionInBatch());
+		assertEquals(1, rows.get(1).getPositionInBatch());
+	}
+
+	private void createFailingInsertTrigger() {
+		jdbcTemplate.execute("CREATE TRIGGER fail_ledger_insert BEFORE INSERT ON order_ledger FOR EACH ROW CALL \""
+				+ FailingInsertTrigger.class.getName() + "\"");
+	}
+
+	private double droppedBatches() {
+		return meterRegistry.get("lemonade.ledger.dropped").counter().count();
+	}
+
+	private List<OrderLedgerRecord> ledgerRows() {
+		return orderLedgerRepository.findAll().stream()
+				.sorted(Comparator.comparingInt(OrderLedgerRecord::getPositionInBatch)).collect(Collectors.toList());
+	}
+
+	// Lets some rows through, then fails ledger inserts while failures are left
+	public static class FailingInsertTrigger implements org.h2.api.Trigger {
+		static final AtomicInteger rowsToPass = new AtomicInteger();
+		static final AtomicInteger failuresLeft = new AtomicInteger();
+
+		@Override
+		public void init(Connection conn, String schemaName, String triggerName, String tableName, boolean before,
+				int type) {
+		}
+
+		@Override
+		public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+			if (rowsToPass.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+				return;
+			}
+			if (failuresLeft.getAndDecrement() > 0) {
+				throw new SQLException("Database unavailable");
+			}
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public void remove() {
+		}
+	}
+}
@@ -212,6 +212,28 @@ class OrderProcessorTests {
 		assertEquals("null", result); // Second order is invalid as no lemonades are requested.
 	}
 
+	/**
+	 * Test case for processing orders where one pays with a bill that is not
+	 * accepted.
+	 * 
+	 * Arrange: Create multiple CustomerOrders including one paying with a $15 bill.
+	 * Act: Process the orders and get the result. Assert: Verify the result is null
+	 * and nothing was sold.
+	 */
+	@Test
+	void testProcessOrders_InvalidMultipleOrders_InvalidBill() {
+		CustomerOrder order1 = new CustomerOrder(5, 1, 1); // Cost: 5
+		CustomerOrder order2 = new CustomerOrder(15, 2, 1); // Not a valid bill
+		List<CustomerOrder> orders = Arrays.asList(order1, order2);
+
+		// Act
+		String result = orderProcessor.processOrders(orders);
+
+		// Assert
+		assertEquals("null", result); // The batch is rejected as a whole.
+		assertEquals(0, orderRepositoryService.getLemonadesSold());
+	}
+
 	/**
 	 * Test case for processing orders where the list of orders is null.
 	 * 
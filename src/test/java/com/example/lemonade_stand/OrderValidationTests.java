@@ -0,0 +1,124 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.lemonade_stand.exception_handler.OrderViolation;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderBatch;
+import com.example.lemonade_stand.order.OrderBatchValidator;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderValidationTests {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private OrderBatchValidator orderBatchValidator;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+
+	@BeforeEach
+	void setUp() {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+	}
+
+	/**
+	 * Validate all invalid bills of a batch are collected in one pass, each with
+	 * its request index.
+	 */
+	@Test
+	void testValidatorCollectsAllViolations() {
+		// Arrange: orders at index 0 and 2 carry invalid bills
+		OrderBatch batch = OrderBatch.fromOrders(
+				Arrays.asList(new CustomerOrder(0, 1, 1), new CustomerOrder(5, 2, 1), new CustomerOrder(15, 3, 1)));
+
+		// Act
+		List<OrderViolation> violations = orderBatchValidator.validate(batch);
+
+		// Assert
+		assertEquals(2, violations.size());
+		assertEquals(0, violations.get(0).getIndex());
+		assertEquals(2, violations.get(1).getIndex());
+		assertEquals(15, violations.get(1).getRejectedValue());
+	}
+
+	/**
+	 * Validate a negative number of requested lemonades is reported as a
+	 * violation of its own field.
+	 */
+	@Test
+	void testValidatorRejectsNegativeLemonades() {
+		// Arrange
+		OrderBatch batch = OrderBatch.fromOrders(Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(5, 2, -1)));
+
+		// Act
+		List<OrderViolation> violations = orderBatchValidator.validate(batch);
+
+		// Assert
+		assertEquals(1, violations.size());
+		assertEquals(1, violations.get(0).getIndex());
+		assertEquals("requested_lemonades", violations.get(0).getField());
+		assertEquals(-1, violations.get(0).getRejectedValue());
+	}
+
+	/**
+	 * Validate a valid batch yields no violations.
+	 */
+	@Test
+	void testValidatorAcceptsValidBatch() {
+		OrderBatch batch = OrderBatch.fromOrders(Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(20, 2, 4)));
+
+		assertTrue(orderBatchValidator.validate(batch).isEmpty());
+	}
+
+	/**
+	 * Validate a JSON batch with invalid bills returns a structured 400 listing
+	 * every violation.
+	 */
+	@Test
+	void testJsonBatchViolationsReturnedAsBadRequest() throws Exception {
+		String body = "[{\"bill_value\": 0, \"position_in_line\": 1, \"requested_lemonades\": 1},"
+				+ "{\"bill_value\": 5, \"position_in_line\": 2, \"requested_lemonades\": 1},"
+				+ "{\"bill_value\": 50, \"position_in_line\": 3, \"requested_lemonades\": 1}]";
+
+		mockMvc.perform(post("/api/orders/process").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isBadRequest()).andExpect(jsonPath("$.status").value(400))
+				.andExpect(jsonPath("$.violations.length()").value(2))
+				.andExpect(jsonPath("$.violations[0].index").value(0))
+				.andExpect(jsonPath("$.violations[0].message")
+						.value("Invalid bill value: 0. Accepted values are 5, 10, or 20."))
+				.andExpect(jsonPath("$.violations[1].index").value(2));
+	}
+
+	/**
+	 * Validate a valid JSON batch is still processed normally.
+	 */
+	@Test
+	void testValidJsonBatchProcessed() throws Exception {
+		String body = "[{\"bill_value\": 10, \"position_in_line\": 1, \"requested_lemonades\": 2}]";
+
+		mockMvc.perform(post("/api/orders/process").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk()).andExpect(content().string("[10]"));
+	}
+}
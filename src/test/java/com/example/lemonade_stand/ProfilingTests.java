@@ -0,0 +1,135 @@
+package com.example.lemonade_stand;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.lemonade_stand.order.ChangeEvent;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderBatchEvent;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+import com.example.lemonade_stand.order.RepositoryCallEvent;
+import com.example.lemonade_stand.profiling.ProfilingService;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@SpringBootTest(properties = { "lemonade.profiling.enabled=true", "lemonade.profiling.max-duration-seconds=60" })
+@AutoConfigureMockMvc
+class ProfilingTests {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+	@Autowired
+	private ProfilingService profilingService;
+
+	@BeforeEach
+	void setUp() {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+	}
+
+	@AfterEach
+	void tearDown() {
+		profilingService.stop();
+	}
+
+	/**
+	 * Validate a batch emits one batch event, a change event per order owed
+	 * change, and repository call events for its commit.
+	 */
+	@Test
+	void testBatchEmitsOrderEvents() throws Exception {
+		// Arrange
+		Path file = Files.createTempFile("lemonade", ".jfr");
+		List<RecordedEvent> events;
+
+		// Act: the $10 order is owed one $5 bill, the $20 order cannot get $15
+		try (Recording recording = new Recording()) {
+			recording.enable(OrderBatchEvent.NAME);
+			recording.enable(ChangeEvent.NAME);
+			recording.enable(RepositoryCallEvent.NAME);
+			recording.start();
+			orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(10, 2, 1)));
+			orderProcessor.processOrders(Arrays.asList(new CustomerOrder(20, 1, 1)));
+			recording.stop();
+			recording.dump(file);
+			events = RecordingFile.readAllEvents(file);
+		} finally {
+			Files.delete(file);
+		}
+
+		// Assert
+		List<RecordedEvent> batches = ofType(events, OrderBatchEvent.NAME);
+		assertEquals(2, batches.size());
+		assertEquals(2, batches.get(0).getInt("orders"));
+		assertTrue(batches.get(0).getBoolean("committed"));
+		assertFalse(batches.get(1).getBoolean("committed"));
+		assertEquals(36, batches.get(0).getString("batchId").length());
+
+		List<RecordedEvent> changes = ofType(events, ChangeEvent.NAME);
+		assertEquals(2, changes.size());
+		assertEquals(5, changes.get(0).getInt("changeRequired"));
+		assertTrue(changes.get(0).getBoolean("succeeded"));
+		assertEquals(20, changes.get(1).getInt("billValue"));
+		assertFalse(changes.get(1).getBoolean("succeeded"));
+
+		assertTrue(ofType(events, RepositoryCallEvent.NAME).stream()
+				.anyMatch(event -> "commitBatch".equals(event.getString("operation"))));
+	}
+
+	/**
+	 * Validate the admin endpoint runs one recording at a time and serves it as a
+	 * JFR file once stopped.
+	 */
+	@Test
+	void testEndpointRecordsAndDownloads() throws Exception {
+		// Act
+		mockMvc.perform(post("/api/admin/profiling/start").param("durationSeconds", "30")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.state").value("RUNNING"));
+		mockMvc.perform(post("/api/admin/profiling/start")).andExpect(status().isConflict());
+		mockMvc.perform(get("/api/admin/profiling/recording")).andExpect(status().isNotFound());
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1)));
+		mockMvc.perform(post("/api/admin/profiling/stop")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.state").value("STOPPED"));
+
+		// Assert
+		byte[] body = mockMvc.perform(get("/api/admin/profiling/recording")).andExpect(status().isOk())
+				.andExpect(header().string("Content-Disposition", endsWith(".jfr\"")))
+				.andReturn().getResponse().getContentAsByteArray();
+		assertArrayEquals("FLR\0".getBytes(StandardCharsets.US_ASCII), Arrays.copyOf(body, 4));
+		mockMvc.perform(post("/api/admin/profiling/stop")).andExpect(status().isConflict());
+	}
+
+	private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+		return events.stream().filter(event -> name.equals(event.getEventType().getName()))
+				.sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime())).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,186 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import com.example.lemonade_stand.drawer.CashDrawer;
+import com.example.lemonade_stand.lane.Lane;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+import com.example.lemonade_stand.order.SalesStateVersion;
+import com.example.lemonade_stand.replication.ReplicationFollower;
+import com.example.lemonade_stand.replication.ReplicationLeader;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs a leader in the test context and a follower as a second application on
+ * localhost with its own database.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = { "lemonade.replication.role=leader",
+		"lemonade.replication.port=0", "lemonade.replication.heartbeat-millis=200" })
+class ReplicationTests {
+	private static ConfigurableApplicationContext follower;
+
+	@LocalServerPort
+	private int leaderHttpPort;
+	@Autowired
+	private ReplicationLeader replicationLeader;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+	@Autowired
+	private CashDrawer cashDrawer;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final HttpClient httpClient = HttpClient.newHttpClient();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+		replicationLeader.resync();
+		if (follower == null) {
+			follower = new SpringApplicationBuilder(LemonadeStandApplication.class).run("--server.port=0",
+					"--spring.datasource.url=jdbc:h2:mem:follower", "--lemonade.replication.role=follower",
+					"--lemonade.replication.leader-port=" + replicationLeader.getPort(),
+					"--lemonade.replication.leader-url=http://localhost:" + leaderHttpPort,
+					"--lemonade.replication.heartbeat-millis=200", "--lemonade.replication.retry-millis=100");
+		}
+		awaitFollower();
+	}
+
+	@AfterAll
+	static void stopFollower() {
+		if (follower != null) {
+			follower.close();
+			follower = null;
+		}
+	}
+
+	/**
+	 * Validate batches committed on the leader reach the follower's report.
+	 */
+	@Test
+	void testFollowerServesReplicatedReport() throws Exception {
+		// Act
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(5, 2, 1)));
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(10, 1, 1)));
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(10, 1, 1), new CustomerOrder(10, 2, 1))); // Rolled back
+		awaitFollower();
+
+		// Assert
+		String report = get(leaderHttpPort, "/api/orders/report");
+		assertTrue(report.contains("Total Lemonades sold so far - 3"), report);
+		assertTrue(report.contains("Total 5 Bills Remaining - 1"), report);
+		assertEquals(report, get(followerHttpPort(), "/api/orders/report"));
+	}
+
+	/**
+	 * Validate a replicated batch is written on the follower as one change, so
+	 * its report never shows part of it.
+	 */
+	@Test
+	void testFollowerAppliesBatchAtOnce() throws Exception {
+		// Arrange
+		SalesStateVersion followerVersion = follower.getBean(SalesStateVersion.class);
+		long versionBefore = followerVersion.get();
+
+		// Act
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(10, 2, 1)));
+		awaitFollower();
+
+		// Assert
+		assertEquals(versionBefore + 1, followerVersion.get());
+		assertEquals(2, follower.getBean(OrderRepositoryService.class).getLemonadesSold());
+		assertEquals(1, follower.getBean(OrderRepositoryService.class).getBillCountInDatabase(10));
+	}
+
+	/**
+	 * Validate orders posted to the follower are processed by the leader and
+	 * replicated back.
+	 */
+	@Test
+	void testFollowerForwardsOrdersToLeader() throws Exception {
+		// Act
+		HttpResponse<String> response = httpClient.send(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + followerHttpPort() + "/api/orders/process"))
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofString(
+								"[{\"bill_value\":5,\"position_in_line\":1,\"requested_lemonades\":1},"
+										+ "{\"bill_value\":10,\"position_in_line\":2,\"requested_lemonades\":1}]"))
+						.build(),
+				HttpResponse.BodyHandlers.ofString());
+		awaitFollower();
+
+		// Assert: the leader took the $5 and $10 and gave the $5 back as change
+		assertEquals(200, response.statusCode());
+		assertEquals("[10]", response.body());
+		assertEquals(0, cashDrawer.getAvailable(5));
+		assertEquals(1, cashDrawer.getAvailable(10));
+		String report = get(followerHttpPort(), "/api/orders/report");
+		assertTrue(report.contains("Total Lemonades sold so far - 2"), report);
+		assertTrue(report.contains("Total 10 Bills Remaining - 1"), report);
+	}
+
+	/**
+	 * Validate the lane a client asks the follower for is the lane the leader runs
+	 * the batch in.
+	 */
+	@Test
+	void testFollowerForwardsRequestedLane() throws Exception {
+		// Arrange
+		long bulkBatches = meterRegistry.get("lemonade.lane.latency").tag("lane", "bulk").timer().count();
+
+		// Act
+		HttpResponse<String> response = httpClient.send(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + followerHttpPort() + "/api/orders/process"))
+						.header("Content-Type", "application/json").header(Lane.HEADER, "bulk")
+						.POST(HttpRequest.BodyPublishers
+								.ofString("[{\"bill_value\":5,\"position_in_line\":1,\"requested_lemonades\":1}]"))
+						.build(),
+				HttpResponse.BodyHandlers.ofString());
+
+		// Assert
+		assertEquals(200, response.statusCode());
+		assertEquals(bulkBatches + 1, meterRegistry.get("lemonade.lane.latency").tag("lane", "bulk").timer().count());
+	}
+
+	private int followerHttpPort() {
+		return Integer.parseInt(follower.getBean(Environment.class).getProperty("local.server.port"));
+	}
+
+	private String get(int port, String path) throws Exception {
+		return httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+				HttpResponse.BodyHandlers.ofString()).body();
+	}
+
+	private void awaitFollower() throws InterruptedException {
+		ReplicationFollower replica = follower.getBean(ReplicationFollower.class);
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (replica.getAppliedSequence() < replicationLeader.getSequence()) {
+			assertTrue(System.currentTimeMillis() < deadline, "Follower did not catch up");
+			Thread.sleep(10);
+		}
+	}
+}
@@ -1,6 +1,11 @@
 package com.example.lemonade_stand;
 
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -9,15 +14,21 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
 
 import com.example.lemonade_stand.order.CustomerOrder;
 import com.example.lemonade_stand.order.OrderProcessor;
 import com.example.lemonade_stand.order.OrderRepositoryService;
 import com.example.lemonade_stand.order.SalesReportGenerator;
+import com.example.lemonade_stand.order.SalesReportGenerator.Format;
 
 @SpringBootTest
+@AutoConfigureMockMvc
 class ReportSummaryTests {
+	@Autowired
+	private MockMvc mockMvc;
 	@Autowired
 	private OrderProcessor orderProcessor;
 	@Autowired
@@ -178,6 +189,44 @@ class ReportSummaryTests {
 				"Report should indicate correct sales figure, report output - " + report);
 	}
 
+	/**
+	 * Validate the rendered report is reused until a batch commits, and then
+	 * shows the batch.
+	 */
+	@Test
+	void testReportIsRenderedOncePerState() {
+		// Arrange
+		byte[] first = salesReportGenerator.getReport(Format.TEXT);
+
+		// Act
+		byte[] unchanged = salesReportGenerator.getReport(Format.TEXT);
+		orderProcessor.processOrders(Collections.singletonList(new CustomerOrder(5, 1, 1)));
+		byte[] changed = salesReportGenerator.getReport(Format.TEXT);
+
+		// Assert
+		assertSame(first, unchanged);
+		assertNotSame(first, changed);
+		assertTrue(new String(changed).contains("Total Lemonades sold so far - 1"));
+	}
+
+	/**
+	 * Validate the report endpoint serves the text and JSON renderings.
+	 */
+	@Test
+	void testReportEndpointFormats() throws Exception {
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(10, 2, 1)));
+
+		mockMvc.perform(get("/api/orders/report")).andExpect(status().isOk())
+				.andExpect(content().contentType("text/plain;charset=UTF-8"))
+				.andExpect(content().string("Total Lemonades sold so far - 2\nTotal Profit Made - 10\n"
+						+ "Total 5 Bills Remaining - 0\nTotal 10 Bills Remaining - 1\nTotal 20 Bills Remaining - 0\n"));
+		mockMvc.perform(get("/api/orders/report").param("format", "json")).andExpect(status().isOk())
+				.andExpect(content().contentType("application/json"))
+				.andExpect(content().json("{\"lemonades_sold\":2,\"profit\":10,"
+						+ "\"bills_remaining\":{\"5\":0,\"10\":1,\"20\":0}}", true));
+		mockMvc.perform(get("/api/orders/report").param("format", "xml")).andExpect(status().isBadRequest());
+	}
+
 	private boolean validateEmptyReport(String report) {
 		// Check if the report contains all the required texts
 		return report.contains("Total Lemonades sold so far - 0") && report.contains("Total Profit Made - 0")
@@ -0,0 +1,142 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.lemonade_stand.database.CacheNames;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+import com.example.lemonade_stand.order.SalesReportGenerator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@ActiveProfiles("cache")
+class RepositoryCacheTests {
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private SalesReportGenerator salesReportGenerator;
+	@Autowired
+	private MeterRegistry meterRegistry;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@Autowired
+	private CacheManager cacheManager;
+
+	@BeforeEach
+	void setUp() {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+	}
+
+	/**
+	 * Validate repeated lookups are served from the cache and a write is visible
+	 * to the next lookup.
+	 */
+	@Test
+	void testLookupsAreCachedAndEvictedOnWrite() {
+		// Arrange
+		orderRepositoryService.getBillCountInDatabase(10);
+		double hits = cacheGets(CacheNames.BILL_COUNTER, "hit");
+
+		// Act
+		int cached = orderRepositoryService.getBillCountInDatabase(10);
+		orderRepositoryService.applyBillDelta(10, 3);
+		int afterWrite = orderRepositoryService.getBillCountInDatabase(10);
+
+		// Assert
+		assertEquals(0, cached);
+		assertEquals(hits + 1, cacheGets(CacheNames.BILL_COUNTER, "hit"));
+		assertEquals(3, afterWrite);
+	}
+
+	/**
+	 * Validate a lookup made while a write is being committed does not leave the
+	 * old count cached once the write has committed.
+	 */
+	@Test
+	void testLookupRacingCommitIsNotCachedStale() {
+		// Act: another thread looks the count up between the write and the commit
+		int duringWrite = new TransactionTemplate(transactionManager).execute(status -> {
+			orderRepositoryService.applyBillDelta(10, 3);
+			return CompletableFuture.supplyAsync(() -> orderRepositoryService.getBillCountInDatabase(10)).join();
+		});
+		int afterCommit = orderRepositoryService.getBillCountInDatabase(10);
+
+		// Assert
+		assertEquals(0, duringWrite);
+		assertEquals(3, afterCommit);
+	}
+
+	/**
+	 * Validate a lookup that reads the old count before a commit, but stores it
+	 * only after the commit's eviction, is not served once the write committed.
+	 */
+	@Test
+	void testLookupStraddlingCommitIsNotCachedStale() {
+		// Arrange: another thread looks the count up between the write and the commit
+		Cache cache = cacheManager.getCache(CacheNames.BILL_COUNTER);
+		Map<Object, Object> readBeforeCommit = new TransactionTemplate(transactionManager).execute(status -> {
+			orderRepositoryService.applyBillDelta(10, 3);
+			CompletableFuture.supplyAsync(() -> orderRepositoryService.getBillCountInDatabase(10)).join();
+			return new HashMap<>(nativeCache(cache).asMap());
+		});
+
+		// Act: the lookup's store lands after the commit has evicted the cache
+		readBeforeCommit.forEach(cache::put);
+		int afterCommit = orderRepositoryService.getBillCountInDatabase(10);
+
+		// Assert
+		assertTrue(readBeforeCommit.containsValue(0));
+		assertEquals(3, afterCommit);
+	}
+
+	/**
+	 * Validate the sales report reflects every committed batch while its lookups
+	 * are cached, and polling an unchanged report skips the lookups altogether.
+	 */
+	@Test
+	void testReportReflectsCommittedBatches() {
+		// Arrange
+		salesReportGenerator.getCompleteSalesReport();
+
+		// Act
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(10, 2, 1)));
+		String report = salesReportGenerator.getCompleteSalesReport();
+		double lookups = cacheGets(CacheNames.LATEST_SALES, "hit") + cacheGets(CacheNames.LATEST_SALES, "miss");
+		salesReportGenerator.getCompleteSalesReport();
+
+		// Assert
+		assertTrue(report.contains("Total Lemonades sold so far - 2"), report);
+		assertTrue(report.contains("Total 10 Bills Remaining - 1"), report);
+		assertEquals(lookups, cacheGets(CacheNames.LATEST_SALES, "hit") + cacheGets(CacheNames.LATEST_SALES, "miss"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache(Cache cache) {
+		return (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+	}
+
+	private double cacheGets(String cache, String result) {
+		return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
+	}
+}
@@ -0,0 +1,120 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.lemonade_stand.database.OrderLedgerRepository;
+import com.example.lemonade_stand.ledger.OrderLedgerWriter;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+import com.example.lemonade_stand.projection.BasketSizeProjection.BasketSize;
+import com.example.lemonade_stand.projection.DenominationTurnoverProjection.DenominationTurnover;
+import com.example.lemonade_stand.projection.HourlyRevenueProjection.HourlyRevenue;
+import com.example.lemonade_stand.projection.SalesProjections;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SalesProjectionTests {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+	@Autowired
+	private OrderLedgerWriter orderLedgerWriter;
+	@Autowired
+	private OrderLedgerRepository orderLedgerRepository;
+	@Autowired
+	private SalesProjections salesProjections;
+
+	@BeforeEach
+	void setUp() throws InterruptedException {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+		assertTrue(orderLedgerWriter.flush(5000));
+		orderLedgerRepository.deleteAllInBatch();
+		salesProjections.rebuild();
+	}
+
+	/**
+	 * Validate committed batches update every read model once they are in the
+	 * ledger, and a failed batch updates none.
+	 */
+	@Test
+	void testCommittedBatchesUpdateReadModels() throws InterruptedException {
+		// Act: the $20 order of the last batch cannot get $15 back
+		processSampleBatches();
+
+		// Assert
+		BasketSize basket = (BasketSize) salesProjections.query("basket-size").get();
+		assertEquals(2, basket.getBatches());
+		assertEquals(4, basket.getOrders());
+		assertEquals(1.5, basket.getLemonadesPerOrder(), 1e-9);
+
+		@SuppressWarnings("unchecked")
+		List<DenominationTurnover> turnover = (List<DenominationTurnover>) salesProjections
+				.query("denomination-turnover").get();
+		assertEquals(2, turnover.get(0).getBillsCollected());
+		assertEquals(10, turnover.get(0).getRevenue());
+		assertEquals(1, turnover.get(1).getBillsCollected());
+		assertEquals(5, turnover.get(1).getChangeGiven());
+		assertEquals(1, turnover.get(2).getBillsCollected());
+		assertEquals(15, turnover.get(2).getRevenue());
+		assertEquals(5, turnover.get(2).getChangeGiven());
+
+		@SuppressWarnings("unchecked")
+		List<HourlyRevenue> hours = (List<HourlyRevenue>) salesProjections.query("hourly-revenue").get();
+		assertEquals(30, hours.stream().mapToLong(HourlyRevenue::getRevenue).sum());
+	}
+
+	/**
+	 * Validate a rebuild from the ledger reproduces the incrementally updated read
+	 * models, and unknown read models are not found.
+	 */
+	@Test
+	void testRebuildFromLedgerMatchesIncrementalState() throws Exception {
+		// Arrange
+		processSampleBatches();
+		String[] names = { "basket-size", "denomination-turnover", "hourly-revenue" };
+		String[] before = new String[names.length];
+		for (int i = 0; i < names.length; i++) {
+			before[i] = mockMvc.perform(get("/api/projections/" + names[i])).andExpect(status().isOk()).andReturn()
+					.getResponse().getContentAsString();
+		}
+
+		// Act
+		mockMvc.perform(post("/api/projections/rebuild")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.batches").value(3));
+
+		// Assert
+		for (int i = 0; i < names.length; i++) {
+			assertEquals(before[i], mockMvc.perform(get("/api/projections/" + names[i])).andReturn().getResponse()
+					.getContentAsString(), names[i]);
+		}
+		mockMvc.perform(get("/api/projections/unknown")).andExpect(status().isNotFound());
+	}
+
+	private void processSampleBatches() throws InterruptedException {
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1)));
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(10, 2, 1),
+				new CustomerOrder(20, 3, 3)));
+		orderProcessor.processOrders(Arrays.asList(new CustomerOrder(20, 1, 1)));
+		assertTrue(orderLedgerWriter.flush(5000));
+	}
+}
@@ -0,0 +1,125 @@
+package com.example.lemonade_stand;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+import com.example.lemonade_stand.tracing.Span;
+import com.example.lemonade_stand.tracing.SpanExporter;
+
+@SpringBootTest(properties = "lemonade.tracing.sample-rate=1.0")
+@AutoConfigureMockMvc
+class TracingTests {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private OrderProcessor orderProcessor;
+	@Autowired
+	private OrderRepositoryService orderRepositoryService;
+	@Autowired
+	private CollectingSpanExporter exporter;
+
+	@TestConfiguration
+	static class CollectingExporterConfig {
+		@Bean
+		CollectingSpanExporter collectingSpanExporter() {
+			return new CollectingSpanExporter();
+		}
+	}
+
+	static class CollectingSpanExporter implements SpanExporter {
+		final List<List<Span>> traces = new ArrayList<>();
+
+		@Override
+		public synchronized void export(List<Span> spans) {
+			traces.add(spans);
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+		orderRepositoryService.clearAllRecords(); // clear records so that each test case can be independently executed
+		orderProcessor.initializeDB();
+		exporter.traces.clear();
+	}
+
+	/**
+	 * Validate one batch produces a single trace with a span per stage, nested
+	 * under the request span.
+	 */
+	@Test
+	void testBatchProducesSpanPerStage() throws Exception {
+		// Act
+		mockMvc.perform(post("/api/orders/process").contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"bill_value\":5,\"position_in_line\":2,\"requested_lemonades\":1},"
+						+ "{\"bill_value\":10,\"position_in_line\":1,\"requested_lemonades\":2}]"))
+				.andExpect(status().isOk());
+
+		// Assert
+		assertEquals(1, exporter.traces.size());
+		List<Span> spans = exporter.traces.get(0);
+		Map<String, Span> byName = spans.stream().collect(Collectors.toMap(Span::getName, Function.identity()));
+		Span root = spans.get(0);
+		assertEquals("POST /api/orders/process", root.getName());
+		assertNull(root.getParentSpanId());
+		assertEquals(200, root.getAttributes().get("http.status_code"));
+
+		for (String stage : new String[] { "order.bind", "order.validate", "order.process", "order.render" }) {
+			assertEquals(root.getSpanId(), byName.get(stage).getParentSpanId(), stage);
+		}
+		Span process = byName.get("order.process");
+		for (String stage : new String[] { "order.sort", "order.serve", "order.commit" }) {
+			assertEquals(process.getSpanId(), byName.get(stage).getParentSpanId(), stage);
+		}
+		assertEquals(2, process.getAttributes().get("order.count"));
+		assertEquals("committed", process.getAttributes().get("batch.outcome"));
+		assertTrue((Integer) byName.get("order.commit").getAttributes().get("db.statements") > 0);
+		for (Span span : spans) {
+			assertEquals(root.getTraceId(), span.getTraceId());
+			assertTrue(span.getEndEpochNanos() >= span.getStartEpochNanos(), span.getName());
+		}
+	}
+
+	/**
+	 * Validate an incoming traceparent header is continued, and an unsampled one
+	 * is not traced.
+	 */
+	@Test
+	void testTraceparentHeaderIsHonoured() throws Exception {
+		String body = "[{\"bill_value\":5,\"position_in_line\":1,\"requested_lemonades\":1}]";
+
+		// Act
+		mockMvc.perform(post("/api/orders/process").contentType(MediaType.APPLICATION_JSON).content(body)
+				.header("traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"));
+		mockMvc.perform(post("/api/orders/process").contentType(MediaType.APPLICATION_JSON).content(body)
+				.header("traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00"));
+
+		// Assert
+		assertEquals(1, exporter.traces.size());
+		Span root = exporter.traces.get(0).get(0);
+		assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", root.getTraceId());
+		assertEquals("00f067aa0ba902b7", root.getParentSpanId());
+		assertFalse(Span.NOOP.isRecording());
+	}
+}
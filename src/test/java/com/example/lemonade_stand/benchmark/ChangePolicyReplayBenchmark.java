@@ -0,0 +1,190 @@
+package com.example.lemonade_stand.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.lemonade_stand.change.ChangeDrawer;
+import com.example.lemonade_stand.change.ChangePolicy;
+import com.example.lemonade_stand.change.GreedyChangePolicy;
+import com.example.lemonade_stand.change.LookaheadChangePolicy;
+import com.example.lemonade_stand.change.UpcomingOrders;
+import com.example.lemonade_stand.order.OrderBatch;
+import com.example.lemonade_stand.util.AppConstants;
+
+/**
+ * Replays a day of orders, from an empty drawer, through each change policy.
+ * The score is the CPU time per order; the share of orders lost to failed
+ * batches is printed once per trial, as the replay is deterministic.
+ * {@code smallest} hands back the smallest bills first and is only a baseline
+ * for how much the choice of bills matters.
+ * <p>
+ * Batches are served as {@code OrderProcessor} serves them: in line order,
+ * each order's bill going to the drawer before its change is handed back, and
+ * the whole batch failing at its first order without exact change.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ChangePolicyReplayBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChangePolicyReplayBenchmark {
+
+	private static final int ORDERS = 20_000; // Orders replayed per invocation
+	private static final int[] DENOMINATIONS = { 5, 10, 20 };
+
+	@Param({ "greedy", "lookahead", "smallest" })
+	public String policy;
+	@Param({ "1", "8" })
+	public int maxBatchSize; // Batches hold 1 to this many orders
+
+	private ChangePolicy changePolicy;
+	private OrderBatch[] batches;
+	private UpcomingOrders[] upcoming;
+	private final ReplayDrawer drawer = new ReplayDrawer();
+
+	@Setup
+	public void setUp() {
+		switch (policy) {
+		case "greedy":
+			changePolicy = new GreedyChangePolicy();
+			break;
+		case "lookahead":
+			changePolicy = new LookaheadChangePolicy(8);
+			break;
+		default:
+			changePolicy = new SmallestFirstChangePolicy();
+		}
+		generateDay(new Random(42));
+		int failed = replay();
+		System.out.printf("%n%s, batches of up to %d: %d of %d orders failed (%.2f%%)%n", policy, maxBatchSize,
+				failed, ORDERS, 100.0 * failed / ORDERS);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ORDERS)
+	public int replayDay() {
+		return replay();
+	}
+
+	// Serves every batch of the day and returns the orders of failed batches
+	private int replay() {
+		drawer.clear();
+		int failed = 0;
+		for (int b = 0; b < batches.length; b++) {
+			if (!serve(batches[b], upcoming[b])) {
+				failed += batches[b].size();
+			}
+		}
+		return failed;
+	}
+
+	private boolean serve(OrderBatch batch, UpcomingOrders upcoming) {
+		drawer.begin();
+		for (int i = 0; i < batch.size(); i++) {
+			int billValue = batch.getBillValue(i);
+			int change = billValue - batch.getRequestedLemonades(i) * AppConstants.LEMONADE_COST;
+			drawer.collect(billValue);
+			upcoming.advanceTo(i + 1);
+			if (change > 0 && !changePolicy.giveChange(change, drawer, upcoming)) {
+				return false;
+			}
+		}
+		drawer.commit();
+		return true;
+	}
+
+	// Mostly single lemonades paid with a $5 or $10 bill, some larger orders and $20 bills
+	private void generateDay(Random random) {
+		int count = 0;
+		OrderBatch[] day = new OrderBatch[ORDERS];
+		for (int orders = 0; orders < ORDERS; count++) {
+			int size = Math.min(1 + random.nextInt(maxBatchSize), ORDERS - orders);
+			OrderBatch batch = new OrderBatch(size);
+			for (int i = 0; i < size; i++) {
+				int roll = random.nextInt(100);
+				int billValue = roll < 45 ? 5 : roll < 80 ? 10 : 20;
+				int lemonades = 1 + random.nextInt(billValue / AppConstants.LEMONADE_COST);
+				batch.set(i, billValue, i + 1, random.nextInt(4) == 0 ? lemonades : 1);
+			}
+			day[count] = batch;
+			orders += size;
+		}
+		batches = new OrderBatch[count];
+		upcoming = new UpcomingOrders[count];
+		for (int b = 0; b < count; b++) {
+			batches[b] = day[b];
+			upcoming[b] = new UpcomingOrders(day[b], day[b].indexesInLineOrder());
+		}
+	}
+
+	// Committed counts plus the bills collected and handed back by the batch being served
+	private static final class ReplayDrawer implements ChangeDrawer {
+		final int[] committed = new int[DENOMINATIONS.length];
+		final int[] working = new int[DENOMINATIONS.length];
+
+		void clear() {
+			Arrays.fill(committed, 0);
+		}
+
+		void begin() {
+			System.arraycopy(committed, 0, working, 0, working.length);
+		}
+
+		void collect(int billValue) {
+			working[index(billValue)]++;
+		}
+
+		void commit() {
+			System.arraycopy(working, 0, committed, 0, committed.length);
+		}
+
+		@Override
+		public int available(int denomination) {
+			return working[index(denomination)];
+		}
+
+		@Override
+		public boolean take(int denomination) {
+			int i = index(denomination);
+			if (working[i] == 0) {
+				return false;
+			}
+			working[i]--;
+			return true;
+		}
+
+		private static int index(int denomination) {
+			return denomination == 5 ? 0 : denomination == 10 ? 1 : 2;
+		}
+	}
+
+	// Baseline: spends the $5 bills first
+	private static final class SmallestFirstChangePolicy implements ChangePolicy {
+		@Override
+		public boolean giveChange(int change, ChangeDrawer drawer, UpcomingOrders upcoming) {
+			for (int denomination : DENOMINATIONS) {
+				while (change >= denomination && drawer.take(denomination)) {
+					change -= denomination;
+				}
+			}
+			return change == 0;
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.lemonade_stand.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.lemonade_stand.LemonadeStandApplication;
+import com.example.lemonade_stand.lane.Lane;
+import com.example.lemonade_stand.order.ServingScheduler;
+import com.example.lemonade_stand.order.ServingTurn;
+
+/**
+ * Latency of small batches served next to a client posting very large batches.
+ * One thread serves large batches while three serve small ones, all taking
+ * turns on a single serving slot; each order costs a fixed amount of CPU, about
+ * what serving one order takes. With a chunk size as large as the large batch,
+ * a small batch may wait for a whole large batch; with small chunks it waits
+ * for one chunk. Large batches take turns in the bulk lane and small ones in
+ * the interactive lane; with an interactive weight above one, a freed slot
+ * goes to waiting small batches more often than to the large one. The
+ * sample-time mode reports percentiles per method, so the small batches' tail
+ * shows the fairness and the large batches' time shows what the turns cost
+ * them.
+ * <p>
+ * Only the serving stage is measured: committing a batch and writing the order
+ * ledger do not hold a serving slot and would otherwise dominate both sides.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=MixedWorkloadBenchmark}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Group)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MixedWorkloadBenchmark {
+
+	private static final int LARGE_BATCH = 20_000;
+	private static final int SMALL_BATCH = 10;
+	private static final long ORDER_TOKENS = 64; // Blackhole CPU tokens per order served
+
+	@Param({ "20000", "500" })
+	private int maxChunkSize;
+	@Param({ "1", "8" })
+	private int interactiveWeight;
+
+	private ConfigurableApplicationContext context;
+	private ServingScheduler servingScheduler;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(LemonadeStandApplication.class).web(WebApplicationType.NONE).run(
+				"--spring.jpa.show-sql=false", "--lemonade.batch.serving-slots=1", "--lemonade.batch.max-chunk-size=" + maxChunkSize,
+				"--lemonade.lanes.interactive.weight=" + interactiveWeight);
+		servingScheduler = context.getBean(ServingScheduler.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	@Group("mixed")
+	@GroupThreads(1)
+	public int largeBatch() {
+		return serve(Lane.BULK, LARGE_BATCH);
+	}
+
+	@Benchmark
+	@Group("mixed")
+	@GroupThreads(3)
+	public int smallBatch() {
+		return serve(Lane.INTERACTIVE, SMALL_BATCH);
+	}
+
+	private int serve(Lane lane, int orders) {
+		try (ServingTurn turn = servingScheduler.start(lane)) {
+			for (int i = 0; i < orders; i++) {
+				Blackhole.consumeCPU(ORDER_TOKENS);
+				turn.served();
+			}
+			return turn.getYields();
+		}
+	}
+}
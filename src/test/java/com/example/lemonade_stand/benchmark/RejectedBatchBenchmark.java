@@ -0,0 +1,110 @@
+package com.example.lemonade_stand.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.lemonade_stand.exception_handler.InvalidOrderException;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderBatch;
+import com.example.lemonade_stand.order.OrderBatchValidator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Throughput of rejected order batches (batches containing invalid bills), as
+ * sent by a misbehaving POS terminal.
+ * <p>
+ * {@code exceptionPerBatch} reproduces the former behaviour, where the
+ * {@link CustomerOrder} constructor threw {@link InvalidOrderException} and
+ * Jackson wrapped it. {@code batchValidator} is the current path: bind every
+ * order, then collect all violations in one pass.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=RejectedBatchBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectedBatchBenchmark {
+
+	@Param({ "1", "20", "500" })
+	private int batchSize;
+
+	private byte[] payload; // JSON body of one rejected batch
+	private ObjectReader legacyReader;
+	private ObjectReader orderReader;
+	private OrderBatchValidator validator;
+
+	@Setup
+	public void setUp() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		legacyReader = mapper.readerFor(new TypeReference<List<ThrowingCustomerOrder>>() {
+		});
+		orderReader = mapper.readerFor(new TypeReference<List<CustomerOrder>>() {
+		});
+		validator = new OrderBatchValidator();
+
+		// Roughly one order in ten carries an invalid bill, always at least one
+		Random random = new Random(42);
+		int[] bills = { 5, 10, 20 };
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < batchSize; i++) {
+			int bill = (i == batchSize / 2 || random.nextInt(10) == 0) ? 7 : bills[random.nextInt(bills.length)];
+			json.append(i == 0 ? "" : ",").append("{\"bill_value\":").append(bill).append(",\"position_in_line\":")
+					.append(i + 1).append(",\"requested_lemonades\":1}");
+		}
+		payload = json.append(']').toString().getBytes();
+	}
+
+	@Benchmark
+	public Object exceptionPerBatch() throws Exception {
+		try {
+			return legacyReader.readValue(payload);
+		} catch (JsonMappingException e) {
+			return e; // What GlobalExceptionHandler used to unwrap
+		}
+	}
+
+	@Benchmark
+	public Object batchValidator() throws Exception {
+		List<CustomerOrder> orders = orderReader.readValue(payload);
+		return validator.validate(OrderBatch.fromOrders(orders));
+	}
+
+	// Mirrors the former CustomerOrder, which validated its bill in the constructor
+	public static class ThrowingCustomerOrder {
+		private final int billValue;
+
+		public ThrowingCustomerOrder(@JsonProperty("bill_value") int billValue,
+				@JsonProperty("position_in_line") int positionInLine,
+				@JsonProperty("requested_lemonades") int requestedLemonades) {
+			if (billValue != 5 && billValue != 10 && billValue != 20) {
+				throw new InvalidOrderException(
+						"Invalid bill value: " + billValue + ". Accepted values are 5, 10, or 20.");
+			}
+			this.billValue = billValue;
+		}
+
+		public int getBillValue() {
+			return billValue;
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.lemonade_stand.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.lemonade_stand.LemonadeStandApplication;
+import com.example.lemonade_stand.order.CustomerOrder;
+import com.example.lemonade_stand.order.OrderProcessor;
+import com.example.lemonade_stand.order.SalesReportGenerator;
+import com.example.lemonade_stand.order.SalesReportGenerator.Format;
+
+/**
+ * Cost of serving the sales report while the stand is idle, the steady state of
+ * a dashboard polling it. Run with the default {@code gc} profiler;
+ * {@code gc.alloc.rate.norm} is the bytes allocated per report and should be
+ * 0. The report is written to a discarding stream, as it would be to the
+ * servlet output stream.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ReportRenderingBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportRenderingBenchmark {
+
+	private ConfigurableApplicationContext context;
+	private SalesReportGenerator salesReportGenerator;
+	private final OutputStream out = OutputStream.nullOutputStream();
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(LemonadeStandApplication.class).web(WebApplicationType.NONE)
+				.run("--spring.jpa.show-sql=false");
+		context.getBean(OrderProcessor.class).processOrders(
+				Arrays.asList(new CustomerOrder(5, 1, 1), new CustomerOrder(10, 2, 1), new CustomerOrder(20, 3, 3)));
+		salesReportGenerator = context.getBean(SalesReportGenerator.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public OutputStream textReport() throws IOException {
+		salesReportGenerator.writeReport(Format.TEXT, out);
+		return out;
+	}
+
+	@Benchmark
+	public OutputStream jsonReport() throws IOException {
+		salesReportGenerator.writeReport(Format.JSON, out);
+		return out;
+	}
+}
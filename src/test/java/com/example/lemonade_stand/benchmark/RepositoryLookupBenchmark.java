@@ -0,0 +1,68 @@
+package com.example.lemonade_stand.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.lemonade_stand.LemonadeStandApplication;
+import com.example.lemonade_stand.order.OrderRepositoryService;
+import com.example.lemonade_stand.order.SalesReportGenerator;
+
+/**
+ * Throughput of the repository lookups behind order processing and the sales
+ * report, without and with the {@code cache} profile.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=RepositoryLookupBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryLookupBenchmark {
+
+	@Param({ "default", "cache" })
+	private String profile;
+
+	private ConfigurableApplicationContext context;
+	private OrderRepositoryService orderRepositoryService;
+	private SalesReportGenerator salesReportGenerator;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(LemonadeStandApplication.class).web(WebApplicationType.NONE)
+				.profiles(profile).run("--spring.jpa.show-sql=false");
+		orderRepositoryService = context.getBean(OrderRepositoryService.class);
+		salesReportGenerator = context.getBean(SalesReportGenerator.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public int billCountLookup() {
+		return orderRepositoryService.getBillCountInDatabase(5);
+	}
+
+	@Benchmark
+	public String salesReport() {
+		return salesReportGenerator.getCompleteSalesReport();
+	}
+}
@@ -0,0 +1,199 @@
+package com.example.lemonade_stand.drawer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedDrawerStoreTests {
+
+	private static final long DEAD_PID = Long.MAX_VALUE; // No process has this pid
+
+	@TempDir
+	Path directory;
+
+	/**
+	 * Validate two stores mapping the same file share counters, and only the
+	 * first one loads the database checkpoint.
+	 */
+	@Test
+	void testStoresOnSameFileShareCounters() throws IOException {
+		Path file = directory.resolve("drawer.bin");
+		try (MappedDrawerStore first = new MappedDrawerStore(file);
+				MappedDrawerStore second = new MappedDrawerStore(file)) {
+			// Act
+			boolean firstRestored = first.restore(new int[] { 2, 1, 0 }, 7);
+			boolean secondRestored = second.restore(new int[] { 0, 0, 0 }, 0);
+			boolean taken = second.take(0);
+			first.commit(new int[] { 0, 0, 0 }, new int[] { 0, 0, 1 });
+			first.addLemonadesSold(3);
+
+			// Assert
+			assertTrue(firstRestored);
+			assertFalse(secondRestored);
+			assertTrue(taken);
+			assertEquals(1, first.getAvailable(0));
+			assertEquals(2, first.getCheckpointCount(0)); // The held bill is still in the drawer
+			assertEquals(1, second.getAvailable(2));
+			assertEquals(10, second.getLemonadesSold());
+		}
+	}
+
+	/**
+	 * Validate a reopened file keeps its counters, and bills held when a process
+	 * exits between updates are returned to the drawer.
+	 */
+	@Test
+	void testHeldBillsOfExitedProcessAreReturned() throws IOException {
+		// Arrange: a process holds one bill and exits without closing the store
+		Path file = directory.resolve("drawer.bin");
+		MappedDrawerStore crashed = new MappedDrawerStore(file);
+		crashed.restore(new int[] { 2, 0, 0 }, 0);
+		crashed.take(0);
+		writeLong(file, MappedDrawerStore.HEADER_BYTES + MappedDrawerStore.SLOT_PID, DEAD_PID);
+
+		// Act
+		try (MappedDrawerStore reopened = new MappedDrawerStore(file)) {
+			// Assert
+			assertFalse(reopened.restore(new int[] { 0, 0, 0 }, 0));
+			assertEquals(2, reopened.getAvailable(0));
+		}
+	}
+
+	/**
+	 * Validate a process that died in the middle of an update makes the file fall
+	 * back to the database checkpoint.
+	 */
+	@Test
+	void testDeathDuringUpdateFallsBackToCheckpoint() throws IOException {
+		// Arrange
+		Path file = directory.resolve("drawer.bin");
+		MappedDrawerStore crashed = new MappedDrawerStore(file);
+		crashed.restore(new int[] { 5, 5, 5 }, 0);
+		writeLong(file, MappedDrawerStore.HEADER_BYTES + MappedDrawerStore.SLOT_PID, DEAD_PID);
+		writeLong(file, MappedDrawerStore.HEADER_BYTES + MappedDrawerStore.SLOT_UPDATES, 1);
+
+		// Act
+		try (MappedDrawerStore reopened = new MappedDrawerStore(file)) {
+			// Assert
+			assertTrue(reopened.restore(new int[] { 1, 2, 3 }, 4));
+			assertEquals(2, reopened.getAvailable(1));
+			assertEquals(4, reopened.getLemonadesSold());
+		}
+	}
+
+	/**
+	 * Validate a death during an update, while another process still uses the
+	 * file, drops only the dead process's held bills and keeps the shared
+	 * counters and the running process's slot.
+	 */
+	@Test
+	void testDeathDuringUpdateKeepsCountersInUse() throws IOException {
+		// Arrange: a running process holds one bill, another died during an update
+		Path file = directory.resolve("drawer.bin");
+		try (MappedDrawerStore running = new MappedDrawerStore(file)) {
+			running.restore(new int[] { 3, 0, 0 }, 5);
+			running.take(0);
+			MappedDrawerStore crashed = new MappedDrawerStore(file); // Takes the second slot, then dies
+			crashed.take(0);
+			int crashedSlot = MappedDrawerStore.HEADER_BYTES + MappedDrawerStore.SLOT_BYTES;
+			writeLong(file, crashedSlot + MappedDrawerStore.SLOT_PID, DEAD_PID);
+			writeLong(file, crashedSlot + MappedDrawerStore.SLOT_UPDATES, 1);
+
+			// Act: the new process's checkpoint knows nothing of the drawer
+			try (MappedDrawerStore reopened = new MappedDrawerStore(file)) {
+				boolean restored = reopened.restore(new int[] { 0, 0, 0 }, 0);
+				running.release(0, 1);
+
+				// Assert
+				assertFalse(restored);
+				assertEquals(2, reopened.getAvailable(0));
+				assertEquals(5, reopened.getLemonadesSold());
+				assertEquals(0, readLong(file, crashedSlot + MappedDrawerStore.SLOT_HELD));
+				assertEquals(ProcessHandle.current().pid(),
+						readLong(file, MappedDrawerStore.HEADER_BYTES + MappedDrawerStore.SLOT_PID));
+			}
+		}
+	}
+
+	/**
+	 * Validate damaged shared counters are not reloaded while a process using
+	 * the file is still running.
+	 */
+	@Test
+	void testDamagedCountersInUseAreNotReloaded() throws IOException {
+		// Arrange
+		Path file = directory.resolve("drawer.bin");
+		try (MappedDrawerStore running = new MappedDrawerStore(file)) {
+			running.restore(new int[] { 5, 5, 5 }, 0);
+			writeLong(file, MappedDrawerStore.SOLD_OFFSET, -1);
+
+			// Act and Assert
+			assertThrows(IOException.class, () -> new MappedDrawerStore(file));
+			assertEquals(5, running.getAvailable(0));
+		}
+	}
+
+	/**
+	 * Validate a file with a damaged header is not rebuilt while a process using
+	 * it is still running.
+	 */
+	@Test
+	void testDamagedHeaderInUseIsNotRebuilt() throws IOException {
+		// Arrange
+		Path file = directory.resolve("drawer.bin");
+		try (MappedDrawerStore running = new MappedDrawerStore(file)) {
+			running.restore(new int[] { 5, 5, 5 }, 0);
+			writeLong(file, MappedDrawerStore.MAGIC_OFFSET, 0);
+
+			// Act and Assert
+			assertThrows(IOException.class, () -> new MappedDrawerStore(file));
+			assertEquals(5, running.getAvailable(0));
+		}
+	}
+
+	/**
+	 * Validate a file with a damaged header is rebuilt from the checkpoint.
+	 */
+	@Test
+	void testDamagedHeaderFallsBackToCheckpoint() throws IOException {
+		// Arrange
+		Path file = directory.resolve("drawer.bin");
+		try (MappedDrawerStore store = new MappedDrawerStore(file)) {
+			store.restore(new int[] { 5, 5, 5 }, 0);
+		}
+		writeLong(file, MappedDrawerStore.MAGIC_OFFSET, 0);
+
+		// Act
+		try (MappedDrawerStore reopened = new MappedDrawerStore(file)) {
+			// Assert
+			assertTrue(reopened.restore(new int[] { 1, 1, 1 }, 0));
+			assertEquals(1, reopened.getAvailable(0));
+		}
+	}
+
+	private static long readLong(Path file, int offset) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, MappedDrawerStore.FILE_BYTES);
+			return buffer.order(ByteOrder.nativeOrder()).getLong(offset);
+		}
+	}
+
+	private static void writeLong(Path file, int offset, long value) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, MappedDrawerStore.FILE_BYTES);
+			buffer.order(ByteOrder.nativeOrder()).putLong(offset, value);
+			buffer.force();
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package com.example.lemonade_stand.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Histogram;
+
+import com.example.lemonade_stand.admission.AdmissionFilter;
+import com.example.lemonade_stand.order.BinaryOrderCodec;
+import com.example.lemonade_stand.order.OrderBatch;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Drives a locally running instance with a seeded workload and reports
+ * throughput and latency percentiles as JSON. Each worker is a closed loop
+ * sending one batch at a time with its own client id.
+ * <p>
+ * Start the application, then run
+ * {@code mvn -Pload-test test-compile exec:exec -Dloadtest=batches=5000,concurrency=16}.
+ * See {@link WorkloadSpec} for all parameters.
+ */
+public class LoadTestRunner {
+
+	private static final long MAX_TRACKED_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+	public static void main(String[] args) throws Exception {
+		WorkloadSpec spec = WorkloadSpec.parse(args.length > 0 ? args[0] : "");
+		Map<String, Object> report = new LoadTestRunner().run(spec);
+
+		ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+		File reportFile = new File(spec.getReport());
+		if (reportFile.getParentFile() != null) {
+			reportFile.getParentFile().mkdirs();
+		}
+		mapper.writeValue(reportFile, report);
+		System.out.println(mapper.writeValueAsString(report));
+	}
+
+	/**
+	 * Generates the workload, sends it and collects the results.
+	 *
+	 * @param spec The workload to run.
+	 * @return The report, as an ordered map ready to be serialized.
+	 */
+	public Map<String, Object> run(WorkloadSpec spec) throws Exception {
+		// Encode every batch up front so the measurement only covers the exchange
+		boolean binary = "binary".equals(spec.getFormat());
+		List<OrderBatch> batches = new WorkloadGenerator(spec).generate(spec.getBatches());
+		List<byte[]> payloads = new ArrayList<>(batches.size());
+		long totalOrders = 0;
+		for (OrderBatch batch : batches) {
+			payloads.add(binary ? BinaryOrderCodec.encode(batch) : toJson(batch));
+			totalOrders += batch.size();
+		}
+
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+		URI uri = URI.create(spec.getTarget() + "/api/orders/process");
+		String contentType = binary ? BinaryOrderCodec.CONTENT_TYPE : "application/json";
+
+		AtomicInteger nextBatch = new AtomicInteger();
+		Map<String, AtomicLong> outcomes = new LinkedHashMap<>();
+		for (String outcome : new String[] { "processed", "null", "bad_request", "throttled", "error" }) {
+			outcomes.put(outcome, new AtomicLong());
+		}
+
+		ExecutorService workers = Executors.newFixedThreadPool(spec.getConcurrency());
+		List<Future<Histogram>> results = new ArrayList<>();
+		long start = System.nanoTime();
+		for (int w = 0; w < spec.getConcurrency(); w++) {
+			String clientId = "loadtest-" + w;
+			results.add(workers.submit(() -> {
+				Histogram latencies = new Histogram(MAX_TRACKED_MICROS, 3);
+				int index;
+				while ((index = nextBatch.getAndIncrement()) < payloads.size()) {
+					HttpRequest request = HttpRequest.newBuilder(uri).header("Content-Type", contentType)
+							.header(AdmissionFilter.CLIENT_ID_HEADER, clientId)
+							.POST(HttpRequest.BodyPublishers.ofByteArray(payloads.get(index))).build();
+					long sent = System.nanoTime();
+					String outcome;
+					try {
+						HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+						outcome = outcomeOf(response);
+					} catch (IOException e) {
+						outcome = "error";
+					}
+					long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent);
+					latencies.recordValue(Math.min(micros, MAX_TRACKED_MICROS));
+					outcomes.get(outcome).incrementAndGet();
+				}
+				return latencies;
+			}));
+		}
+
+		Histogram latencies = new Histogram(MAX_TRACKED_MICROS, 3);
+		for (Future<Histogram> result : results) {
+			latencies.add(result.get());
+		}
+		double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+		workers.shutdown();
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("workload", spec.toMap());
+		report.put("elapsedSeconds", elapsedSeconds);
+		report.put("totalOrders", totalOrders);
+		report.put("batchesPerSecond", batches.size() / elapsedSeconds);
+		report.put("ordersPerSecond", totalOrders / elapsedSeconds);
+		Map<String, Long> outcomeCounts = new LinkedHashMap<>();
+		outcomes.forEach((outcome, count) -> outcomeCounts.put(outcome, count.get()));
+		report.put("outcomes", outcomeCounts);
+		report.put("latencyMillis", percentiles(latencies));
+		return report;
+	}
+
+	private static String outcomeOf(HttpResponse<String> response) {
+		switch (response.statusCode()) {
+		case 200:
+			return "null".equals(response.body()) ? "null" : "processed";
+		case 400:
+			return "bad_request";
+		case 429:
+		case 503:
+			return "throttled";
+		default:
+			return "error";
+		}
+	}
+
+	private static Map<String, Double> percentiles(Histogram latencies) {
+		Map<String, Double> percentiles = new LinkedHashMap<>();
+		percentiles.put("p50", latencies.getValueAtPercentile(50) / 1000.0);
+		percentiles.put("p90", latencies.getValueAtPercentile(90) / 1000.0);
+		percentiles.put("p99", latencies.getValueAtPercentile(99) / 1000.0);
+		percentiles.put("p99.9", latencies.getValueAtPercentile(99.9) / 1000.0);
+		percentiles.put("max", latencies.getMaxValue() / 1000.0);
+		percentiles.put("mean", latencies.getMean() / 1000.0);
+		return percentiles;
+	}
+
+	private static byte[] toJson(OrderBatch batch) {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < batch.size(); i++) {
+			json.append(i == 0 ? "{" : ",{").append("\"bill_value\":").append(batch.getBillValue(i))
+					.append(",\"position_in_line\":").append(batch.getPositionInLine(i))
+					.append(",\"requested_lemonades\":").append(batch.getRequestedLemonades(i)).append('}');
+		}
+		return json.append(']').toString().getBytes();
+	}
+}
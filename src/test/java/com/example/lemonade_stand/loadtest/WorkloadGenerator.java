@@ -0,0 +1,124 @@
+package com.example.lemonade_stand.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.example.lemonade_stand.order.OrderBatch;
+import com.example.lemonade_stand.util.AppConstants;
+
+/**
+ * Generates reproducible order batches from a {@link WorkloadSpec}. The same
+ * seed always yields the same sequence of batches, independent of how many
+ * threads later send them.
+ */
+public class WorkloadGenerator {
+
+	private final SplittableRandom random;
+	private final int[] denominations; // Bill values that can be drawn
+	private final double[] cumulativeWeights; // Cumulative share of each denomination
+	private final String sizeKind; // fixed, uniform or exponential
+	private final double sizeA; // N, MIN or MEAN depending on the kind
+	private final double sizeB; // MAX for uniform sizes
+	private final double infeasibleShare;
+
+	public WorkloadGenerator(WorkloadSpec spec) {
+		this.random = new SplittableRandom(spec.getSeed());
+		this.infeasibleShare = spec.getInfeasibleShare();
+
+		// Bill mix, e.g. 5:6/10:3/20:1
+		String[] entries = spec.getBills().split("/");
+		denominations = new int[entries.length];
+		cumulativeWeights = new double[entries.length];
+		double total = 0;
+		for (int i = 0; i < entries.length; i++) {
+			String[] denominationWeight = entries[i].split(":");
+			denominations[i] = Integer.parseInt(denominationWeight[0]);
+			total += Double.parseDouble(denominationWeight[1]);
+			cumulativeWeights[i] = total;
+		}
+		for (int i = 0; i < entries.length; i++) {
+			cumulativeWeights[i] /= total;
+		}
+
+		// Batch size distribution, e.g. uniform:1-20
+		String[] kindParameters = spec.getBatchSize().split(":");
+		sizeKind = kindParameters[0];
+		String[] bounds = kindParameters[1].split("-");
+		sizeA = Double.parseDouble(bounds[0]);
+		sizeB = bounds.length > 1 ? Double.parseDouble(bounds[1]) : sizeA;
+	}
+
+	/**
+	 * @param count Number of batches to generate.
+	 * @return The next {@code count} batches of the workload.
+	 */
+	public List<OrderBatch> generate(int count) {
+		List<OrderBatch> batches = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			batches.add(nextBatch());
+		}
+		return batches;
+	}
+
+	/**
+	 * @return The next batch of the workload. Customers arrive in shuffled line
+	 *         order; an infeasible batch contains one order its bill cannot pay
+	 *         for.
+	 */
+	public OrderBatch nextBatch() {
+		int size = nextBatchSize();
+		int[] positions = shuffledPositions(size);
+		OrderBatch batch = new OrderBatch(size);
+
+		for (int i = 0; i < size; i++) {
+			int bill = nextBill();
+			int maxLemonades = bill / AppConstants.LEMONADE_COST;
+			batch.set(i, bill, positions[i], 1 + random.nextInt(maxLemonades));
+		}
+
+		if (random.nextDouble() < infeasibleShare) {
+			int index = random.nextInt(size);
+			int bill = batch.getBillValue(index);
+			batch.set(index, bill, batch.getPositionInLine(index), bill / AppConstants.LEMONADE_COST + 1);
+		}
+		return batch;
+	}
+
+	private int nextBatchSize() {
+		switch (sizeKind) {
+		case "fixed":
+			return (int) sizeA;
+		case "uniform":
+			return (int) sizeA + random.nextInt((int) (sizeB - sizeA) + 1);
+		case "exponential":
+			return 1 + (int) (-Math.log(1 - random.nextDouble()) * (sizeA - 1));
+		default:
+			throw new IllegalArgumentException("Unknown batch size distribution: " + sizeKind);
+		}
+	}
+
+	private int nextBill() {
+		double draw = random.nextDouble();
+		for (int i = 0; i < denominations.length - 1; i++) {
+			if (draw < cumulativeWeights[i]) {
+				return denominations[i];
+			}
+		}
+		return denominations[denominations.length - 1];
+	}
+
+	private int[] shuffledPositions(int size) {
+		int[] positions = new int[size];
+		for (int i = 0; i < size; i++) {
+			positions[i] = i + 1;
+		}
+		for (int i = size - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = positions[i];
+			positions[i] = positions[j];
+			positions[j] = swap;
+		}
+		return positions;
+	}
+}
@@ -0,0 +1,125 @@
+package com.example.lemonade_stand.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parameters of a load test run, parsed from a comma separated
+ * {@code key=value} list, e.g.
+ * {@code seed=7,batches=5000,concurrency=16,batchSize=uniform:1-20,bills=5:6/10:3/20:1,infeasibleShare=0.05}.
+ */
+public class WorkloadSpec {
+
+	private long seed = 42; // Seed of the workload generator
+	private int batches = 2000; // Number of batches sent
+	private int concurrency = 8; // Number of concurrent client connections
+	private String batchSize = "uniform:1-20"; // fixed:N, uniform:MIN-MAX or exponential:MEAN
+	private String bills = "5:6/10:3/20:1"; // Relative weight of each bill denomination
+	private double infeasibleShare = 0.05; // Share of batches containing an order that cannot be paid
+	private String format = "json"; // Wire format, json or binary
+	private String target = "http://localhost:8080"; // Base URL of the running application
+	private String report = "target/loadtest-report.json"; // Where the report is written
+
+	/**
+	 * @param spec Comma separated {@code key=value} pairs; unknown keys are
+	 *             rejected, missing keys keep their defaults.
+	 * @return The parsed spec.
+	 */
+	public static WorkloadSpec parse(String spec) {
+		WorkloadSpec workload = new WorkloadSpec();
+		if (spec == null || spec.trim().isEmpty()) {
+			return workload;
+		}
+		for (String pair : spec.split(",")) {
+			String[] keyValue = pair.split("=", 2);
+			if (keyValue.length != 2) {
+				throw new IllegalArgumentException("Expected key=value but got: " + pair);
+			}
+			String value = keyValue[1].trim();
+			switch (keyValue[0].trim()) {
+			case "seed":
+				workload.seed = Long.parseLong(value);
+				break;
+			case "batches":
+				workload.batches = Integer.parseInt(value);
+				break;
+			case "concurrency":
+				workload.concurrency = Integer.parseInt(value);
+				break;
+			case "batchSize":
+				workload.batchSize = value;
+				break;
+			case "bills":
+				workload.bills = value;
+				break;
+			case "infeasibleShare":
+				workload.infeasibleShare = Double.parseDouble(value);
+				break;
+			case "format":
+				workload.format = value;
+				break;
+			case "target":
+				workload.target = value;
+				break;
+			case "report":
+				workload.report = value;
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown workload parameter: " + keyValue[0]);
+			}
+		}
+		return workload;
+	}
+
+	/**
+	 * @return The spec as an ordered map, for inclusion in the report.
+	 */
+	public Map<String, Object> toMap() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("seed", seed);
+		map.put("batches", batches);
+		map.put("concurrency", concurrency);
+		map.put("batchSize", batchSize);
+		map.put("bills", bills);
+		map.put("infeasibleShare", infeasibleShare);
+		map.put("format", format);
+		map.put("target", target);
+		return map;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public int getBatches() {
+		return batches;
+	}
+
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	public String getBatchSize() {
+		return batchSize;
+	}
+
+	public String getBills() {
+		return bills;
+	}
+
+	public double getInfeasibleShare() {
+		return infeasibleShare;
+	}
+
+	public String getFormat() {
+		return format;
+	}
+
+	public String getTarget() {
+		return target;
+	}
+
+	public String getReport() {
+		return report;
+	}
+}